@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.Type;
+import org.openhab.binding.knx.internal.dpt.KNXCoreTypeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+
+/**
+ * Benchmarks decoding of telegram data by {@link KNXCoreTypeMapper}, compared with creating a translator for every
+ * telegram
+ *
+ * @author agent - Initial contribution
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KNXCoreTypeMapperBenchmark {
+
+    /**
+     * Datapoint types decoded directly (1.001, 5.001, 9.001, 14.056) and with a translator (7.001)
+     */
+    @Param({ "1.001", "5.001", "9.001", "14.056", "7.001" })
+    public String dpt = "";
+
+    private final KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+
+    private Datapoint datapoint;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        datapoint = new CommandDP(new GroupAddress(1, 2, 3), "benchmark", 0, dpt);
+        switch (dpt) {
+            case "1.001":
+                data = new byte[] { 0x01 };
+                break;
+            case "5.001":
+                data = new byte[] { (byte) 0x80 };
+                break;
+            case "9.001":
+                data = new byte[] { 0x0C, 0x1A };
+                break;
+            case "14.056":
+                data = new byte[] { 0x3F, (byte) 0xC0, 0x00, 0x00 };
+                break;
+            default:
+                data = new byte[] { 0x01, 0x02 };
+                break;
+        }
+    }
+
+    @Benchmark
+    public Type mapper() {
+        return mapper.toType(datapoint, data);
+    }
+
+    @Benchmark
+    public Type translatorPerTelegram() throws KNXException {
+        // what the mapper did before translators were cached
+        DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        translator.setData(data);
+        return new DecimalType(translator.getNumericValue());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.jinja.internal.JinjaTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JINJA transformation with a small sensor message and a large device dump
+ *
+ * @author agent - Initial contribution
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JinjaBenchmark {
+
+    private final JinjaTransformationService service = new JinjaTransformationService();
+
+    private String deviceDumpJson = "";
+
+    @Setup
+    public void setUp() {
+        deviceDumpJson = Payloads.deviceDump(250);
+    }
+
+    @Benchmark
+    public String sensorMessage() throws TransformationException {
+        return service.transform("{{ value_json.AM2301.Temperature }}", Payloads.SENSOR_JSON);
+    }
+
+    @Benchmark
+    public String sensorMessageTemplate() throws TransformationException {
+        return service.transform(
+                "{% if value_json.ENERGY.Power > 10 %}ON{% else %}OFF{% endif %} {{ value_json.ENERGY.Power }} W",
+                Payloads.SENSOR_JSON);
+    }
+
+    @Benchmark
+    public String deviceDump() throws TransformationException {
+        return service.transform("{{ value_json.devices[150].state.temperature }}", deviceDumpJson);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.jsonpath.internal.JSonPathTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JSONPATH transformation with a small sensor message and a large device dump
+ *
+ * The parsed documents are cached by the identity of the payload. Benchmarks reusing the same payload instance
+ * measure the case of several channels reading the same message, the benchmarks with fresh payload instances measure
+ * the case of a new message.
+ *
+ * @author agent - Initial contribution
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonPathBenchmark {
+
+    private final JSonPathTransformationService service = new JSonPathTransformationService();
+
+    private String deviceDumpJson = "";
+
+    @Setup
+    public void setUp() {
+        deviceDumpJson = Payloads.deviceDump(250);
+    }
+
+    @Benchmark
+    public String sensorMessage() throws TransformationException {
+        return service.transform("$.AM2301.Temperature", Payloads.SENSOR_JSON);
+    }
+
+    @Benchmark
+    public String deviceDumpSingleValue() throws TransformationException {
+        return service.transform("$.devices[150].state.temperature", deviceDumpJson);
+    }
+
+    @Benchmark
+    public String sensorMessageFreshPayload() throws TransformationException {
+        return service.transform("$.AM2301.Temperature", new String(Payloads.SENSOR_JSON));
+    }
+
+    @Benchmark
+    public String deviceDumpSingleValueFreshPayload() throws TransformationException {
+        // Copy shares the characters, thus creating it is cheap compared to parsing
+        return service.transform("$.devices[150].state.temperature", new String(deviceDumpJson));
+    }
+
+    @Benchmark
+    public String deviceDumpFilter() throws TransformationException {
+        return service.transform("$.devices[?(@.type == 'sensor')].state.battery", deviceDumpJson);
+    }
+}
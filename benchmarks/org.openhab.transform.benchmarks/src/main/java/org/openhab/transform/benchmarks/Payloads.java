@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.util.Locale;
+
+/**
+ * Payloads used by the transformation benchmarks
+ *
+ * The payloads mimic what bindings typically feed to the transformation services: small MQTT sensor messages, large
+ * device dumps of HTTP APIs and XML status pages of appliances.
+ *
+ * @author agent - Initial contribution
+ */
+public final class Payloads {
+
+    /**
+     * Small JSON message as published by a typical MQTT sensor
+     */
+    public static final String SENSOR_JSON = "{\"Time\":\"2020-04-01T12:34:56\",\"ENERGY\":{\"TotalStartTime\":"
+            + "\"2019-11-23T14:23:11\",\"Total\":124.512,\"Yesterday\":1.234,\"Today\":0.567,\"Power\":42,"
+            + "\"ApparentPower\":51,\"ReactivePower\":29,\"Factor\":0.82,\"Voltage\":231,\"Current\":0.221},"
+            + "\"AM2301\":{\"Temperature\":21.4,\"Humidity\":48.2},\"TempUnit\":\"C\"}";
+
+    /**
+     * Single line of a text based protocol
+     */
+    public static final String SENSOR_LINE = "T=21.43;H=48.20;P=1013.25;CO2=612;STATE=OPEN;BAT=87";
+
+    /**
+     * Binary frame in hexadecimal format, see {@link #BINARY_FRAME_SYNTAX}
+     */
+    public static final String BINARY_FRAME = "01030E00011530026400C803F5012C000001F4";
+
+    /**
+     * Binary block parser syntax of {@link #BINARY_FRAME}
+     */
+    public static final String BINARY_FRAME_SYNTAX = "ubyte address; ubyte function; ubyte length; short status;"
+            + " byte temperature; byte humidity; ushort co2; ushort voc; ushort pressure; ushort lux; int counter;";
+
+    private Payloads() {
+        // utility class
+    }
+
+    /**
+     * Create a JSON dump of devices as returned by the REST APIs of hubs
+     *
+     * @param devices number of devices in the dump, 250 devices result in about 50 kB
+     * @return JSON document
+     */
+    public static String deviceDump(int devices) {
+        StringBuilder json = new StringBuilder(devices * 260);
+        json.append("{\"version\":\"1.0.4\",\"gateway\":{\"id\":\"00:17:88:01:02:03\",\"uptime\":123456},");
+        json.append("\"devices\":[");
+        for (int i = 0; i < devices; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT,
+                    "{\"id\":\"device-%d\",\"name\":\"Device %d\",\"type\":\"%s\",\"firmware\":\"2.%d.%d\","
+                            + "\"reachable\":%b,\"state\":{\"on\":%b,\"brightness\":%d,\"temperature\":%.2f,"
+                            + "\"humidity\":%.1f,\"battery\":%d},\"tags\":[\"floor%d\",\"room%d\"]}",
+                    i, i, i % 3 == 0 ? "light" : i % 3 == 1 ? "sensor" : "switch", i % 7, i % 11, i % 13 != 0,
+                    i % 2 == 0, (i * 37) % 255, 18 + (i % 70) / 10.0, 30 + (i % 40) * 0.5, 100 - (i % 100),
+                    i % 4, i % 25));
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    /**
+     * Create a XML status page as served by the web interfaces of appliances
+     *
+     * @param sensors number of sensors in the page
+     * @return XML document
+     */
+    public static String statusXml(int sensors) {
+        StringBuilder xml = new StringBuilder(sensors * 200);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<status><system><uptime>123456</uptime><firmware>1.2.3</firmware></system><sensors>\n");
+        for (int i = 0; i < sensors; i++) {
+            xml.append(String.format(Locale.ROOT,
+                    "<sensor id=\"sensor-%d\" type=\"%s\"><name>Sensor %d</name><temperature>%.2f</temperature>"
+                            + "<humidity>%.1f</humidity><battery>%d</battery><alarm>%b</alarm></sensor>\n",
+                    i, i % 2 == 0 ? "indoor" : "outdoor", i, 18 + (i % 70) / 10.0, 30 + (i % 40) * 0.5,
+                    100 - (i % 100), i % 17 == 0));
+        }
+        xml.append("</sensors></status>");
+        return xml.toString();
+    }
+}
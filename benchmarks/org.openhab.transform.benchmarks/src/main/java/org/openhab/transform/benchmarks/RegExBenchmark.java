@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.regex.internal.RegExTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the REGEX transformation, both the extracting and the substituting form
+ *
+ * @author agent - Initial contribution
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegExBenchmark {
+
+    private final RegExTransformationService service = new RegExTransformationService();
+
+    private String deviceDumpJson = "";
+
+    @Setup
+    public void setUp() {
+        deviceDumpJson = Payloads.deviceDump(250);
+    }
+
+    @Benchmark
+    public String sensorLineExtract() throws TransformationException {
+        return service.transform(".*CO2=([0-9]+);.*", Payloads.SENSOR_LINE);
+    }
+
+    @Benchmark
+    public String sensorLineSubstitute() throws TransformationException {
+        return service.transform("s/;/, /g", Payloads.SENSOR_LINE);
+    }
+
+    @Benchmark
+    public String deviceDumpExtract() throws TransformationException {
+        return service.transform(".*\"id\":\"device-150\".*?\"temperature\":([0-9.]+).*", deviceDumpJson);
+    }
+}
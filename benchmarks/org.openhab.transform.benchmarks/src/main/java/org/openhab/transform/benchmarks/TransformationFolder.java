@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.eclipse.smarthome.core.transform.TransformationService;
+
+/**
+ * Temporary configuration folder holding the transformation files used by the benchmarks
+ *
+ * @author agent - Initial contribution
+ */
+public class TransformationFolder {
+
+    /**
+     * Transformation files bundled with the benchmarks
+     */
+    public static final String XSLT_FILE = "status.xsl";
+    public static final String MAP_FILE = "states.map";
+    public static final String SCALE_FILE = "airquality.scale";
+
+    private final Path configFolder;
+
+    /**
+     * Create the folder and copy the transformation files into it
+     */
+    public TransformationFolder() throws IOException {
+        configFolder = Files.createTempDirectory("openhab-transform-benchmark");
+        Path transformFolder = Files.createDirectory(getTransformFolder());
+        for (String file : new String[] { XSLT_FILE, MAP_FILE, SCALE_FILE }) {
+            try (InputStream in = TransformationFolder.class.getResourceAsStream("/transform/" + file)) {
+                if (in == null) {
+                    throw new IOException("Missing benchmark resource " + file);
+                }
+                Files.copy(in, transformFolder.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Get the 'transform' folder, with trailing separator as expected by the file based transformation services
+     */
+    public String getTransformPath() {
+        return getTransformFolder().toString() + File.separator;
+    }
+
+    private Path getTransformFolder() {
+        return configFolder.resolve(TransformationService.TRANSFORM_FOLDER_NAME);
+    }
+
+    /**
+     * Delete the folder with all its contents
+     */
+    public void delete() throws IOException {
+        try (Stream<Path> paths = Files.walk(configFolder)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
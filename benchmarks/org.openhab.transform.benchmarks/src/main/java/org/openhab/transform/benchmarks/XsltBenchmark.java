@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmarks;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.xslt.internal.XsltTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the XSLT transformation with a small and a large status page
+ *
+ * @author agent - Initial contribution
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XsltBenchmark {
+
+    private TransformationFolder folder;
+    private XsltTransformationService service;
+    private String smallStatusXml = "";
+    private String largeStatusXml = "";
+
+    @Setup
+    public void setUp() throws IOException {
+        folder = new TransformationFolder();
+        String transformPath = folder.getTransformPath();
+        service = new XsltTransformationService() {
+            @Override
+            protected String getSourcePath() {
+                return transformPath;
+            }
+
+            @Override
+            protected Locale getLocale() {
+                return Locale.US;
+            }
+        };
+        smallStatusXml = Payloads.statusXml(10);
+        largeStatusXml = Payloads.statusXml(250);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        folder.delete();
+    }
+
+    @Benchmark
+    public String smallStatusPage() throws TransformationException {
+        return service.transform(TransformationFolder.XSLT_FILE, smallStatusXml);
+    }
+
+    @Benchmark
+    public String largeStatusPage() throws TransformationException {
+        return service.transform(TransformationFolder.XSLT_FILE, largeStatusXml);
+    }
+}
@@ -0,0 +1,10 @@
+<?xml version="1.0"?>
+<xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform" version="1.0">
+
+	<xsl:output indent="no" method="text" encoding="UTF-8" />
+
+	<xsl:template match="/">
+		<xsl:value-of select="/status/sensors/sensor[@id='sensor-7']/temperature" />
+	</xsl:template>
+
+</xsl:stylesheet>
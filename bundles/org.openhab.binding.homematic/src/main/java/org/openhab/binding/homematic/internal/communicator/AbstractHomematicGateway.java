@@ -98,6 +98,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     protected HttpClient httpClient;
     private final String id;
     private final HomematicGatewayAdapter gatewayAdapter;
+    private final DeviceMetadataCache metadataCache;
     private final DelayedExecuter sendDelayedExecutor = new DelayedExecuter();
     private final DelayedExecuter receiveDelayedExecutor = new DelayedExecuter();
     private final Set<HmDatapointInfo> echoEvents = Collections.synchronizedSet(new HashSet<>());
@@ -134,11 +135,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     }
 
     public AbstractHomematicGateway(String id, HomematicConfig config, HomematicGatewayAdapter gatewayAdapter,
-            HttpClient httpClient) {
+            HttpClient httpClient, DeviceMetadataCache metadataCache) {
         this.id = id;
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.metadataCache = metadataCache;
     }
 
     @Override
@@ -373,9 +375,19 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
 
         // loading datapoints for all channels
         Set<String> loadedDevices = new HashSet<>();
+        Set<String> deviceMetadataKeys = new HashSet<>();
         Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
+        // metadata of known device types and firmwares is taken from the persistent cache
+        for (HmDevice cachedDevice : metadataCache.getDevices()) {
+            for (HmChannel channel : cachedDevice.getChannels()) {
+                if (!channel.isReconfigurable()) {
+                    datapointsByChannelIdCache.put(getChannelId(channel), channel.getDatapoints());
+                }
+            }
+        }
         for (HmDevice device : deviceDescriptions) {
             if (!cancelLoadAllMetadata) {
+                deviceMetadataKeys.add(DeviceMetadataCache.getKey(device));
                 try {
                     logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
                             device.getType());
@@ -383,35 +395,47 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
                         loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
                     } else {
+                        List<HmChannel> channelsToLoad = new ArrayList<>();
+                        List<HmChannel> channelsToClone = new ArrayList<>();
                         for (HmChannel channel : device.getChannels()) {
                             logger.trace("  Loading channel {}", channel);
                             // speed up metadata generation a little bit for equal channels in the gateway devices
                             if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
                                     || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                                channelsToClone.add(channel);
                             } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache
+                                        .get(getChannelId(channel));
                                 if (cachedDatapoints != null) {
                                     // clone all datapoints
                                     cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
                                 } else {
                                     logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
+                                    channelsToLoad.add(channel);
                                 }
                             }
                         }
+
+                        // load the metadata of all channels of the device at once
+                        addChannelDatapoints(channelsToLoad, HmParamsetType.MASTER);
+                        addChannelDatapoints(channelsToLoad, HmParamsetType.VALUES);
+                        for (HmChannel channel : channelsToLoad) {
+                            // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                            // the data point set might change depending on the selected mode.
+                            if (!channel.isReconfigurable()) {
+                                datapointsByChannelIdCache.put(getChannelId(channel), channel.getDatapoints());
+                            }
+                        }
+                        // channels are in ascending order, so the previous channel is always complete
+                        for (HmChannel channel : channelsToClone) {
+                            HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                            cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                        }
                     }
                     prepareDevice(device);
+                    if (!device.isGatewayExtras() && metadataCache.getDevice(device) == null) {
+                        metadataCache.put(device);
+                    }
                     loadedDevices.add(device.getAddress());
                     gatewayAdapter.onDeviceLoaded(device);
                 } catch (IOException ex) {
@@ -422,10 +446,32 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         }
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
+            metadataCache.retainAll(deviceMetadataKeys);
+            metadataCache.save();
         }
         initialized = true;
     }
 
+    /**
+     * Returns the id used to share the datapoint metadata of equal channels.
+     */
+    private String getChannelId(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    /**
+     * Loads all datapoints of the channels of one device from the gateway, batching the requests if possible.
+     */
+    protected void addChannelDatapoints(List<HmChannel> channels, HmParamsetType paramsetType) throws IOException {
+        if (!channels.isEmpty()) {
+            for (HmChannel channel : getRpcClient(channels.get(0).getDevice().getHmInterface())
+                    .addChannelDatapoints(channels, paramsetType)) {
+                addChannelDatapoints(channel, paramsetType);
+            }
+        }
+    }
+
     /**
      * Loads all datapoints from the gateway.
      */
@@ -482,17 +528,38 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     logger.debug("Loaded {} gateway script(s)", datapoints.size());
                 }
             }
+            for (HmDatapoint dp : channel.getDatapoints()) {
+                handleVirtualDatapointEvent(dp, false);
+            }
+            channel.setInitialized(true);
         } else {
-            logger.debug("Loading values for channel {} of device '{}'", channel, channel.getDevice().getAddress());
-            setChannelDatapointValues(channel, HmParamsetType.MASTER);
-            setChannelDatapointValues(channel, HmParamsetType.VALUES);
-        }
+            // the values of the other channels are needed shortly after, so load all of them at once
+            List<HmChannel> channels = new ArrayList<>();
+            for (HmChannel deviceChannel : channel.getDevice().getChannels()) {
+                if (deviceChannel == channel || !deviceChannel.isInitialized()) {
+                    channels.add(deviceChannel);
+                }
+            }
+            logger.debug("Loading values for channels {} of device '{}'", channels, channel.getDevice().getAddress());
+            RpcClient<?> rpcClient = getRpcClient(channel.getDevice().getHmInterface());
+            for (HmParamsetType paramsetType : new HmParamsetType[] { HmParamsetType.MASTER, HmParamsetType.VALUES }) {
+                for (HmChannel failedChannel : rpcClient.setChannelDatapointValues(channels, paramsetType)) {
+                    if (failedChannel == channel) {
+                        setChannelDatapointValues(channel, paramsetType);
+                    } else {
+                        // the other channels are loaded on their own when needed
+                        channels.remove(failedChannel);
+                    }
+                }
+            }
 
-        for (HmDatapoint dp : channel.getDatapoints()) {
-            handleVirtualDatapointEvent(dp, false);
+            for (HmChannel loadedChannel : channels) {
+                for (HmDatapoint dp : loadedChannel.getDatapoints()) {
+                    handleVirtualDatapointEvent(dp, false);
+                }
+                loadedChannel.setInitialized(true);
+            }
         }
-
-        channel.setInitialized(true);
     }
 
     @Override
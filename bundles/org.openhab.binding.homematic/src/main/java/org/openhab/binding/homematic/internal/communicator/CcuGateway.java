@@ -61,8 +61,8 @@ public class CcuGateway extends AbstractHomematicGateway {
     private XStream xStream = new XStream(new StaxDriver());
 
     protected CcuGateway(String id, HomematicConfig config, HomematicGatewayAdapter gatewayAdapter,
-            HttpClient httpClient) {
-        super(id, config, gatewayAdapter, httpClient);
+            HttpClient httpClient, DeviceMetadataCache metadataCache) {
+        super(id, config, gatewayAdapter, httpClient, metadataCache);
 
         xStream.setClassLoader(CcuGateway.class.getClassLoader());
         xStream.autodetectAnnotations(true);
@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the metadata of the devices of a Homematic gateway, so it is available immediately at the next startup.
+ * For every device type and firmware, one device with all its channels and datapoints is stored, without values.
+ * The file is written in a compact binary format, a file with an unknown format version is ignored.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCache {
+    private final Logger logger = LoggerFactory.getLogger(DeviceMetadataCache.class);
+
+    private static final String CACHE_FOLDER_NAME = "homematic";
+    private static final int MAGIC = 0x484d4443;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_BOOLEAN = 1;
+    private static final byte VALUE_INTEGER = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_STRING = 5;
+
+    private final File file;
+    private final Map<String, HmDevice> devicesByKey = new HashMap<>();
+    private boolean modified;
+
+    /**
+     * Creates the cache for the gateway with the given id, located in the userdata folder.
+     */
+    public DeviceMetadataCache(String gatewayId) {
+        this(new File(new File(ConfigConstants.getUserDataFolder(), CACHE_FOLDER_NAME), gatewayId + ".metadata"));
+    }
+
+    public DeviceMetadataCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the key of the device, which is the type and the firmware of the device.
+     */
+    public static String getKey(HmDevice device) {
+        return String.format("%s:%s", device.getType(), device.getFirmware());
+    }
+
+    /**
+     * Loads the cached devices from the file, replacing all devices currently in the cache.
+     */
+    public synchronized void load() {
+        devicesByKey.clear();
+        modified = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                logger.debug("Ignoring metadata cache '{}' with unknown format", file);
+                return;
+            }
+            int deviceCount = in.readInt();
+            for (int i = 0; i < deviceCount; i++) {
+                HmDevice device = readDevice(in);
+                devicesByKey.put(getKey(device), device);
+            }
+            logger.debug("Loaded metadata of {} device types from '{}'", devicesByKey.size(), file);
+        } catch (FileNotFoundException ex) {
+            logger.debug("No metadata cache '{}' available", file);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Ignoring corrupt metadata cache '{}': {}", file, ex.getMessage());
+            devicesByKey.clear();
+        }
+    }
+
+    /**
+     * Saves the cached devices to the file, if they have changed since they were loaded or saved.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File folder = file.getAbsoluteFile().getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            logger.warn("Can't create folder '{}' for the metadata cache", folder);
+            return;
+        }
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(devicesByKey.size());
+                for (HmDevice device : devicesByKey.values()) {
+                    writeDevice(out, device);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+            logger.debug("Saved metadata of {} device types to '{}'", devicesByKey.size(), file);
+        } catch (IOException ex) {
+            logger.warn("Can't save metadata cache '{}': {}", file, ex.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Returns all cached devices. The returned devices are shared and must not be modified.
+     */
+    public synchronized Collection<HmDevice> getDevices() {
+        return new ArrayList<>(devicesByKey.values());
+    }
+
+    /**
+     * Returns the cached device with the same type and firmware as the given device or null, if not available.
+     * The returned device is shared and must not be modified.
+     */
+    public synchronized HmDevice getDevice(HmDevice device) {
+        return devicesByKey.get(getKey(device));
+    }
+
+    /**
+     * Stores a copy of the metadata of the given device, replacing the device with the same type and firmware.
+     */
+    public synchronized void put(HmDevice device) {
+        HmDevice copy = new HmDevice(device.getAddress(), device.getHmInterface(), device.getType(),
+                device.getGatewayId(), device.getHomegearId(), device.getFirmware());
+        for (HmChannel channel : device.getChannels()) {
+            HmChannel channelCopy = new HmChannel(channel.getType(), channel.getNumber());
+            copy.addChannel(channelCopy);
+            for (HmDatapoint dp : channel.getDatapoints()) {
+                HmDatapoint dpCopy = new HmDatapoint(dp.getName(), dp.getDescription(), dp.getType(), null,
+                        dp.isReadOnly(), dp.getParamsetType());
+                dpCopy.setMinValue(dp.getMinValue());
+                dpCopy.setMaxValue(dp.getMaxValue());
+                dpCopy.setStep(dp.getStep());
+                dpCopy.setOptions(dp.getOptions());
+                dpCopy.setInfo(dp.getInfo());
+                dpCopy.setUnit(dp.getUnit());
+                dpCopy.setVirtual(dp.isVirtual());
+                dpCopy.setReadable(dp.isReadable());
+                dpCopy.setTrigger(dp.isTrigger());
+                dpCopy.setDefaultValue(dp.getDefaultValue());
+                channelCopy.addDatapoint(dpCopy);
+            }
+        }
+        devicesByKey.put(getKey(device), copy);
+        modified = true;
+    }
+
+    /**
+     * Removes all devices whose key is not contained in the given keys.
+     */
+    public synchronized void retainAll(Set<String> keys) {
+        modified |= devicesByKey.keySet().retainAll(keys);
+    }
+
+    private HmDevice readDevice(DataInputStream in) throws IOException {
+        String address = in.readUTF();
+        HmInterface hmInterface = HmInterface.valueOf(in.readUTF());
+        HmDevice device = new HmDevice(address, hmInterface, in.readUTF(), readString(in), readString(in),
+                readString(in));
+        int channelCount = in.readInt();
+        for (int i = 0; i < channelCount; i++) {
+            HmChannel channel = new HmChannel(readString(in), in.readInt());
+            device.addChannel(channel);
+            int datapointCount = in.readInt();
+            for (int j = 0; j < datapointCount; j++) {
+                channel.addDatapoint(readDatapoint(in));
+            }
+        }
+        return device;
+    }
+
+    private void writeDevice(DataOutputStream out, HmDevice device) throws IOException {
+        out.writeUTF(device.getAddress());
+        out.writeUTF(device.getHmInterface().name());
+        out.writeUTF(device.getType());
+        writeString(out, device.getGatewayId());
+        writeString(out, device.getHomegearId());
+        writeString(out, device.getFirmware());
+        out.writeInt(device.getChannels().size());
+        for (HmChannel channel : device.getChannels()) {
+            writeString(out, channel.getType());
+            out.writeInt(channel.getNumber());
+            List<HmDatapoint> datapoints = channel.getDatapoints();
+            out.writeInt(datapoints.size());
+            for (HmDatapoint dp : datapoints) {
+                writeDatapoint(out, dp);
+            }
+        }
+    }
+
+    private HmDatapoint readDatapoint(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String description = readString(in);
+        HmValueType type = HmValueType.valueOf(in.readUTF());
+        HmParamsetType paramsetType = HmParamsetType.valueOf(in.readUTF());
+        HmDatapoint dp = new HmDatapoint(name, description, type, null, in.readBoolean(), paramsetType);
+        dp.setReadable(in.readBoolean());
+        dp.setVirtual(in.readBoolean());
+        dp.setTrigger(in.readBoolean());
+        dp.setMinValue((Number) readValue(in));
+        dp.setMaxValue((Number) readValue(in));
+        dp.setStep((Number) readValue(in));
+        dp.setDefaultValue(readValue(in));
+        dp.setInfo(readString(in));
+        dp.setUnit(readString(in));
+        int optionCount = in.readInt();
+        if (optionCount >= 0) {
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = readString(in);
+            }
+            dp.setOptions(options);
+        }
+        return dp;
+    }
+
+    private void writeDatapoint(DataOutputStream out, HmDatapoint dp) throws IOException {
+        out.writeUTF(dp.getName());
+        writeString(out, dp.getDescription());
+        out.writeUTF(dp.getType().name());
+        out.writeUTF(dp.getParamsetType().name());
+        out.writeBoolean(dp.isReadOnly());
+        out.writeBoolean(dp.isReadable());
+        out.writeBoolean(dp.isVirtual());
+        out.writeBoolean(dp.isTrigger());
+        writeValue(out, dp.getMinValue());
+        writeValue(out, dp.getMaxValue());
+        writeValue(out, dp.getStep());
+        writeValue(out, dp.getDefaultValue());
+        writeString(out, dp.getInfo());
+        writeString(out, dp.getUnit());
+        String[] options = dp.getOptions();
+        if (options == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(options.length);
+            for (String option : options) {
+                writeString(out, option);
+            }
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte valueType = in.readByte();
+        switch (valueType) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown value type " + valueType);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Number) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            out.writeByte(VALUE_STRING);
+            out.writeUTF(value.toString());
+        }
+    }
+}
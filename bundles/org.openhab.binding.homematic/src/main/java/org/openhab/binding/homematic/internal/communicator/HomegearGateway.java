@@ -29,8 +29,8 @@ import org.openhab.binding.homematic.internal.model.HmDevice;
 public class HomegearGateway extends AbstractHomematicGateway {
 
     protected HomegearGateway(String id, HomematicConfig config, HomematicGatewayAdapter gatewayAdapter,
-            HttpClient httpClient) {
-        super(id, config, gatewayAdapter, httpClient);
+            HttpClient httpClient, DeviceMetadataCache metadataCache) {
+        super(id, config, gatewayAdapter, httpClient, metadataCache);
     }
 
     @Override
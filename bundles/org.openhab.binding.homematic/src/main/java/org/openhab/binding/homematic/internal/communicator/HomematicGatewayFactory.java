@@ -30,15 +30,15 @@ public class HomematicGatewayFactory {
      * Creates the HomematicGateway.
      */
     public static HomematicGateway createGateway(String id, HomematicConfig config,
-            HomematicGatewayAdapter gatewayAdapter, HttpClient httpClient)
+            HomematicGatewayAdapter gatewayAdapter, HttpClient httpClient, DeviceMetadataCache metadataCache)
             throws IOException {
         loadGatewayInfo(config, id, httpClient);
         if (config.getGatewayInfo().isCCU()) {
-            return new CcuGateway(id, config, gatewayAdapter, httpClient);
+            return new CcuGateway(id, config, gatewayAdapter, httpClient, metadataCache);
         } else if (config.getGatewayInfo().isHomegear()) {
-            return new HomegearGateway(id, config, gatewayAdapter, httpClient);
+            return new HomegearGateway(id, config, gatewayAdapter, httpClient, metadataCache);
         } else {
-            return new DefaultGateway(id, config, gatewayAdapter, httpClient);
+            return new DefaultGateway(id, config, gatewayAdapter, httpClient, metadataCache);
         }
     }
 
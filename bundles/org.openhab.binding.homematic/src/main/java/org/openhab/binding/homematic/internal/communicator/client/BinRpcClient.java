@@ -60,10 +60,11 @@ public class BinRpcClient extends RpcClient<byte[]> {
     }
 
     /**
-     * Sends a BIN-RPC message and parses the response to see if there was an error.
+     * Sends a BIN-RPC message and parses the response to see if there was an error. Concurrent messages are sent
+     * over different sockets of the pool.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
@@ -76,9 +77,20 @@ public class BinRpcClient extends RpcClient<byte[]> {
     private Object[] sendMessage(int port, RpcRequest<byte[]> request, int rpcRetryCounter) throws IOException {
         BinRpcMessage resp = null;
         try {
-            Socket socket = socketHandler.getSocket(port);
-            socket.getOutputStream().write(request.createMessage());
-            resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+            SocketInfo socketInfo = socketHandler.getSocket(port);
+            boolean socketReusable = false;
+            try {
+                Socket socket = socketInfo.getSocket();
+                socket.getOutputStream().write(request.createMessage());
+                resp = new BinRpcMessage(socket.getInputStream(), false, config.getEncoding());
+                socketReusable = true;
+            } finally {
+                if (socketReusable) {
+                    socketHandler.releaseSocket(port, socketInfo);
+                } else {
+                    socketHandler.invalidateSocket(port, socketInfo);
+                }
+            }
             return new RpcResponseParser(request).parse(resp.getResponseData());
         } catch (UnknownRpcFailureException | UnknownParameterSetException rpcEx) {
             // throw immediately, don't retry the message
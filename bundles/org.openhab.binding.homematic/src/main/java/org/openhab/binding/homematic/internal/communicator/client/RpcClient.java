@@ -13,12 +13,19 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import static org.openhab.binding.homematic.internal.HomematicBindingConstants.*;
+import static org.openhab.binding.homematic.internal.misc.HomematicConstants.RPC_METHODNAME_SYSTEM_MULTICALL;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -33,6 +40,7 @@ import org.openhab.binding.homematic.internal.communicator.parser.GetValueParser
 import org.openhab.binding.homematic.internal.communicator.parser.HomegearLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.ListDevicesParser;
+import org.openhab.binding.homematic.internal.communicator.parser.RpcParser;
 import org.openhab.binding.homematic.internal.communicator.parser.RssiInfoParser;
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -55,6 +63,11 @@ public abstract class RpcClient<T> {
 
     protected HomematicConfig config;
 
+    /**
+     * Ports of interfaces that failed to process a system.multicall request, reset when the interface is initialized
+     */
+    private final Set<Integer> multicallUnsupportedPorts = ConcurrentHashMap.newKeySet();
+
     public RpcClient(HomematicConfig config) {
         this.config = config;
     }
@@ -83,6 +96,7 @@ public abstract class RpcClient<T> {
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
     public void init(HmInterface hmInterface, String clientId) throws IOException {
+        multicallUnsupportedPorts.remove(config.getRpcPort(hmInterface));
         RpcRequest<T> request = createRpcRequest("init");
         request.addArg(getRpcCallbackUrl());
         request.addArg(clientId);
@@ -182,6 +196,107 @@ public abstract class RpcClient<T> {
         new GetParamsetDescriptionParser(channel, paramsetType).parse(sendMessage(config.getRpcPort(channel), request));
     }
 
+    /**
+     * Loads all datapoint metadata into the given channels with one system.multicall request per interface.
+     *
+     * @return the channels that could not be loaded with the multicall and must be loaded one by one
+     */
+    public List<HmChannel> addChannelDatapoints(List<HmChannel> channels, HmParamsetType paramsetType)
+            throws IOException {
+        return multicall(channels, paramsetType, "getParamsetDescription",
+                channel -> new GetParamsetDescriptionParser(channel, paramsetType));
+    }
+
+    /**
+     * Sets all datapoint values for the given channels with one system.multicall request per interface.
+     *
+     * @return the channels that could not be loaded with the multicall and must be loaded one by one
+     */
+    public List<HmChannel> setChannelDatapointValues(List<HmChannel> channels, HmParamsetType paramsetType)
+            throws IOException {
+        List<HmChannel> batchableChannels = new ArrayList<>();
+        List<HmChannel> remainingChannels = new ArrayList<>();
+        for (HmChannel channel : channels) {
+            if (channel.getDevice().getHmInterface() == HmInterface.CUXD && paramsetType == HmParamsetType.VALUES) {
+                remainingChannels.add(channel);
+            } else {
+                batchableChannels.add(channel);
+            }
+        }
+        remainingChannels.addAll(multicall(batchableChannels, paramsetType, "getParamset",
+                channel -> new GetParamsetParser(channel, paramsetType)));
+        return remainingChannels;
+    }
+
+    /**
+     * Calls the method with the address of each channel and the paramset as arguments in system.multicall requests
+     * and parses each result with its own parser. Channels whose call failed are returned, so the caller can apply the
+     * error handling of the single call.
+     */
+    private List<HmChannel> multicall(List<HmChannel> channels, HmParamsetType paramsetType, String methodName,
+            Function<HmChannel, RpcParser<Object[], ?>> parserFactory) throws IOException {
+        Map<Integer, List<HmChannel>> channelsByPort = new LinkedHashMap<>();
+        for (HmChannel channel : channels) {
+            if (isConfigurationChannel(channel) && paramsetType != HmParamsetType.MASTER) {
+                // The configuration channel only has a MASTER Paramset, so there is nothing to load
+                continue;
+            }
+            channelsByPort.computeIfAbsent(config.getRpcPort(channel), port -> new ArrayList<>()).add(channel);
+        }
+
+        List<HmChannel> failedChannels = new ArrayList<>();
+        for (Map.Entry<Integer, List<HmChannel>> entry : channelsByPort.entrySet()) {
+            int port = entry.getKey();
+            List<HmChannel> portChannels = entry.getValue();
+            if (portChannels.size() < 2 || multicallUnsupportedPorts.contains(port)) {
+                failedChannels.addAll(portChannels);
+                continue;
+            }
+
+            List<Map<String, Object>> calls = new ArrayList<>();
+            for (HmChannel channel : portChannels) {
+                Map<String, Object> call = new HashMap<>();
+                call.put("methodName", methodName);
+                call.put("params", Arrays.asList(
+                        getRpcAddress(channel.getDevice().getAddress()) + getChannelSuffix(channel),
+                        paramsetType.toString()));
+                calls.add(call);
+            }
+            RpcRequest<T> request = createRpcRequest(RPC_METHODNAME_SYSTEM_MULTICALL);
+            request.addArg(calls);
+
+            Object[] results;
+            try {
+                Object[] response = sendMessage(port, request);
+                if (!(response[0] instanceof Object[]) || ((Object[]) response[0]).length != portChannels.size()) {
+                    throw new IOException("Unexpected " + RPC_METHODNAME_SYSTEM_MULTICALL + " result");
+                }
+                results = (Object[]) response[0];
+            } catch (IOException ex) {
+                logger.debug("{} of {} on port {} failed, sending requests one by one: {}",
+                        RPC_METHODNAME_SYSTEM_MULTICALL, methodName, port, ex.getMessage());
+                multicallUnsupportedPorts.add(port);
+                failedChannels.addAll(portChannels);
+                continue;
+            }
+
+            for (int i = 0; i < results.length; i++) {
+                HmChannel channel = portChannels.get(i);
+                // a successful call returns its result wrapped in an array, a failed call returns a fault struct
+                if (results[i] instanceof Object[] && ((Object[]) results[i]).length > 0) {
+                    try {
+                        parserFactory.apply(channel).parse((Object[]) results[i]);
+                        continue;
+                    } catch (IOException ex) {
+                        logger.debug("Can't parse {} result for channel {}: {}", methodName, channel, ex.getMessage());
+                    }
+                }
+                failedChannels.add(channel);
+            }
+        }
+        return failedChannels;
+    }
+
     /**
      * Sets all datapoint values for the given channel.
      */
@@ -13,66 +13,145 @@
 package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Simple socket cache class.
+ * Socket pool, holds up to {@link #MAX_SOCKETS_PER_PORT} sockets per port, so that requests to different
+ * interfaces and concurrent requests to the same interface don't have to wait for each other.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class SocketHandler {
     private final Logger logger = LoggerFactory.getLogger(SocketHandler.class);
 
-    private Map<Integer, SocketInfo> socketsPerPort = new HashMap<>();
+    /**
+     * Maximum number of sockets used concurrently for one port, further requests wait for a free socket.
+     */
+    private static final int MAX_SOCKETS_PER_PORT = 4;
+
+    private Map<Integer, SocketPool> poolsPerPort = new ConcurrentHashMap<>();
     private HomematicConfig config;
 
+    /**
+     * Idle sockets and free permits of one port.
+     */
+    private static class SocketPool {
+        private final Deque<SocketInfo> idleSockets = new ArrayDeque<>();
+        private final Semaphore permits = new Semaphore(MAX_SOCKETS_PER_PORT);
+        private int generation;
+    }
+
     public SocketHandler(HomematicConfig config) {
         this.config = config;
     }
 
     /**
-     * Returns a socket for the given port, (re)creates it if required.
+     * Takes a socket for the given port from the pool, creates it if required. The socket must be handed back with
+     * {@link #releaseSocket(int, SocketInfo)} or {@link #invalidateSocket(int, SocketInfo)}.
      */
-    public Socket getSocket(int port) throws IOException {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo == null) {
+    public SocketInfo getSocket(int port) throws IOException {
+        SocketPool pool = poolsPerPort.computeIfAbsent(port, p -> new SocketPool());
+        try {
+            if (!pool.permits.tryAcquire(config.getTimeout(), TimeUnit.SECONDS)) {
+                throw new IOException("Timeout waiting for a free socket on port " + port);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free socket on port " + port);
+        }
+
+        try {
+            SocketInfo socketInfo;
+            int generation;
+            synchronized (pool) {
+                generation = pool.generation;
+                while ((socketInfo = pool.idleSockets.pollFirst()) != null) {
+                    boolean isMaxAliveReached = System.currentTimeMillis()
+                            - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+                    if (!isMaxAliveReached) {
+                        logger.trace("Returning socket for port {}", port);
+                        return socketInfo;
+                    }
+                    logger.debug("Max alive time reached for socket on port {}", port);
+                    closeSilent(socketInfo.getSocket());
+                }
+            }
+
             logger.trace("Creating new socket for port {}", port);
             Socket socket = new Socket();
-            socket.setSoTimeout(config.getTimeout() * 1000);
-            socket.setReuseAddress(true);
-            socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
-            socketInfo = new SocketInfo(socket);
-            socketsPerPort.put(port, socketInfo);
-        } else {
-            boolean isMaxAliveReached = System.currentTimeMillis()
-                    - socketInfo.getCreated() > (config.getSocketMaxAlive() * 1000);
+            try {
+                socket.setSoTimeout(config.getTimeout() * 1000);
+                socket.setReuseAddress(true);
+                socket.connect(new InetSocketAddress(config.getGatewayAddress(), port), socket.getSoTimeout());
+            } catch (IOException ex) {
+                closeSilent(socket);
+                throw ex;
+            }
+            return new SocketInfo(socket, generation);
+        } catch (IOException | RuntimeException ex) {
+            pool.permits.release();
+            throw ex;
+        }
+    }
 
-            if (isMaxAliveReached) {
-                logger.debug("Max alive time reached for socket on port {}", port);
-                removeSocket(port);
-                return getSocket(port);
+    /**
+     * Hands a socket that is still usable back to the pool.
+     */
+    public void releaseSocket(int port, SocketInfo socketInfo) {
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool == null) {
+            closeSilent(socketInfo.getSocket());
+            return;
+        }
+        synchronized (pool) {
+            if (socketInfo.getGeneration() == pool.generation) {
+                // most recently used sockets first, so surplus sockets reach their max alive time
+                pool.idleSockets.offerFirst(socketInfo);
+            } else {
+                // the pool was flushed while the socket was in use
+                closeSilent(socketInfo.getSocket());
             }
-            logger.trace("Returning socket for port {}", port);
         }
-        return socketInfo.getSocket();
+        pool.permits.release();
+    }
+
+    /**
+     * Closes a socket that failed and releases its place in the pool.
+     */
+    public void invalidateSocket(int port, SocketInfo socketInfo) {
+        closeSilent(socketInfo.getSocket());
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            pool.permits.release();
+        }
     }
 
     /**
-     * Removes the socket for the given port from the cache.
+     * Closes all idle sockets for the given port, sockets in use are closed when they are handed back.
      */
     public void removeSocket(int port) {
-        SocketInfo socketInfo = socketsPerPort.get(port);
-        if (socketInfo != null) {
-            logger.trace("Closing Socket on port {}", port);
-            socketsPerPort.remove(port);
-            closeSilent(socketInfo.getSocket());
+        SocketPool pool = poolsPerPort.get(port);
+        if (pool != null) {
+            synchronized (pool) {
+                logger.trace("Closing Sockets on port {}", port);
+                pool.generation++;
+                SocketInfo socketInfo;
+                while ((socketInfo = pool.idleSockets.pollFirst()) != null) {
+                    closeSilent(socketInfo.getSocket());
+                }
+            }
         }
     }
 
@@ -80,11 +159,8 @@ public class SocketHandler {
      * Removes all cached sockets.
      */
     public void flush() {
-        synchronized (SocketHandler.class) {
-            Integer[] portsToRemove = socketsPerPort.keySet().toArray(new Integer[0]);
-            for (Integer key : portsToRemove) {
-                removeSocket(key);
-            }
+        for (Integer port : poolsPerPort.keySet()) {
+            removeSocket(port);
         }
     }
 
@@ -29,17 +29,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
+ * Messages read from a stream are decoded from a buffer that is reused by the reading thread.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
-    private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
+    private static final int HEADER_LENGTH = 8;
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_STRING_LENGTH = 64;
+
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal
+            .withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+    private static final StringCache STRING_CACHE = new StringCache(1024);
 
     public enum TYPE {
         REQUEST,
@@ -49,6 +53,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private Object[] messageData;
     private byte binRpcData[];
     private int offset;
+    private int limit;
+    private int valuesOffset;
 
     private String methodName;
     private TYPE type;
@@ -74,30 +80,46 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
         this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading signature");
+        byte[] buffer = DECODE_BUFFER.get();
+        readFully(is, buffer, 0, 4, "signature");
+        validateBinXSignature(buffer);
+        readFully(is, buffer, 4, 4, "message length");
+        int datasize = getInt(buffer, 4);
+        if (datasize < 0 || datasize > Integer.MAX_VALUE - HEADER_LENGTH) {
+            throw new IOException("Invalid message length " + datasize);
+        }
+        int length = HEADER_LENGTH + datasize;
+        if (length > buffer.length) {
+            byte[] newBuffer = new byte[Math.max(length, Math.min(buffer.length * 2, MAX_POOLED_BUFFER_SIZE))];
+            System.arraycopy(buffer, 0, newBuffer, 0, HEADER_LENGTH);
+            buffer = newBuffer;
+            if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+                DECODE_BUFFER.set(buffer);
+            }
         }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
-        if (length != 4) {
-            throw new EOFException("Only " + length + " bytes received reading message length");
+        readFully(is, buffer, HEADER_LENGTH, datasize, "message payload");
+        try {
+            decodeMessage(buffer, length, methodHeader);
+        } finally {
+            // the buffer is reused for the next message, all decoded values are copies
+            binRpcData = null;
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
+    }
 
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
+    /**
+     * Reads exactly length bytes from the InputStream.
+     */
+    private static void readFully(InputStream is, byte[] buffer, int position, int length, String description)
+            throws IOException {
+        int count = 0;
+        int currentLength;
+        while (count < length && (currentLength = is.read(buffer, position + count, length - count)) != -1) {
+            count += currentLength;
         }
-        if (offset != datasize) {
-            throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
-                    + datasize + " bytes");
+        if (count != length) {
+            throw new EOFException("Only " + count + " bytes received while reading " + description + ", expected "
+                    + length + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
     }
 
     private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
@@ -115,33 +137,34 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             throw new EOFException("Only " + message.length + " bytes received");
         }
         validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        decodeMessage(message, message.length, methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
+    private void decodeMessage(byte[] message, int length, boolean methodHeader) throws IOException {
         binRpcData = message;
-
-        offset = 8;
+        limit = length;
+        offset = HEADER_LENGTH;
 
         if (methodHeader) {
             methodName = readString();
             readInt();
         }
-        generateResponseData();
+        valuesOffset = offset;
+        messageData = readValues();
     }
 
     public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+        if (binRpcData != null) {
+            binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+        }
     }
 
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
+    private Object[] readValues() throws IOException {
         List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
+        while (offset < limit) {
             values.add(readRpcValue());
         }
-        messageData = values.toArray();
-        values.clear();
+        return values.toArray();
     }
 
     private void createHeader() {
@@ -154,6 +177,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             addString(methodName);
             addInt(0); // placeholder arguments
         }
+        valuesOffset = offset;
         setInt(4, offset - 8);
     }
 
@@ -186,9 +210,11 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+        if (binRpcData.length != offset) {
+            byte[] trimmed = new byte[offset];
+            System.arraycopy(binRpcData, 0, trimmed, 0, offset);
+            binRpcData = trimmed;
+        }
     }
 
     @Override
@@ -197,16 +223,32 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
+    private void checkAvailable(int length) throws IOException {
+        if (length < 0 || length > limit - offset) {
+            throw new IOException("Invalid BIN-RPC message, " + length + " bytes expected at position " + offset
+                    + " of " + limit + " bytes");
+        }
+    }
+
+    private static int getInt(byte[] data, int position) {
+        return (data[position] << 24) | ((data[position + 1] & 0xff) << 16) | ((data[position + 2] & 0xff) << 8)
+                | (data[position + 3] & 0xff);
+    }
+
+    private int readInt() throws IOException {
+        checkAvailable(4);
+        int value = getInt(binRpcData, offset);
         offset += 4;
-        return (new BigInteger(bi)).intValue();
+        return value;
     }
 
-    private String readString() throws UnsupportedEncodingException {
+    private String readString() throws IOException {
         int len = readInt();
+        checkAvailable(len);
         offset += len;
+        if (len <= MAX_CACHED_STRING_LENGTH) {
+            return STRING_CACHE.get(binRpcData, offset - len, len, encoding);
+        }
         return new String(binRpcData, offset - len, len, encoding);
     }
 
@@ -214,8 +256,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         int type = readInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(readInt());
             case 2:
+                checkAvailable(1);
                 return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
                 return readString();
@@ -229,14 +272,16 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             case 0x100:
                 // Array
                 int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                checkAvailable(numElements);
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue();
                 }
-                return array.toArray();
+                return array;
             case 0x101:
                 // Struct
                 numElements = readInt();
+                checkAvailable(numElements);
                 Map<String, Object> struct = new TreeMap<>();
                 while (numElements-- > 0) {
                     String name = readString();
@@ -245,10 +290,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
-                }
-                throw new IOException("Unknown data type " + type);
+                throw new IOException("Unknown data type " + type + " at position " + (offset - 4));
         }
     }
 
@@ -370,11 +412,73 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
-            generateResponseData();
-            return RpcUtils.dumpRpcMessage(methodName, messageData);
+            Object[] data = messageData;
+            if (data == null) {
+                // created message, decode the arguments added so far
+                int end = offset;
+                limit = end;
+                offset = valuesOffset;
+                try {
+                    data = readValues();
+                } finally {
+                    offset = end;
+                }
+            }
+            return RpcUtils.dumpRpcMessage(methodName, data);
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         }
     }
+
+    /**
+     * Cache of short decoded strings, like method names, addresses and datapoint names, which are repeated in every
+     * event. The cache is lock-free, an entry is simply replaced if another string maps to the same slot.
+     */
+    private static class StringCache {
+        private final CachedString[] entries;
+
+        private StringCache(int size) {
+            entries = new CachedString[size];
+        }
+
+        private String get(byte[] data, int position, int length, String encoding)
+                throws UnsupportedEncodingException {
+            int hash = 1;
+            for (int i = position; i < position + length; i++) {
+                hash = 31 * hash + data[i];
+            }
+            int index = (hash ^ (hash >>> 16)) & (entries.length - 1);
+            CachedString entry = entries[index];
+            if (entry != null && entry.matches(data, position, length, encoding)) {
+                return entry.string;
+            }
+            String string = new String(data, position, length, encoding);
+            entries[index] = new CachedString(Arrays.copyOfRange(data, position, position + length), encoding, string);
+            return string;
+        }
+    }
+
+    private static class CachedString {
+        private final byte[] bytes;
+        private final String encoding;
+        private final String string;
+
+        private CachedString(byte[] bytes, String encoding, String string) {
+            this.bytes = bytes;
+            this.encoding = encoding;
+            this.string = string;
+        }
+
+        private boolean matches(byte[] data, int position, int length, String encoding) {
+            if (bytes.length != length || !this.encoding.equals(encoding)) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != data[position + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
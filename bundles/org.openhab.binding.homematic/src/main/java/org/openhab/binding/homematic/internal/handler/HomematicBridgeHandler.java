@@ -37,6 +37,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandlerService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.DeviceMetadataCache;
 import org.openhab.binding.homematic.internal.communicator.HomematicGateway;
 import org.openhab.binding.homematic.internal.communicator.HomematicGatewayAdapter;
 import org.openhab.binding.homematic.internal.communicator.HomematicGatewayFactory;
@@ -70,6 +71,7 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
 
     private HomematicConfig config;
     private HomematicGateway gateway;
+    private DeviceMetadataCache metadataCache;
     private final HomematicTypeGenerator typeGenerator;
     private final HttpClient httpClient;
 
@@ -105,7 +107,15 @@ public class HomematicBridgeHandler extends BaseBridgeHandler implements Homemat
 
             try {
                 String id = getThing().getUID().getId();
-                gateway = HomematicGatewayFactory.createGateway(id, config, this, httpClient);
+                if (metadataCache == null) {
+                    // make the types of already known devices available without waiting for the gateway
+                    metadataCache = new DeviceMetadataCache(id);
+                    metadataCache.load();
+                    for (HmDevice device : metadataCache.getDevices()) {
+                        typeGenerator.generateCached(device);
+                    }
+                }
+                gateway = HomematicGatewayFactory.createGateway(id, config, this, httpClient, metadataCache);
                 configureThingProperties();
                 gateway.initialize();
 
@@ -30,6 +30,12 @@ public interface HomematicTypeGenerator {
      */
     public void generate(HmDevice device);
 
+    /**
+     * Generates the ThingType and ChannelTypes for the given device from cached metadata, if they are not available
+     * yet. Types generated from cached metadata are generated again, as soon as the device is loaded from the gateway.
+     */
+    public void generateCached(HmDevice device);
+
     /**
      * Validates all devices for multiple firmware versions. Different firmware versions for the same device may have
      * different datapoints which may cause warnings in the logfile.
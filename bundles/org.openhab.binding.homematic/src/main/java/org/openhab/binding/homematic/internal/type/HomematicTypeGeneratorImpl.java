@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.lang.StringUtils;
@@ -77,6 +78,7 @@ public class HomematicTypeGeneratorImpl implements HomematicTypeGenerator {
     private HomematicChannelGroupTypeProvider channelGroupTypeProvider;
     private HomematicConfigDescriptionProvider configDescriptionProvider;
     private final Map<String, Set<String>> firmwaresByType = new HashMap<>();
+    private final Set<ThingTypeUID> cachedThingTypeUIDs = ConcurrentHashMap.newKeySet();
 
     private static final String[] IGNORE_DATAPOINT_NAMES = new String[] { DATAPOINT_NAME_AES_KEY,
             VIRTUAL_DATAPOINT_NAME_RELOAD_FROM_GATEWAY };
@@ -136,52 +138,72 @@ public class HomematicTypeGeneratorImpl implements HomematicTypeGenerator {
     public void generate(HmDevice device) {
         if (thingTypeProvider != null) {
             ThingTypeUID thingTypeUID = UidUtils.generateThingTypeUID(device);
-            ThingType tt = thingTypeProvider.getInternalThingType(thingTypeUID);
-
-            if (tt == null || device.isGatewayExtras()) {
-                logger.debug("Generating ThingType for device '{}' with {} datapoints", device.getType(),
-                        device.getDatapointCount());
-
-                List<ChannelGroupType> groupTypes = new ArrayList<>();
-                for (HmChannel channel : device.getChannels()) {
-                    List<ChannelDefinition> channelDefinitions = new ArrayList<>();
-                    // Omit thing channel definitions for reconfigurable channels;
-                    // those will be populated dynamically during thing initialization
-                    if (!channel.isReconfigurable()) {
-                        // generate channel
-                        for (HmDatapoint dp : channel.getDatapoints()) {
-                            if (!isIgnoredDatapoint(dp) && dp.getParamsetType() == HmParamsetType.VALUES) {
-                                ChannelTypeUID channelTypeUID = UidUtils.generateChannelTypeUID(dp);
-                                ChannelType channelType = channelTypeProvider.getInternalChannelType(channelTypeUID);
-                                if (channelType == null) {
-                                    channelType = createChannelType(dp, channelTypeUID);
-                                    channelTypeProvider.addChannelType(channelType);
-                                }
-
-                                ChannelDefinition channelDef = new ChannelDefinitionBuilder(dp.getName(),
-                                        channelType.getUID()).build();
-                                channelDefinitions.add(channelDef);
+            generate(device, cachedThingTypeUIDs.remove(thingTypeUID));
+            addFirmware(device);
+        }
+    }
+
+    @Override
+    public void generateCached(HmDevice device) {
+        if (thingTypeProvider != null) {
+            ThingTypeUID thingTypeUID = UidUtils.generateThingTypeUID(device);
+            if (thingTypeProvider.getInternalThingType(thingTypeUID) == null) {
+                logger.debug("Generating ThingType for device '{}' from cached metadata", device.getType());
+                generate(device, false);
+                cachedThingTypeUIDs.add(thingTypeUID);
+            }
+        }
+    }
+
+    /**
+     * Generates the ThingType and ChannelTypes for the given device, if not available or forced.
+     */
+    private void generate(HmDevice device, boolean force) {
+        ThingTypeUID thingTypeUID = UidUtils.generateThingTypeUID(device);
+        ThingType tt = thingTypeProvider.getInternalThingType(thingTypeUID);
+
+        if (tt == null || force || device.isGatewayExtras()) {
+            logger.debug("Generating ThingType for device '{}' with {} datapoints", device.getType(),
+                    device.getDatapointCount());
+
+            List<ChannelGroupType> groupTypes = new ArrayList<>();
+            for (HmChannel channel : device.getChannels()) {
+                List<ChannelDefinition> channelDefinitions = new ArrayList<>();
+                // Omit thing channel definitions for reconfigurable channels;
+                // those will be populated dynamically during thing initialization
+                if (!channel.isReconfigurable()) {
+                    // generate channel
+                    for (HmDatapoint dp : channel.getDatapoints()) {
+                        if (!isIgnoredDatapoint(dp) && dp.getParamsetType() == HmParamsetType.VALUES) {
+                            ChannelTypeUID channelTypeUID = UidUtils.generateChannelTypeUID(dp);
+                            ChannelType channelType = channelTypeProvider.getInternalChannelType(channelTypeUID);
+                            if (channelType == null || force) {
+                                channelType = createChannelType(dp, channelTypeUID);
+                                channelTypeProvider.addChannelType(channelType);
                             }
-                        }
-                    }
 
-                    // generate group
-                    ChannelGroupTypeUID groupTypeUID = UidUtils.generateChannelGroupTypeUID(channel);
-                    ChannelGroupType groupType = channelGroupTypeProvider.getInternalChannelGroupType(groupTypeUID);
-                    if (groupType == null || device.isGatewayExtras()) {
-                        String groupLabel = String.format("%s",
-                                WordUtils.capitalizeFully(StringUtils.replace(channel.getType(), "_", " ")));
-                        groupType = ChannelGroupTypeBuilder.instance(groupTypeUID, groupLabel)
-                                .withChannelDefinitions(channelDefinitions).build();
-                        channelGroupTypeProvider.addChannelGroupType(groupType);
-                        groupTypes.add(groupType);
+                            ChannelDefinition channelDef = new ChannelDefinitionBuilder(dp.getName(),
+                                    channelType.getUID()).build();
+                            channelDefinitions.add(channelDef);
+                        }
                     }
+                }
 
+                // generate group
+                ChannelGroupTypeUID groupTypeUID = UidUtils.generateChannelGroupTypeUID(channel);
+                ChannelGroupType groupType = channelGroupTypeProvider.getInternalChannelGroupType(groupTypeUID);
+                if (groupType == null || force || device.isGatewayExtras()) {
+                    String groupLabel = String.format("%s",
+                            WordUtils.capitalizeFully(StringUtils.replace(channel.getType(), "_", " ")));
+                    groupType = ChannelGroupTypeBuilder.instance(groupTypeUID, groupLabel)
+                            .withChannelDefinitions(channelDefinitions).build();
+                    channelGroupTypeProvider.addChannelGroupType(groupType);
+                    groupTypes.add(groupType);
                 }
-                tt = createThingType(device, groupTypes);
-                thingTypeProvider.addThingType(tt);
+
             }
-            addFirmware(device);
+            tt = createThingType(device, groupTypes);
+            thingTypeProvider.addThingType(tt);
         }
     }
 
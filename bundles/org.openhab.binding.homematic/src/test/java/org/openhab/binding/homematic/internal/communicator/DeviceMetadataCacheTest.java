@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link DeviceMetadataCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setup() {
+        file = new File(new File(folder.getRoot(), "homematic"), "ccu.metadata");
+    }
+
+    private HmDevice createDevice(String address, String firmware) {
+        HmDevice device = new HmDevice(address, HmInterface.RF, "HM-LC-Dim1T-Pl", "ccu", null, firmware);
+        HmChannel channel = new HmChannel("DIMMER", 1);
+        device.addChannel(channel);
+
+        HmDatapoint level = new HmDatapoint("LEVEL", "Level", HmValueType.FLOAT, 0.5, false, HmParamsetType.VALUES);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.01);
+        level.setUnit("100%");
+        level.setDefaultValue(0.0);
+        channel.addDatapoint(level);
+
+        HmDatapoint mode = new HmDatapoint("MODE", null, HmValueType.ENUM, 1, false, HmParamsetType.MASTER);
+        mode.setOptions(new String[] { "OFF", "ON" });
+        mode.setMinValue(0);
+        mode.setMaxValue(1);
+        channel.addDatapoint(mode);
+
+        HmDatapoint rssi = new HmDatapoint("RSSI", null, HmValueType.INTEGER, -60, true, HmParamsetType.VALUES);
+        rssi.setVirtual(true);
+        channel.addDatapoint(rssi);
+        return device;
+    }
+
+    @Test
+    public void testMetadataIsRestored() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file);
+        cache.put(createDevice("ABC0000001", "2.9"));
+        cache.save();
+
+        DeviceMetadataCache loadedCache = new DeviceMetadataCache(file);
+        loadedCache.load();
+        HmDevice device = loadedCache.getDevice(createDevice("ABC0000002", "2.9"));
+        assertThat(device, is(notNullValue()));
+        assertThat(device.getAddress(), is("ABC0000001"));
+        assertThat(device.getGatewayId(), is("ccu"));
+        assertThat(device.getHomegearId(), is(nullValue()));
+
+        HmChannel channel = device.getChannel(1);
+        assertThat(channel.getType(), is("DIMMER"));
+        assertThat(channel.getDatapoints().size(), is(3));
+
+        HmDatapoint level = channel.getDatapoint(HmParamsetType.VALUES, "LEVEL");
+        assertThat(level.getValue(), is(nullValue()));
+        assertThat(level.getType(), is(HmValueType.FLOAT));
+        assertThat(level.getDescription(), is("Level"));
+        assertThat(level.getMaxValue(), is((Number) 1.01));
+        assertThat(level.getUnit(), is("100%"));
+        assertThat(level.getDefaultValue(), is((Object) 0.0));
+
+        HmDatapoint mode = channel.getDatapoint(HmParamsetType.MASTER, "MODE");
+        assertThat(mode.getOptions(), is(new String[] { "OFF", "ON" }));
+        assertThat(mode.getMaxValue(), is((Number) 1));
+
+        HmDatapoint rssi = channel.getDatapoint(HmParamsetType.VALUES, "RSSI");
+        assertThat(rssi.isVirtual(), is(true));
+        assertThat(rssi.isReadOnly(), is(true));
+        assertThat(rssi.getOptions(), is(nullValue()));
+    }
+
+    @Test
+    public void testDevicesAreKeyedByTypeAndFirmware() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(file);
+        cache.put(createDevice("ABC0000001", "2.9"));
+        assertThat(cache.getDevice(createDevice("ABC0000002", "2.9")), is(notNullValue()));
+        assertThat(cache.getDevice(createDevice("ABC0000001", "2.11")), is(nullValue()));
+
+        cache.put(createDevice("ABC0000001", "2.11"));
+        cache.retainAll(Collections.singleton("HM-LC-Dim1T-Pl:2.11"));
+        assertThat(cache.getDevices().size(), is(1));
+        assertThat(cache.getDevices().iterator().next().getFirmware(), is("2.11"));
+    }
+
+    @Test
+    public void testUnknownFormatIsIgnored() throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(file);
+        cache.load();
+        assertThat(cache.getDevices().isEmpty(), is(true));
+    }
+}
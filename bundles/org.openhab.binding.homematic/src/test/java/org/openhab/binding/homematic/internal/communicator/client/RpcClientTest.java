@@ -19,6 +19,8 @@ import static org.openhab.binding.homematic.test.util.DimmerHelper.*;
 import static org.openhab.binding.homematic.test.util.RpcClientMockImpl.*;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.junit.Before;
@@ -95,6 +97,28 @@ public class RpcClientTest extends JavaTest {
         assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_NAME), is(0));
     }
 
+    @Test
+    public void paramsetDescriptionsOfChannelsAreLoadedWithMulticall() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel(), createDimmerHmChannel());
+
+        List<HmChannel> failedChannels = rpcClient.addChannelDatapoints(channels, HmParamsetType.VALUES);
+
+        assertThat(failedChannels.isEmpty(), is(true));
+        assertThat(rpcClient.numberOfCalls.get(MULTICALL_NAME), is(1));
+        assertThat(rpcClient.numberOfCalls.get(GET_PARAMSET_DESCRIPTION_NAME), is(0));
+    }
+
+    @Test
+    public void singleChannelIsNotLoadedWithMulticall() throws IOException {
+        List<HmChannel> channels = Arrays.asList(createDimmerHmChannel(), createDimmerDummyChannel());
+
+        List<HmChannel> failedChannels = rpcClient.setChannelDatapointValues(channels, HmParamsetType.VALUES);
+
+        // the dummy channel has no VALUES paramset, the remaining channel is left to a single getParamset call
+        assertThat(failedChannels, is(Arrays.asList(channels.get(0))));
+        assertThat(rpcClient.numberOfCalls.get(MULTICALL_NAME), is(0));
+    }
+
     @Test
     public void burstRxModeIsConfiguredAsParameterOnRequest() throws IOException {
         RpcRequest<String> request = new XmlRpcRequest("setValue");
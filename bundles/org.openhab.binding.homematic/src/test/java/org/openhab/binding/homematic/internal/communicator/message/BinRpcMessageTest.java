@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link BinRpcMessage}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "ISO-8859-1";
+
+    private byte[] createEvent(String address, String key, Object value) {
+        BinRpcMessage message = new BinRpcMessage("event", ENCODING);
+        message.addArg("BidCos-RF");
+        message.addArg(address);
+        message.addArg(key);
+        message.addArg(value);
+        return message.createMessage();
+    }
+
+    @Test
+    public void testEventIsDecoded() throws IOException {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put("LEVEL", 0.5);
+        struct.put("WORKING", Boolean.TRUE);
+        BinRpcMessage message = new BinRpcMessage(
+                new ByteArrayInputStream(createEvent("ABC0000001:1", "VALUES", struct)), true, ENCODING);
+
+        assertThat(message.getMethodName(), is("event"));
+        Object[] data = message.getResponseData();
+        assertThat(data.length, is(4));
+        assertThat(data[0], is("BidCos-RF"));
+        assertThat(data[1], is("ABC0000001:1"));
+        assertThat(data[2], is("VALUES"));
+        assertThat(data[3], is(struct));
+    }
+
+    @Test
+    public void testArrayIsDecoded() throws IOException {
+        BinRpcMessage request = new BinRpcMessage(null, BinRpcMessage.TYPE.RESPONSE, ENCODING);
+        request.addArg(Arrays.asList(1, "two", Boolean.FALSE));
+        BinRpcMessage message = new BinRpcMessage(new ByteArrayInputStream(request.createMessage()), false,
+                ENCODING);
+
+        assertThat(message.getResponseData().length, is(1));
+        assertThat((Object[]) message.getResponseData()[0], is(new Object[] { 1, "two", Boolean.FALSE }));
+    }
+
+    @Test
+    public void testConsecutiveMessagesAreDecoded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(createEvent("ABC0000001:1", "RSSI_DEVICE", -60));
+        char[] text = new char[100000];
+        Arrays.fill(text, 'x');
+        out.write(createEvent("ABC0000002:1", "TEXT", new String(text)));
+        out.write(createEvent("ABC0000001:1", "RSSI_DEVICE", -61));
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+
+        Object[] first = new BinRpcMessage(in, true, ENCODING).getResponseData();
+        Object[] second = new BinRpcMessage(in, true, ENCODING).getResponseData();
+        Object[] third = new BinRpcMessage(in, true, ENCODING).getResponseData();
+
+        assertThat(first[3], is(-60));
+        assertThat(second[3], is(new String(text)));
+        assertThat(third[3], is(-61));
+        // short strings like addresses and datapoint names are shared between messages
+        assertThat(third[1], is(sameInstance(first[1])));
+        assertThat(third[2], is(sameInstance(first[2])));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedMessage() throws IOException {
+        byte[] event = createEvent("ABC0000001:1", "RSSI_DEVICE", -60);
+        new BinRpcMessage(new ByteArrayInputStream(Arrays.copyOf(event, event.length - 1)), true, ENCODING);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidMessage() throws IOException {
+        byte[] event = createEvent("ABC0000001:1", "RSSI_DEVICE", -60);
+        // string length pointing beyond the end of the message
+        event[12 + "event".length() + 4 + 4 + 3] = 127;
+        new BinRpcMessage(new ByteArrayInputStream(event), true, ENCODING);
+    }
+}
@@ -13,8 +13,10 @@
 package org.openhab.binding.homematic.test.util;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
@@ -28,6 +30,7 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
     public static final String GET_PARAMSET_DESCRIPTION_NAME = "getParamsetDescription";
     public static final String GET_PARAMSET_NAME = "getParamset";
+    public static final String MULTICALL_NAME = "system.multicall";
 
     public Map<String, Integer> numberOfCalls = new HashMap<>();
 
@@ -38,7 +41,8 @@ public class RpcClientMockImpl extends RpcClient<String> {
     public RpcClientMockImpl(HomematicConfig config) throws IOException {
         super(config);
 
-        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME).forEach(method -> numberOfCalls.put(method, 0));
+        Arrays.asList(GET_PARAMSET_DESCRIPTION_NAME, GET_PARAMSET_NAME, MULTICALL_NAME)
+                .forEach(method -> numberOfCalls.put(method, 0));
     }
 
     @Override
@@ -47,6 +51,15 @@ public class RpcClientMockImpl extends RpcClient<String> {
 
         increaseNumberOfCalls(methodName);
 
+        if (MULTICALL_NAME.equals(methodName)) {
+            // every call of the multicall succeeds with its result wrapped in an array
+            List<?> calls = (List<?>) ((MockRpcRequest) request).args.get(0);
+            Object[] results = new Object[calls.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = mockResponse();
+            }
+            return new Object[] { results };
+        }
         return mockResponse();
     }
 
@@ -65,25 +78,33 @@ public class RpcClientMockImpl extends RpcClient<String> {
         return response;
     }
 
-    @Override
-    protected RpcRequest<String> createRpcRequest(String methodName) {
-        return new RpcRequest<String>() {
+    private static class MockRpcRequest implements RpcRequest<String> {
+        private final String methodName;
+        private final List<Object> args = new ArrayList<>();
 
-            @Override
-            public void addArg(Object arg) {
-            }
+        private MockRpcRequest(String methodName) {
+            this.methodName = methodName;
+        }
 
-            @Override
-            public String createMessage() {
-                return null;
-            }
+        @Override
+        public void addArg(Object arg) {
+            args.add(arg);
+        }
 
-            @Override
-            public String getMethodName() {
-                return methodName;
-            }
+        @Override
+        public String createMessage() {
+            return null;
+        }
 
-        };
+        @Override
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    @Override
+    protected RpcRequest<String> createRpcRequest(String methodName) {
+        return new MockRpcRequest(methodName);
     }
 
     @Override
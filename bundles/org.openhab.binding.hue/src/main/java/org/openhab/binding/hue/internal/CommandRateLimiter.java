@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Token bucket limiting the rate of commands sent to a bridge.
+ *
+ * The bucket holds at most {@code burst} tokens and is refilled with {@code commandsPerSecond} tokens per second.
+ * Sending a command takes one token. Callers pass the current {@link System#nanoTime()} so the limiter can be tested
+ * without waiting.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CommandRateLimiter {
+    private final long nanosPerToken;
+    private final long burstNanos;
+
+    /**
+     * Point in time at which the bucket would be completely full again
+     */
+    private long fullAtNanos;
+
+    public CommandRateLimiter(double commandsPerSecond, int burst, long nowNanos) {
+        if (commandsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / commandsPerSecond);
+        this.burstNanos = nanosPerToken * burst;
+        this.fullAtNanos = nowNanos;
+    }
+
+    /**
+     * Returns the time to wait until a token is available
+     *
+     * @param nowNanos current time as returned by {@link System#nanoTime()}
+     * @return nanoseconds to wait, or 0 if a token is available right now
+     */
+    public synchronized long nanosUntilAvailable(long nowNanos) {
+        return Math.max(0, fullAtNanos + nanosPerToken - burstNanos - nowNanos);
+    }
+
+    /**
+     * Takes one token from the bucket. The caller should have checked {@link #nanosUntilAvailable(long)} first.
+     *
+     * @param nowNanos current time as returned by {@link System#nanoTime()}
+     */
+    public synchronized void take(long nowNanos) {
+        fullAtNanos = Math.max(fullAtNanos, nowNanos) + nanosPerToken;
+    }
+}
@@ -20,16 +20,23 @@ import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
 /**
  *
  * @author Q42 - Initial contribution
@@ -37,35 +44,55 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class HttpClient {
+    /**
+     * Bridges handle about 10 light commands per second, beyond that commands are dropped or delayed by the bridge
+     */
+    private static final double COMMANDS_PER_SECOND = 10;
+    private static final int COMMAND_BURST = 5;
+
     private int timeout = 1000;
     private final Logger logger = LoggerFactory.getLogger(HttpClient.class);
-    private final LinkedList<AsyncPutParameters> commandsQueue = new LinkedList<>();
-    private @Nullable Future<?> job;
+    private final CommandRateLimiter rateLimiter = new CommandRateLimiter(COMMANDS_PER_SECOND, COMMAND_BURST,
+            System.nanoTime());
 
-    @SuppressWarnings({ "null", "unused" })
-    private void executeCommands() {
+    /**
+     * Commands waiting to be sent, in order. Guarded by itself.
+     */
+    private final List<AsyncPutParameters> pendingCommands = new ArrayList<>();
+    private boolean sending;
+    private long nextSendNanos = System.nanoTime();
+
+    /**
+     * Sends pending commands one at a time. Instead of sleeping between commands, the next run is scheduled once the
+     * rate limit and the delay requested by the previous command allow it, so no thread is blocked while waiting.
+     */
+    private void executeCommands(ScheduledExecutorService scheduler) {
         while (true) {
-            try {
-                long delayTime = 0;
-                synchronized (commandsQueue) {
-                    AsyncPutParameters payloadCallbackPair = commandsQueue.poll();
-                    if (payloadCallbackPair != null) {
-                        logger.debug("Async sending put to address: {} delay: {} body: {}", payloadCallbackPair.address,
-                                payloadCallbackPair.delay, payloadCallbackPair.body);
-                        try {
-                            Result result = put(payloadCallbackPair.address, payloadCallbackPair.body);
-                            payloadCallbackPair.future.complete(result);
-                        } catch (IOException e) {
-                            payloadCallbackPair.future.completeExceptionally(e);
-                        }
-                        delayTime = payloadCallbackPair.delay;
-                    } else {
-                        return;
-                    }
+            AsyncPutParameters command;
+            synchronized (pendingCommands) {
+                if (pendingCommands.isEmpty()) {
+                    sending = false;
+                    return;
+                }
+                long now = System.nanoTime();
+                long waitNanos = Math.max(nextSendNanos - now, rateLimiter.nanosUntilAvailable(now));
+                if (waitNanos > 0) {
+                    scheduler.schedule(() -> executeCommands(scheduler), waitNanos, TimeUnit.NANOSECONDS);
+                    return;
                 }
-                Thread.sleep(delayTime);
-            } catch (InterruptedException e) {
-                logger.debug("commandExecutorThread was interrupted", e);
+                command = pendingCommands.remove(0);
+                rateLimiter.take(now);
+            }
+
+            logger.debug("Async sending put to address: {} delay: {} body: {}", command.address, command.delay,
+                    command.body);
+            try {
+                command.future.complete(put(command.address, command.body));
+            } catch (IOException | RuntimeException e) {
+                command.future.completeExceptionally(e);
+            }
+            synchronized (pendingCommands) {
+                nextSendNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(command.delay);
             }
         }
     }
@@ -86,22 +113,101 @@ public class HttpClient {
         return doNetwork(address, "PUT", body);
     }
 
+    /**
+     * Queues a PUT request to be sent asynchronously.
+     *
+     * Requests are sent in order, limited to the rate the bridge can handle. If a request to the same address is still
+     * waiting to be sent, the two are coalesced where possible (see {@link #mergeBodies(String, String)}), so only the
+     * newest state of a light is sent. The futures of coalesced requests complete with the result of the merged
+     * request.
+     *
+     * @param address address to send the request to
+     * @param body JSON body of the request
+     * @param delay minimum time in milliseconds before the next request is sent
+     * @param scheduler scheduler used to send the requests
+     * @return future completed with the result of the request
+     */
     public CompletableFuture<Result> putAsync(String address, String body, long delay,
             ScheduledExecutorService scheduler) {
-        AsyncPutParameters asyncPutParameters = new AsyncPutParameters(address, body, delay);
-
-        synchronized (commandsQueue) {
-            if (commandsQueue.isEmpty()) {
-                commandsQueue.offer(asyncPutParameters);
-                if (job == null || job.isDone()) {
-                    job = scheduler.submit(this::executeCommands);
+        synchronized (pendingCommands) {
+            AsyncPutParameters command = null;
+            int index = lastPendingIndex(address);
+            if (index >= 0) {
+                AsyncPutParameters previous = pendingCommands.get(index);
+                String mergedBody = mergeBodies(previous.body, body);
+                if (mergedBody != null) {
+                    logger.trace("Coalescing pending put to address: {} body: {} with body: {}", address,
+                            previous.body, body);
+                    command = new AsyncPutParameters(address, mergedBody, Math.max(previous.delay, delay));
+                    command.future.whenComplete((result, error) -> {
+                        if (error != null) {
+                            previous.future.completeExceptionally(error);
+                        } else {
+                            previous.future.complete(result);
+                        }
+                    });
+                    // Replacing the command keeps its position in the queue
+                    pendingCommands.set(index, command);
                 }
-            } else {
-                commandsQueue.offer(asyncPutParameters);
             }
+            if (command == null) {
+                command = new AsyncPutParameters(address, body, delay);
+                pendingCommands.add(command);
+            }
+            if (!sending) {
+                sending = true;
+                scheduler.submit(() -> executeCommands(scheduler));
+            }
+            return command.future;
         }
+    }
+
+    private int lastPendingIndex(String address) {
+        for (int i = pendingCommands.size() - 1; i >= 0; i--) {
+            if (pendingCommands.get(i).address.equals(address)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Merges the attributes of two JSON object bodies, attributes of the newer body taking precedence. Bodies that
+     * are not JSON objects cannot be merged and the newer body is returned as is.
+     *
+     * A newer body turning the light off replaces the older body: the bridge rejects other attributes of a light that
+     * is turned off (error 201), and they do not matter anymore. Relative changes like "bri_inc" or "ct_inc" add up
+     * on the bridge, so bodies containing them are not merged and null is returned: both bodies have to be sent.
+     *
+     * @return the body to send instead of both bodies, or null if both bodies have to be sent
+     */
+    static @Nullable String mergeBodies(String olderBody, String newerBody) {
+        try {
+            JsonElement older = new JsonParser().parse(olderBody);
+            JsonElement newer = new JsonParser().parse(newerBody);
+            if (!older.isJsonObject() || !newer.isJsonObject()) {
+                return newerBody;
+            }
+            JsonObject merged = older.getAsJsonObject();
+            JsonObject newerObject = newer.getAsJsonObject();
+            if (hasIncrement(merged) || hasIncrement(newerObject)) {
+                return null;
+            }
+            JsonElement on = newerObject.get("on");
+            if (on != null && on.isJsonPrimitive() && on.getAsJsonPrimitive().isBoolean() && !on.getAsBoolean()) {
+                return newerBody;
+            }
+            for (Entry<String, JsonElement> entry : newerObject.entrySet()) {
+                merged.add(entry.getKey(), entry.getValue());
+            }
+            return merged.toString();
+        } catch (JsonParseException e) {
+            return newerBody;
+        }
+    }
 
-        return asyncPutParameters.future;
+    private static boolean hasIncrement(JsonObject body) {
+        return body.entrySet().stream().anyMatch(entry -> entry.getKey().endsWith("_inc"));
     }
 
     public Result delete(String address) throws IOException {
@@ -114,6 +220,7 @@ public class HttpClient {
 
     protected Result doNetwork(String address, String requestMethod, @Nullable String body) throws IOException {
         HttpURLConnection conn = (HttpURLConnection) new URL(address).openConnection();
+        boolean reusable = false;
         try {
             conn.setRequestMethod(requestMethod);
             conn.setRequestProperty("Content-Type", "application/json");
@@ -133,10 +240,16 @@ public class HttpClient {
                 while ((length = in.read(buffer)) != -1) {
                     result.write(buffer, 0, length);
                 }
-                return new Result(result.toString(StandardCharsets.UTF_8.name()), conn.getResponseCode());
+                Result response = new Result(result.toString(StandardCharsets.UTF_8.name()), conn.getResponseCode());
+                reusable = true;
+                return response;
             }
         } finally {
-            conn.disconnect();
+            // A fully read response leaves the connection in the keep-alive cache of the JVM for the next request.
+            // Only close connections that failed, as their state is unknown.
+            if (!reusable) {
+                conn.disconnect();
+            }
         }
     }
 
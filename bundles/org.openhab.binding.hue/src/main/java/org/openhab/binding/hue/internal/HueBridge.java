@@ -240,6 +240,58 @@ public class HueBridge {
         return sensorList;
     }
 
+    /**
+     * Returns the lights whose JSON representation changed since the previous call with the same filter.
+     * Unchanged lights are not deserialized. Requires an API version supporting full lights.
+     *
+     * @param filter filter remembering the previously returned lights
+     * @return list of new or changed lights
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public List<FullLight> getChangedFullLights(JsonChangeFilter filter) throws IOException, ApiException {
+        return getChangedObjects("lights", FullLight.class, filter);
+    }
+
+    /**
+     * Returns the sensors whose JSON representation changed since the previous call with the same filter.
+     * Unchanged sensors are not deserialized.
+     *
+     * @param filter filter remembering the previously returned sensors
+     * @return list of new or changed sensors
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public List<FullSensor> getChangedSensors(JsonChangeFilter filter) throws IOException, ApiException {
+        return getChangedObjects("sensors", FullSensor.class, filter);
+    }
+
+    private <T extends HueObject> List<T> getChangedObjects(String path, Class<T> classOfT, JsonChangeFilter filter)
+            throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL(path));
+
+        handleErrors(result);
+
+        List<T> changedList = new ArrayList<>();
+        try {
+            JsonElement objects = new JsonParser().parse(result.getBody());
+            if (!objects.isJsonObject()) {
+                throw new ApiException("API returned unexpected result: " + result.getBody());
+            }
+            for (Map.Entry<String, JsonElement> entry : filter.filterChanged(objects.getAsJsonObject()).entrySet()) {
+                T object = gson.fromJson(entry.getValue(), classOfT);
+                object.setId(entry.getKey());
+                changedList.add(object);
+            }
+        } catch (JsonParseException e) {
+            // The filter already remembers objects that were not returned, start over on next call
+            filter.reset();
+            throw new ApiException("API returned unexpected result: " + e.getMessage());
+        }
+
+        return changedList;
+    }
+
     /**
      * Returns the last time a search for new lights was started.
      * If a search is currently running, the current time will be
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Remembers the raw JSON of the lights or sensors returned by the bridge, so that subsequent polls only need to
+ * deserialize the objects that actually changed.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonChangeFilter {
+    private final Map<String, JsonElement> lastObjects = new HashMap<>();
+
+    /**
+     * Returns the members of a JSON object that changed since the previous call.
+     *
+     * Members that are no longer present are forgotten, so they are reported as changed once they re-appear.
+     * The returned members are remembered immediately: callers that fail to process them must {@link #reset()} the
+     * filter, otherwise the members are treated as unchanged by the next call.
+     *
+     * @param objects JSON object mapping ids to lights or sensors, as returned by the bridge
+     * @return changed members, in the order returned by the bridge
+     */
+    public synchronized Map<String, JsonElement> filterChanged(JsonObject objects) {
+        Map<String, JsonElement> changed = new LinkedHashMap<>();
+        Set<Entry<String, JsonElement>> entries = objects.entrySet();
+        for (Entry<String, JsonElement> entry : entries) {
+            JsonElement last = lastObjects.put(entry.getKey(), entry.getValue());
+            if (!entry.getValue().equals(last)) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (lastObjects.size() > entries.size()) {
+            lastObjects.keySet().removeIf(id -> !objects.has(id));
+        }
+        return changed;
+    }
+
+    /**
+     * Returns whether the object with the given id was present in the result of the previous call
+     */
+    public synchronized boolean contains(String id) {
+        return lastObjects.containsKey(id);
+    }
+
+    /**
+     * Forgets all remembered objects, so that all objects are reported as changed on the next call
+     */
+    public synchronized void reset() {
+        lastObjects.clear();
+    }
+}
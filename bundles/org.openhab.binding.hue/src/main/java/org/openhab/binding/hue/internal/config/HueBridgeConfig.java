@@ -32,6 +32,7 @@ public class HueBridgeConfig {
     private @Nullable String userName;
     private int pollingInterval = 10;
     private int sensorPollingInterval = 500;
+    private int sensorActivityPollingInterval = 250;
 
     public String getIpAddress() {
         return ipAddress;
@@ -80,4 +81,12 @@ public class HueBridgeConfig {
     public void setSensorPollingInterval(int sensorPollingInterval) {
         this.sensorPollingInterval = sensorPollingInterval;
     }
+
+    public int getSensorActivityPollingInterval() {
+        return sensorActivityPollingInterval;
+    }
+
+    public void setSensorActivityPollingInterval(int sensorActivityPollingInterval) {
+        this.sensorActivityPollingInterval = sensorActivityPollingInterval;
+    }
 }
@@ -50,6 +50,7 @@ import org.openhab.binding.hue.internal.FullLight;
 import org.openhab.binding.hue.internal.FullSensor;
 import org.openhab.binding.hue.internal.HueBridge;
 import org.openhab.binding.hue.internal.HueConfigStatusMessage;
+import org.openhab.binding.hue.internal.JsonChangeFilter;
 import org.openhab.binding.hue.internal.State;
 import org.openhab.binding.hue.internal.StateUpdate;
 import org.openhab.binding.hue.internal.config.HueBridgeConfig;
@@ -82,6 +83,18 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private long lightPollingInterval = TimeUnit.SECONDS.toSeconds(10);
     private long sensorPollingInterval = TimeUnit.MILLISECONDS.toMillis(500);
 
+    /**
+     * Time the sensors are polled with {@link #sensorActivityPollingInterval} after a presence sensor changed
+     */
+    private static final long SENSOR_ACTIVITY_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    /**
+     * Interval used around recent presence activity, or 0 if the regular interval is always used
+     */
+    private long sensorActivityPollingInterval = 0;
+    private volatile long sensorActivityUntilMillis = 0;
+    private long lastSensorPollMillis = 0;
+
     final ReentrantLock pollingLock = new ReentrantLock();
 
     abstract class PollingRunnable implements Runnable {
@@ -160,6 +173,8 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
     private final Map<String, FullLight> lastLightStates = new ConcurrentHashMap<>();
     private final Map<String, FullSensor> lastSensorStates = new ConcurrentHashMap<>();
+    private final JsonChangeFilter lightChangeFilter = new JsonChangeFilter();
+    private final JsonChangeFilter sensorChangeFilter = new JsonChangeFilter();
 
     private boolean lastBridgeConnectionState = false;
 
@@ -175,11 +190,34 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private @NonNullByDefault({}) HueBridgeConfig hueBridgeConfig = null;
 
     private final Runnable sensorPollingRunnable = new PollingRunnable() {
+        @Override
+        public void run() {
+            // While there is no recent presence activity, skip polls until the regular interval has passed
+            long now = System.currentTimeMillis();
+            if (sensorActivityPollingInterval > 0 && now >= sensorActivityUntilMillis
+                    && now - lastSensorPollMillis + sensorActivityPollingInterval / 2 < sensorPollingInterval) {
+                return;
+            }
+            lastSensorPollMillis = now;
+            super.run();
+        }
+
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
+            try {
+                pollSensors();
+            } catch (IOException | ApiException | RuntimeException e) {
+                // Sensors not processed by the aborted poll must not be treated as unchanged by the next one
+                sensorChangeFilter.reset();
+                throw e;
+            }
+        }
+
+        private void pollSensors() throws IOException, ApiException {
             Map<String, FullSensor> lastSensorStateCopy = new HashMap<>(lastSensorStates);
 
-            for (final FullSensor sensor : hueBridge.getSensors()) {
+            // Only sensors whose JSON changed are returned, unchanged sensors are left in the copy
+            for (final FullSensor sensor : hueBridge.getChangedSensors(sensorChangeFilter)) {
                 String sensorId = sensor.getId();
                 if (lastSensorStateCopy.containsKey(sensorId)) {
                     final FullSensor lastFullSensor = lastSensorStateCopy.remove(sensorId);
@@ -187,6 +225,9 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
                     lastSensorStates.put(sensorId, sensor);
                     if (!lastFullSensorState.equals(sensor.getState())) {
                         logger.debug("Status update for Hue sensor '{}' detected: {}", sensorId, sensor.getState());
+                        if (sensor.getState().containsKey(FullSensor.STATE_PRESENCE)) {
+                            sensorActivityUntilMillis = System.currentTimeMillis() + SENSOR_ACTIVITY_MILLIS;
+                        }
                         notifySensorStatusListeners(sensor, STATE_CHANGED);
                     }
                 } else {
@@ -199,6 +240,10 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
             // Check for removed sensors
             for (Entry<String, FullSensor> fullSensorEntry : lastSensorStateCopy.entrySet()) {
+                if (sensorChangeFilter.contains(fullSensorEntry.getKey())) {
+                    // unchanged
+                    continue;
+                }
                 lastSensorStates.remove(fullSensorEntry.getKey());
                 logger.debug("Hue sensor '{}' removed.", fullSensorEntry.getKey());
                 for (SensorStatusListener sensorStatusListener : sensorStatusListeners) {
@@ -215,11 +260,22 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final Runnable lightPollingRunnable = new PollingRunnable() {
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
+            try {
+                pollLights();
+            } catch (IOException | ApiException | RuntimeException e) {
+                // Lights not processed by the aborted poll must not be treated as unchanged by the next one
+                lightChangeFilter.reset();
+                throw e;
+            }
+        }
+
+        private void pollLights() throws IOException, ApiException {
             Map<String, FullLight> lastLightStateCopy = new HashMap<>(lastLightStates);
 
             List<FullLight> lights;
             if (ApiVersionUtils.supportsFullLights(hueBridge.getVersion())) {
-                lights = hueBridge.getFullLights();
+                // Only lights whose JSON changed are returned, unchanged lights are left in the copy
+                lights = hueBridge.getChangedFullLights(lightChangeFilter);
             } else {
                 lights = hueBridge.getFullConfig().getLights();
             }
@@ -243,6 +299,10 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
             // Check for removed lights
             for (Entry<String, FullLight> fullLightEntry : lastLightStateCopy.entrySet()) {
+                if (lightChangeFilter.contains(fullLightEntry.getKey())) {
+                    // unchanged
+                    continue;
+                }
                 lastLightStates.remove(fullLightEntry.getKey());
                 logger.debug("Hue light '{}' removed.", fullLightEntry.getKey());
                 for (LightStatusListener lightStatusListener : lightStatusListeners) {
@@ -398,7 +458,17 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             } else {
                 sensorPollingInterval = hueBridgeConfig.getSensorPollingInterval();
             }
-            sensorPollingJob = scheduler.scheduleWithFixedDelay(sensorPollingRunnable, 1, sensorPollingInterval,
+            int activityInterval = hueBridgeConfig.getSensorActivityPollingInterval();
+            if (activityInterval > 0 && activityInterval < 50) {
+                logger.info("Wrong configuration value for sensor activity polling interval. Using {}ms instead",
+                        sensorPollingInterval);
+            }
+            // The runnable skips polls while there is no presence activity
+            sensorActivityPollingInterval = activityInterval >= 50 && activityInterval < sensorPollingInterval
+                    ? activityInterval
+                    : 0;
+            long interval = sensorActivityPollingInterval > 0 ? sensorActivityPollingInterval : sensorPollingInterval;
+            sensorPollingJob = scheduler.scheduleWithFixedDelay(sensorPollingRunnable, 1, interval,
                     TimeUnit.MILLISECONDS);
         }
     }
@@ -460,6 +530,9 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
      */
     public void onConnectionLost() {
         logger.debug("Bridge connection lost. Updating thing status to OFFLINE.");
+        // Compare all lights and sensors again once the connection is resumed
+        lightChangeFilter.reset();
+        sensorChangeFilter.reset();
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE, "@text/offline.bridge-connection-lost");
     }
 
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+
+/**
+ * Tests for the asynchronous command pipeline of {@link HttpClient}
+ *
+ * @author agent - Initial contribution
+ */
+public class HttpClientTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testMergeBodies() {
+        assertEquals("{\"on\":true,\"bri\":100}", HttpClient.mergeBodies("{\"on\":true,\"bri\":10}", "{\"bri\":100}"));
+        assertEquals("[1]", HttpClient.mergeBodies("{\"on\":true}", "[1]"));
+    }
+
+    @Test
+    public void testTurningOffIsNotMerged() {
+        assertEquals("{\"on\":false}", HttpClient.mergeBodies("{\"on\":true,\"bri\":10}", "{\"on\":false}"));
+        assertEquals("{\"on\":false,\"transitiontime\":4}",
+                HttpClient.mergeBodies("{\"bri\":10}", "{\"on\":false,\"transitiontime\":4}"));
+        // Turning on again after off can be merged
+        assertEquals("{\"on\":true,\"bri\":10}", HttpClient.mergeBodies("{\"on\":false}", "{\"on\":true,\"bri\":10}"));
+    }
+
+    @Test
+    public void testIncrementsAreNotMerged() {
+        assertNull(HttpClient.mergeBodies("{\"bri_inc\":10}", "{\"bri_inc\":10}"));
+        assertNull(HttpClient.mergeBodies("{\"on\":true}", "{\"ct_inc\":-10}"));
+        assertNull(HttpClient.mergeBodies("{\"sat_inc\":5}", "{\"on\":false}"));
+    }
+
+    @Test
+    public void testPendingCommandsAreCoalesced() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        HttpClient client = new HttpClient() {
+            @Override
+            protected Result doNetwork(String address, String requestMethod, @Nullable String body)
+                    throws IOException {
+                sent.add(address + " " + body);
+                firstSent.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return new Result("[]", 200);
+            }
+        };
+
+        CompletableFuture<Result> first = client.putAsync("light1", "{\"on\":true}", 0, scheduler);
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+        // The first command is being sent, the following ones for light1 are merged while waiting
+        CompletableFuture<Result> second = client.putAsync("light1", "{\"bri\":10}", 0, scheduler);
+        CompletableFuture<Result> other = client.putAsync("light2", "{\"on\":false}", 0, scheduler);
+        CompletableFuture<Result> third = client.putAsync("light1", "{\"bri\":20,\"on\":true}", 0, scheduler);
+        release.countDown();
+
+        CompletableFuture.allOf(first, second, other, third).get(5, TimeUnit.SECONDS);
+        assertSame(second.get(), third.get());
+        assertEquals(Arrays.asList("light1 {\"on\":true}", "light1 {\"bri\":20,\"on\":true}", "light2 {\"on\":false}"),
+                sent);
+    }
+
+    @Test
+    public void testPendingIncrementsAndTurningOff() throws Exception {
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        HttpClient client = new HttpClient() {
+            @Override
+            protected Result doNetwork(String address, String requestMethod, @Nullable String body)
+                    throws IOException {
+                sent.add(address + " " + body);
+                firstSent.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return new Result("[]", 200);
+            }
+        };
+
+        CompletableFuture<Result> first = client.putAsync("light1", "{\"on\":true}", 0, scheduler);
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+        // Increments are all sent, in order
+        CompletableFuture<Result> increment1 = client.putAsync("light1", "{\"bri_inc\":10}", 0, scheduler);
+        CompletableFuture<Result> increment2 = client.putAsync("light1", "{\"bri_inc\":10}", 0, scheduler);
+        // Turning off replaces the pending brightness of light2
+        CompletableFuture<Result> brightness = client.putAsync("light2", "{\"bri\":100}", 0, scheduler);
+        CompletableFuture<Result> off = client.putAsync("light2", "{\"on\":false}", 0, scheduler);
+        release.countDown();
+
+        CompletableFuture.allOf(first, increment1, increment2, brightness, off).get(5, TimeUnit.SECONDS);
+        assertSame(brightness.get(), off.get());
+        assertEquals(Arrays.asList("light1 {\"on\":true}", "light1 {\"bri_inc\":10}", "light1 {\"bri_inc\":10}",
+                "light2 {\"on\":false}"), sent);
+    }
+
+    @Test
+    public void testRateLimiter() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        CommandRateLimiter limiter = new CommandRateLimiter(10, 2, 0);
+        assertEquals(0, limiter.nanosUntilAvailable(0));
+        limiter.take(0);
+        assertEquals(0, limiter.nanosUntilAvailable(0));
+        limiter.take(0);
+        assertEquals(second / 10, limiter.nanosUntilAvailable(0));
+        assertEquals(0, limiter.nanosUntilAvailable(second / 10));
+
+        // Tokens do not accumulate beyond the burst size
+        assertEquals(0, limiter.nanosUntilAvailable(10 * second));
+        limiter.take(10 * second);
+        limiter.take(10 * second);
+        assertEquals(second / 10, limiter.nanosUntilAvailable(10 * second));
+    }
+}
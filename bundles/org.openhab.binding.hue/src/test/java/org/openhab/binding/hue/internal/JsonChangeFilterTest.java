@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests for {@link JsonChangeFilter}
+ *
+ * @author agent - Initial contribution
+ */
+public class JsonChangeFilterTest {
+
+    private final JsonChangeFilter filter = new JsonChangeFilter();
+
+    private Map<String, JsonElement> filter(String json) {
+        return filter.filterChanged((JsonObject) new JsonParser().parse(json));
+    }
+
+    @Test
+    public void testOnlyChangedObjectsReturned() {
+        assertEquals(Arrays.asList("1", "2"),
+                Arrays.asList(filter("{\"1\":{\"on\":true},\"2\":{\"on\":false}}").keySet().toArray()));
+        assertEquals(Collections.emptySet(), filter("{\"1\":{\"on\":true},\"2\":{\"on\":false}}").keySet());
+        assertEquals(Collections.singleton("2"), filter("{\"1\":{\"on\":true},\"2\":{\"on\":true}}").keySet());
+        assertTrue(filter.contains("1"));
+    }
+
+    @Test
+    public void testRemovedObjectsForgotten() {
+        filter("{\"1\":{\"on\":true},\"2\":{\"on\":false}}");
+        assertEquals(Collections.emptySet(), filter("{\"1\":{\"on\":true}}").keySet());
+        assertFalse(filter.contains("2"));
+        assertEquals(Collections.singleton("2"), filter("{\"1\":{\"on\":true},\"2\":{\"on\":false}}").keySet());
+
+        filter.reset();
+        assertEquals(2, filter("{\"1\":{\"on\":true},\"2\":{\"on\":false}}").size());
+    }
+
+    @Test
+    public void testResetAfterAbortedPoll() {
+        filter("{\"1\":{\"on\":true}}");
+        // The poll processing the changes of the second call is aborted
+        filter("{\"1\":{\"on\":false},\"2\":{\"on\":false}}");
+        filter.reset();
+
+        assertFalse(filter.contains("1"));
+        assertEquals(Arrays.asList("1", "2"),
+                Arrays.asList(filter("{\"1\":{\"on\":false},\"2\":{\"on\":false}}").keySet().toArray()));
+    }
+}
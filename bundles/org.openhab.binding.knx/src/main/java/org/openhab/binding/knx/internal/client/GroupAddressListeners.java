@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Index of {@link GroupAddressListener}s by the group addresses they listen to
+ *
+ * Lookups are lock-free and return immutable snapshots, so that incoming telegrams can be dispatched without scanning
+ * all the listeners. Registrations are rare and copy the affected entries.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class GroupAddressListeners {
+
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByAddress = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> addressesByListener = new HashMap<>();
+
+    /**
+     * Register listener, or update the group addresses of already registered listener
+     *
+     * @param listener listener to register
+     * @return true if the listener was not registered before
+     */
+    public synchronized boolean register(GroupAddressListener listener) {
+        Set<GroupAddress> addresses = new HashSet<>(listener.getGroupAddresses());
+        Set<GroupAddress> previous = addressesByListener.put(listener, addresses);
+        if (previous != null) {
+            removeFromIndex(listener, previous);
+        }
+        for (GroupAddress address : addresses) {
+            listenersByAddress.compute(address, (key, listeners) -> {
+                Set<GroupAddressListener> updated = listeners == null ? new LinkedHashSet<>()
+                        : new LinkedHashSet<>(listeners);
+                updated.add(listener);
+                return Collections.unmodifiableSet(updated);
+            });
+        }
+        return previous == null;
+    }
+
+    /**
+     * Unregister listener
+     *
+     * @param listener listener to unregister
+     * @return true if the listener was registered
+     */
+    public synchronized boolean unregister(GroupAddressListener listener) {
+        Set<GroupAddress> previous = addressesByListener.remove(listener);
+        if (previous == null) {
+            return false;
+        }
+        removeFromIndex(listener, previous);
+        return true;
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> addresses) {
+        for (GroupAddress address : addresses) {
+            listenersByAddress.computeIfPresent(address, (key, listeners) -> {
+                Set<GroupAddressListener> updated = new LinkedHashSet<>(listeners);
+                updated.remove(listener);
+                return updated.isEmpty() ? null : Collections.unmodifiableSet(updated);
+            });
+        }
+    }
+
+    /**
+     * Get listeners of the group address
+     *
+     * @param address group address
+     * @return immutable set of listeners, empty if there are none
+     */
+    public Set<GroupAddressListener> getListeners(GroupAddress address) {
+        return listenersByAddress.getOrDefault(address, Collections.emptySet());
+    }
+
+    /**
+     * Get number of group addresses with listeners
+     */
+    public int size() {
+        return listenersByAddress.size();
+    }
+}
@@ -21,14 +21,29 @@ import tuwien.auto.calimero.datapoint.Datapoint;
  */
 public class ReadDatapoint {
 
+    /**
+     * Priority of the read. Datapoints are read in the order of declaration.
+     */
+    public enum ReadPriority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private final ReadPriority priority;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
+        this(datapoint, limit, ReadPriority.NORMAL);
+    }
+
+    public ReadDatapoint(Datapoint datapoint, int limit, ReadPriority priority) {
         this.datapoint = datapoint;
         this.retries = 0;
         this.limit = limit;
+        this.priority = priority;
     }
 
     public Datapoint getDatapoint() {
@@ -47,6 +62,10 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public ReadPriority getPriority() {
+        return priority;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Schedules the group reads of queued datapoints
+ *
+ * Reads are sent without waiting for the response of the previous read, at most one read per {@link #tick(ReadSender)}.
+ * The number of reads waiting for a response is limited by a window which grows with every answered read, up to the
+ * configured maximum, and is halved whenever a read times out. Reads are sent in the order of their
+ * {@link ReadDatapoint.ReadPriority}. Queued reads are skipped when the group address is written on the bus in the
+ * meantime, since the state is then known already.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ReadScheduler {
+
+    /**
+     * Sends a group read request for the datapoint, without waiting for the response
+     */
+    @FunctionalInterface
+    public interface ReadSender {
+        void sendRead(Datapoint datapoint) throws KNXException;
+    }
+
+    private static class Entry {
+        private final ReadDatapoint datapoint;
+        private final long sequence;
+        private long sentMillis;
+
+        Entry(ReadDatapoint datapoint, long sequence) {
+            this.datapoint = datapoint;
+            this.sequence = sequence;
+        }
+
+        GroupAddress getAddress() {
+            return datapoint.getDatapoint().getMainAddress();
+        }
+    }
+
+    private static final Comparator<Entry> READ_ORDER = Comparator
+            .<Entry, ReadDatapoint.ReadPriority> comparing(e -> e.datapoint.getPriority())
+            .thenComparingLong(e -> e.sequence);
+
+    private final Logger logger = LoggerFactory.getLogger(ReadScheduler.class);
+
+    private final String name;
+    private final int maxOutstandingReads;
+    private final long responseTimeoutMillis;
+    private final LongSupplier clock;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(READ_ORDER);
+    private final Map<GroupAddress, Entry> pending = new HashMap<>();
+    private final Map<GroupAddress, Entry> outstanding = new LinkedHashMap<>();
+    private long sequence;
+    private int window = 1;
+
+    // progress of the current read-out
+    private long readOutStartMillis;
+    private int total;
+    private int answered;
+    private int skipped;
+    private int failed;
+    private int reportedDecile;
+
+    /**
+     * Constructor
+     *
+     * @param name name used in the log messages
+     * @param maxOutstandingReads maximum number of reads waiting for a response
+     * @param responseTimeoutMillis time to wait for a response before the read is retried
+     * @param clock clock returning the current time in milliseconds
+     */
+    public ReadScheduler(String name, int maxOutstandingReads, long responseTimeoutMillis, LongSupplier clock) {
+        this.name = name;
+        this.maxOutstandingReads = Math.max(1, maxOutstandingReads);
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Queue datapoint for reading
+     *
+     * @param datapoint datapoint to read
+     * @return false if the group address is already waiting to be read
+     */
+    public synchronized boolean add(ReadDatapoint datapoint) {
+        GroupAddress address = datapoint.getDatapoint().getMainAddress();
+        if (pending.containsKey(address) || outstanding.containsKey(address)) {
+            return false;
+        }
+        if (total == 0) {
+            readOutStartMillis = clock.getAsLong();
+            answered = 0;
+            skipped = 0;
+            failed = 0;
+            reportedDecile = 0;
+        }
+        total++;
+        enqueue(datapoint);
+        return true;
+    }
+
+    /**
+     * Called when a value is received for the group address, either as a response or as a spontaneous write
+     *
+     * @param address the group address
+     */
+    public synchronized void onValueReceived(GroupAddress address) {
+        if (outstanding.remove(address) != null) {
+            answered++;
+            if (window < maxOutstandingReads) {
+                window++;
+            }
+            updateProgress();
+        } else if (pending.remove(address) != null) {
+            logger.trace("Skipping read of {}, value received from the bus", address);
+            skipped++;
+            updateProgress();
+        }
+    }
+
+    /**
+     * Expire the reads without a response, and send the next read if the window allows
+     *
+     * @param sender sender of the group read request
+     */
+    public void tick(ReadSender sender) {
+        Entry entry = expireAndTakeNext();
+        if (entry == null) {
+            return;
+        }
+        Datapoint datapoint = entry.datapoint.getDatapoint();
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", datapoint.getMainAddress());
+            sender.sendRead(datapoint);
+        } catch (KNXException e) {
+            synchronized (this) {
+                if (outstanding.remove(entry.getAddress(), entry)) {
+                    logger.debug("Could not read value for datapoint {}: {}.", datapoint.getMainAddress(),
+                            e.getMessage());
+                    retryOrGiveUp(entry);
+                }
+            }
+        }
+    }
+
+    private synchronized @Nullable Entry expireAndTakeNext() {
+        long now = clock.getAsLong();
+        for (Iterator<Entry> iterator = outstanding.values().iterator(); iterator.hasNext();) {
+            Entry entry = iterator.next();
+            if (now - entry.sentMillis >= responseTimeoutMillis) {
+                iterator.remove();
+                window = Math.max(1, window / 2);
+                logger.debug("No response for datapoint {} within {} ms.", entry.getAddress(), responseTimeoutMillis);
+                retryOrGiveUp(entry);
+            }
+        }
+        if (outstanding.size() >= window) {
+            return null;
+        }
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            GroupAddress address = entry.getAddress();
+            // entries removed from pending are left in the queue, skip them
+            if (pending.get(address) == entry) {
+                pending.remove(address);
+                entry.datapoint.incrementRetries();
+                entry.sentMillis = now;
+                outstanding.put(address, entry);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void retryOrGiveUp(Entry entry) {
+        ReadDatapoint datapoint = entry.datapoint;
+        if (datapoint.getRetries() < datapoint.getLimit()) {
+            logger.debug("Going to retry reading datapoint {}.", entry.getAddress());
+            enqueue(datapoint);
+        } else {
+            logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                    entry.getAddress(), datapoint.getLimit());
+            failed++;
+            updateProgress();
+        }
+    }
+
+    private void enqueue(ReadDatapoint datapoint) {
+        Entry entry = new Entry(datapoint, sequence++);
+        pending.put(entry.getAddress(), entry);
+        queue.add(entry);
+    }
+
+    private void updateProgress() {
+        if (total == 0) {
+            return;
+        }
+        int done = answered + skipped + failed;
+        if (pending.isEmpty() && outstanding.isEmpty()) {
+            logger.debug("Bridge {} read {} group addresses in {} ms ({} answered, {} received otherwise, {} failed)",
+                    name, total, clock.getAsLong() - readOutStartMillis, answered, skipped, failed);
+            total = 0;
+            queue.clear();
+            return;
+        }
+        int decile = done * 10 / total;
+        if (decile > reportedDecile) {
+            reportedDecile = decile;
+            logger.debug("Bridge {} read {} of {} group addresses", name, done, total);
+        }
+    }
+
+    /**
+     * Drop all the queued and outstanding reads
+     */
+    public synchronized void clear() {
+        queue.clear();
+        pending.clear();
+        outstanding.clear();
+        window = 1;
+        total = 0;
+    }
+
+    /**
+     * Get number of reads waiting to be sent
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Get number of reads waiting for a response
+     */
+    public synchronized int getOutstandingCount() {
+        return outstanding.size();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -95,6 +96,29 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     private static final String TIME_DAY_FORMAT = new String("EEE, HH:mm:ss");
     private static final String DATE_FORMAT = new String("yyyy-MM-dd");
 
+    /**
+     * Datapoint type id parsed into main and sub number, together with the calimero DPT
+     */
+    private static class DptInfo {
+        private final String id;
+        private final int mainNumber;
+        private final int subNumber;
+        private final DPT dpt;
+
+        private DptInfo(String id, int mainNumber, int subNumber, DPT dpt) {
+            this.id = id;
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.dpt = dpt;
+        }
+    }
+
+    /** stores the parsed datapoint type ids, shared by all instances */
+    private static final Map<String, DptInfo> DPT_INFO_CACHE = new ConcurrentHashMap<>();
+
+    /** stores translators per datapoint type id. Translators are stateful, therefore they are kept per thread. */
+    private static final ThreadLocal<Map<String, DPTXlator>> TRANSLATOR_CACHE = ThreadLocal.withInitial(HashMap::new);
+
     /**
      * stores the openHAB type class for (supported) KNX datapoint types in a generic way.
      * dptTypeMap stores more specific type class and exceptions.
@@ -572,24 +596,19 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public String toDPTValue(Type type, String dptID) {
-        DPT dpt;
-        int mainNumber = getMainNumber(dptID);
-        if (mainNumber == -1) {
-            logger.error("toDPTValue couldn't identify mainnumber in dptID: {}", dptID);
-            return null;
-        }
-        int subNumber = getSubNumber(dptID);
-        if (subNumber == -1) {
-            logger.debug("toType: couldn't identify sub number in dptID: {}.", dptID);
-            return null;
-        }
-
+        DptInfo dptInfo;
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
-            dpt = translator.getType();
+            dptInfo = getDptInfo(dptID);
         } catch (KNXException e) {
             return null;
         }
+        if (dptInfo == null) {
+            logger.error("toDPTValue couldn't identify main and sub number in dptID: {}", dptID);
+            return null;
+        }
+        DPT dpt = dptInfo.dpt;
+        int mainNumber = dptInfo.mainNumber;
+        int subNumber = dptInfo.subNumber;
 
         try {
             // check for HSBType first, because it extends PercentType as well
@@ -672,45 +691,45 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
-        try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
+        return toType(datapoint, data, true);
+    }
 
-            String id = translator.getType().getID();
+    /**
+     * Converts the telegram data of the datapoint to an openHAB type
+     *
+     * @param datapoint the datapoint
+     * @param data the telegram data
+     * @param decodeDirectly whether the most common datapoint types are decoded without a translator. Tests compare
+     *            both decodings.
+     * @return the openHAB type or {@code null} if the data could not be converted
+     */
+    Type toType(Datapoint datapoint, byte[] data, boolean decodeDirectly) {
+        try {
             logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
-
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            DptInfo dptInfo = getDptInfo(datapoint.getDPT());
+            if (dptInfo == null) {
+                logger.debug("toType: couldn't identify main and sub number in dptID: {}.", datapoint.getDPT());
                 return null;
             }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
-                return null;
+            Type fastType = decodeDirectly ? toTypeFast(dptInfo, data) : null;
+            if (fastType != null) {
+                return fastType;
             }
+
+            DPTXlator translator = getTranslator(dptInfo);
+            translator.setData(data);
+            String value = translator.getValue();
+
+            String id = dptInfo.id;
+            int mainNumber = dptInfo.mainNumber;
+            int subNumber = dptInfo.subNumber;
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
              */
             switch (mainNumber) {
                 case 1:
-                    DPTXlatorBoolean translatorBoolean = (DPTXlatorBoolean) translator;
-                    switch (subNumber) {
-                        case 8:
-                            return translatorBoolean.getValueBoolean() ? UpDownType.DOWN : UpDownType.UP;
-                        case 9:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 10:
-                            return translatorBoolean.getValueBoolean() ? StopMoveType.MOVE : StopMoveType.STOP;
-                        case 19:
-                            return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-                        case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
-                        default:
-                            return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
-                    }
+                    return toBooleanType(subNumber, ((DPTXlatorBoolean) translator).getValueBoolean());
                 case 2:
                     DPTXlator1BitControlled translator1BitControlled = (DPTXlator1BitControlled) translator;
                     int decValue = (translator1BitControlled.getControlBit() ? 2 : 0)
@@ -817,11 +836,8 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                 return null;
             }
 
-            if (typeClass.equals(PercentType.class)) {
-                return new PercentType(BigDecimal.valueOf(Math.round(translator.getNumericValue())));
-            }
-            if (typeClass.equals(DecimalType.class)) {
-                return new DecimalType(translator.getNumericValue());
+            if (typeClass.equals(PercentType.class) || typeClass.equals(DecimalType.class)) {
+                return toNumericType(typeClass, translator.getNumericValue());
             }
             if (typeClass.equals(StringType.class)) {
                 return StringType.valueOf(value);
@@ -859,6 +875,143 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Decodes the most common datapoint types directly from the telegram data, without a translator.
+     *
+     * The result is equal to the result of the translator based conversion in {@link #toType(Datapoint, byte[])},
+     * the arithmetic follows the calimero translators.
+     *
+     * @param dptInfo the datapoint type
+     * @param data the telegram data
+     * @return the openHAB type or {@code null} if the datapoint type or data is not handled here
+     */
+    private Type toTypeFast(DptInfo dptInfo, byte[] data) {
+        switch (dptInfo.mainNumber) {
+            case 1:
+                if (data.length != 1) {
+                    return null;
+                }
+                return toBooleanType(dptInfo.subNumber, (data[0] & 0x01) != 0);
+            case 5:
+                if (data.length != 1) {
+                    return null;
+                }
+                int unsigned = data[0] & 0xFF;
+                switch (dptInfo.subNumber) {
+                    case 1: // 5.001: Scaling, values: 0...100 %
+                        if (!PercentType.class.equals(toTypeClass(dptInfo.id))) {
+                            return null;
+                        }
+                        return new PercentType(BigDecimal.valueOf(Math.round(unsigned * 100.0f / 255)));
+                    case 4: // 5.004: Percent, values: 0...255 %
+                    case 5: // 5.005: Ratio, values: 0...255
+                    case 10: // 5.010: Counter pulses, values: 0...255
+                        return toNumericType(toTypeClass(dptInfo.id), unsigned);
+                    default:
+                        return null;
+                }
+            case 9:
+                if (data.length != 2) {
+                    return null;
+                }
+                int raw = (data[0] & 0xFF) << 8 | data[1] & 0xFF;
+                if (raw == 0x7FFF) {
+                    // invalid data, left for the translator
+                    return null;
+                }
+                // MEEEEMMM MMMMMMMM, with mantissa in two's complement
+                int exponent = (raw & 0x7800) >> 11;
+                int mantissa = raw & 0x07FF;
+                if ((raw & 0x8000) != 0) {
+                    mantissa |= ~0x07FF;
+                }
+                // DPTXlator2ByteFloat decodes the value to float
+                return toNumericType(toTypeClass(dptInfo.id), (float) ((1 << exponent) * mantissa * 0.01));
+            case 14:
+                if (data.length != 4) {
+                    return null;
+                }
+                float value = Float.intBitsToFloat((data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16
+                        | (data[2] & 0xFF) << 8 | data[3] & 0xFF);
+                if (Float.isNaN(value) || Float.isInfinite(value)) {
+                    return null;
+                }
+                return toNumericType(toTypeClass(dptInfo.id), value);
+            default:
+                return null;
+        }
+    }
+
+    private Type toBooleanType(int subNumber, boolean value) {
+        switch (subNumber) {
+            case 8:
+                return value ? UpDownType.DOWN : UpDownType.UP;
+            case 9:
+                return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case 10:
+                return value ? StopMoveType.MOVE : StopMoveType.STOP;
+            case 19:
+                return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case 22:
+                return DecimalType.valueOf(value ? "1" : "0");
+            default:
+                return value ? OnOffType.ON : OnOffType.OFF;
+        }
+    }
+
+    private Type toNumericType(Class<? extends Type> typeClass, double value) {
+        if (PercentType.class.equals(typeClass)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value)));
+        }
+        if (DecimalType.class.equals(typeClass)) {
+            return new DecimalType(value);
+        }
+        return null;
+    }
+
+    /**
+     * Get the parsed datapoint type id
+     *
+     * @param dptID the datapoint type id
+     * @return the parsed datapoint type id or {@code null} if the main or sub number could not be identified
+     * @throws KNXException if there is no translator for the datapoint type id
+     */
+    private DptInfo getDptInfo(String dptID) throws KNXException {
+        DptInfo dptInfo = DPT_INFO_CACHE.get(dptID);
+        if (dptInfo == null) {
+            int mainNumber = getMainNumber(dptID);
+            if (mainNumber == -1) {
+                return null;
+            }
+            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+            DPT dpt = translator.getType();
+            // the translator knows the canonical form of the id
+            String id = dpt.getID();
+            mainNumber = getMainNumber(id);
+            int subNumber = getSubNumber(id);
+            if (mainNumber == -1 || subNumber == -1) {
+                return null;
+            }
+            dptInfo = new DptInfo(id, mainNumber, subNumber, dpt);
+            DPT_INFO_CACHE.put(dptID, dptInfo);
+            TRANSLATOR_CACHE.get().put(id, translator);
+        }
+        return dptInfo;
+    }
+
+    /**
+     * Get a translator for the datapoint type, reused within the calling thread
+     */
+    private DPTXlator getTranslator(DptInfo dptInfo) throws KNXException {
+        Map<String, DPTXlator> translators = TRANSLATOR_CACHE.get();
+        DPTXlator translator = translators.get(dptInfo.id);
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(dptInfo.mainNumber, dptInfo.id);
+            translators.put(dptInfo.id, translator);
+        }
+        return translator;
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -32,6 +34,16 @@ public interface GroupAddressListener extends BusMessageListener {
      *
      * @param destination
      */
-    public boolean listensTo(GroupAddress destination);
+    public default boolean listensTo(GroupAddress destination) {
+        return getGroupAddresses().contains(destination);
+    }
+
+    /**
+     * Get all GroupAddresses the GroupAddressListener has an interest in
+     *
+     * The client indexes the listeners by these addresses when the listener is registered. The listener needs to be
+     * registered again for changes to take effect.
+     */
+    public Set<GroupAddress> getGroupAddresses();
 
 }
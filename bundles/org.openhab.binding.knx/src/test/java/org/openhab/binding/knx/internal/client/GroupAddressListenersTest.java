@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class GroupAddressListenersTest {
+
+    private static class TestListener implements GroupAddressListener {
+        private final Set<GroupAddress> addresses = new HashSet<>();
+
+        TestListener(GroupAddress... addresses) {
+            this.addresses.addAll(Arrays.asList(addresses));
+        }
+
+        @Override
+        public Set<GroupAddress> getGroupAddresses() {
+            return addresses;
+        }
+
+        @Override
+        public void onGroupWrite(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupReadResponse(AbstractKNXClient client, IndividualAddress source,
+                GroupAddress destination, byte[] asdu) {
+        }
+
+        @Override
+        public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination,
+                byte[] asdu) {
+        }
+    }
+
+    private final GroupAddress ga1 = new GroupAddress(1, 2, 3);
+    private final GroupAddress ga2 = new GroupAddress(1, 2, 4);
+    private final GroupAddress ga3 = new GroupAddress(1, 2, 5);
+
+    @Test
+    public void testListenersIndexedByAddress() {
+        GroupAddressListeners listeners = new GroupAddressListeners();
+        TestListener listener1 = new TestListener(ga1, ga2);
+        TestListener listener2 = new TestListener(ga2);
+
+        assertTrue(listeners.register(listener1));
+        assertTrue(listeners.register(listener2));
+
+        assertEquals(new HashSet<>(Arrays.asList(listener1)), listeners.getListeners(ga1));
+        assertEquals(new HashSet<>(Arrays.asList(listener1, listener2)), listeners.getListeners(ga2));
+        assertTrue(listeners.getListeners(ga3).isEmpty());
+        assertEquals(2, listeners.size());
+    }
+
+    @Test
+    public void testReregisterUpdatesAddresses() {
+        GroupAddressListeners listeners = new GroupAddressListeners();
+        TestListener listener = new TestListener(ga1);
+        assertTrue(listeners.register(listener));
+
+        listener.addresses.clear();
+        listener.addresses.add(ga3);
+        assertFalse(listeners.register(listener));
+
+        assertTrue(listeners.getListeners(ga1).isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(listener)), listeners.getListeners(ga3));
+        assertEquals(1, listeners.size());
+    }
+
+    @Test
+    public void testUnregister() {
+        GroupAddressListeners listeners = new GroupAddressListeners();
+        TestListener listener1 = new TestListener(ga1);
+        TestListener listener2 = new TestListener(ga1);
+        listeners.register(listener1);
+        listeners.register(listener2);
+        Set<GroupAddressListener> snapshot = listeners.getListeners(ga1);
+
+        assertTrue(listeners.unregister(listener1));
+        assertFalse(listeners.unregister(listener1));
+
+        assertEquals(new HashSet<>(Arrays.asList(listener2)), listeners.getListeners(ga1));
+        // earlier snapshots are not affected
+        assertEquals(2, snapshot.size());
+
+        listeners.unregister(listener2);
+        assertEquals(0, listeners.size());
+    }
+}
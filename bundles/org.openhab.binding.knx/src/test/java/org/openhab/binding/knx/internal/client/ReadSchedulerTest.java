@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.binding.knx.internal.client.ReadDatapoint.ReadPriority;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ReadSchedulerTest {
+
+    private long now;
+    private final List<GroupAddress> sent = new ArrayList<>();
+
+    private ReadScheduler scheduler(int maxOutstandingReads) {
+        return new ReadScheduler("test", maxOutstandingReads, 1000, () -> now);
+    }
+
+    private static ReadDatapoint datapoint(int subGroup, ReadPriority priority) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 1, subGroup), "test", 0, "1.001"), 2, priority);
+    }
+
+    private void tick(ReadScheduler scheduler) {
+        scheduler.tick(datapoint -> sent.add(datapoint.getMainAddress()));
+    }
+
+    @Test
+    public void testReadOrderedByPriority() {
+        ReadScheduler scheduler = scheduler(10);
+        scheduler.add(datapoint(1, ReadPriority.LOW));
+        scheduler.add(datapoint(2, ReadPriority.HIGH));
+        scheduler.add(datapoint(3, ReadPriority.NORMAL));
+        scheduler.add(datapoint(4, ReadPriority.HIGH));
+        for (int i = 0; i < 4; i++) {
+            tick(scheduler);
+            scheduler.onValueReceived(sent.get(i));
+        }
+        assertEquals(Arrays.asList(new GroupAddress(1, 1, 2), new GroupAddress(1, 1, 4), new GroupAddress(1, 1, 3),
+                new GroupAddress(1, 1, 1)), sent);
+    }
+
+    @Test
+    public void testDuplicatesIgnored() {
+        ReadScheduler scheduler = scheduler(10);
+        assertTrue(scheduler.add(datapoint(1, ReadPriority.NORMAL)));
+        assertFalse(scheduler.add(datapoint(1, ReadPriority.HIGH)));
+        tick(scheduler);
+        // still waiting for the response
+        assertFalse(scheduler.add(datapoint(1, ReadPriority.NORMAL)));
+        scheduler.onValueReceived(new GroupAddress(1, 1, 1));
+        assertTrue(scheduler.add(datapoint(1, ReadPriority.NORMAL)));
+    }
+
+    @Test
+    public void testWindowGrowsWithResponses() {
+        ReadScheduler scheduler = scheduler(3);
+        for (int i = 1; i <= 10; i++) {
+            scheduler.add(datapoint(i, ReadPriority.NORMAL));
+        }
+        tick(scheduler);
+        tick(scheduler);
+        // window starts with one outstanding read
+        assertEquals(1, sent.size());
+
+        scheduler.onValueReceived(sent.get(0));
+        tick(scheduler);
+        tick(scheduler);
+        tick(scheduler);
+        assertEquals(3, sent.size());
+        assertEquals(2, scheduler.getOutstandingCount());
+
+        scheduler.onValueReceived(sent.get(1));
+        scheduler.onValueReceived(sent.get(2));
+        tick(scheduler);
+        tick(scheduler);
+        tick(scheduler);
+        tick(scheduler);
+        // limited by the maximum
+        assertEquals(3, scheduler.getOutstandingCount());
+    }
+
+    @Test
+    public void testTimeoutRetriesAndShrinksWindow() {
+        ReadScheduler scheduler = scheduler(2);
+        scheduler.add(datapoint(1, ReadPriority.NORMAL));
+        scheduler.add(datapoint(2, ReadPriority.NORMAL));
+        tick(scheduler);
+        scheduler.onValueReceived(sent.get(0));
+        tick(scheduler);
+        assertEquals(1, scheduler.getOutstandingCount());
+
+        now += 1000;
+        tick(scheduler);
+        // retried after the timeout
+        assertEquals(Arrays.asList(new GroupAddress(1, 1, 1), new GroupAddress(1, 1, 2), new GroupAddress(1, 1, 2)),
+                sent);
+
+        now += 1000;
+        tick(scheduler);
+        // retry limit reached
+        assertEquals(3, sent.size());
+        assertEquals(0, scheduler.getOutstandingCount());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testValueReceivedSkipsRead() {
+        ReadScheduler scheduler = scheduler(1);
+        scheduler.add(datapoint(1, ReadPriority.NORMAL));
+        scheduler.add(datapoint(2, ReadPriority.NORMAL));
+        scheduler.onValueReceived(new GroupAddress(1, 1, 1));
+        tick(scheduler);
+        tick(scheduler);
+        assertEquals(Arrays.asList(new GroupAddress(1, 1, 2)), sent);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void testSendFailureRetried() {
+        ReadScheduler scheduler = scheduler(1);
+        scheduler.add(datapoint(1, ReadPriority.NORMAL));
+        scheduler.tick(datapoint -> {
+            throw new KNXException("fail");
+        });
+        assertEquals(0, scheduler.getOutstandingCount());
+        assertEquals(1, scheduler.getPendingCount());
+        tick(scheduler);
+        assertEquals(Arrays.asList(new GroupAddress(1, 1, 1)), sent);
+    }
+}
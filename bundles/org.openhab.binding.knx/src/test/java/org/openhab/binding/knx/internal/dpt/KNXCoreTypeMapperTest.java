@@ -12,11 +12,22 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -30,4 +41,117 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_switch() {
+        assertEquals(OnOffType.ON, toType("1.001", 0x01));
+        assertEquals(OnOffType.OFF, toType("1.001", 0x00));
+        assertEquals(UpDownType.DOWN, toType("1.008", 0x01));
+    }
+
+    @Test
+    public void testToType_scaling() {
+        assertEquals(new PercentType(100), toType("5.001", 0xFF));
+        assertEquals(new PercentType(50), toType("5.001", 0x80));
+        assertEquals(new PercentType(0), toType("5.001", 0x00));
+    }
+
+    @Test
+    public void testToType_2ByteFloat() {
+        assertEquals(21.0, ((DecimalType) toType("9.001", 0x0C, 0x1A)).doubleValue(), 0.001);
+        assertEquals(-7.68, ((DecimalType) toType("9.001", 0x85, 0x00)).doubleValue(), 0.001);
+        assertEquals(0.0, ((DecimalType) toType("9.001", 0x00, 0x00)).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testToType_4ByteFloat() {
+        assertEquals(1.5, ((DecimalType) toType("14.056", 0x3F, 0xC0, 0x00, 0x00)).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testToType_cachedTranslatorReused() {
+        // String types are not decoded by the fast path, the cached translator must handle varying data
+        assertEquals("A", toType("16.000", 0x41, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0).toString());
+        assertEquals("B", toType("16.000", 0x42, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0).toString());
+    }
+
+    @Test
+    public void testToType_unknownDpt() {
+        assertNull(toType("foo", 0x00));
+    }
+
+    @Test
+    public void testToType_directDecodingEqualsTranslator_boolean() {
+        for (String dpt : new String[] { "1.001", "1.008", "1.009", "1.010", "1.019" }) {
+            for (int value = 0; value <= 1; value++) {
+                assertDecodingEqualsTranslator(dpt, new byte[] { (byte) value });
+            }
+        }
+    }
+
+    @Test
+    public void testToType_directDecodingEqualsTranslator_8BitUnsigned() {
+        for (String dpt : new String[] { "5.001", "5.004", "5.005", "5.010" }) {
+            for (int value = 0; value <= 0xFF; value++) {
+                assertDecodingEqualsTranslator(dpt, new byte[] { (byte) value });
+            }
+        }
+    }
+
+    @Test
+    public void testToType_directDecodingEqualsTranslator_2ByteFloat() {
+        for (String dpt : new String[] { "9.001", "9.004", "9.007" }) {
+            for (int value = 0; value <= 0xFFFF; value++) {
+                assertDecodingEqualsTranslator(dpt, new byte[] { (byte) (value >> 8), (byte) value });
+            }
+        }
+    }
+
+    @Test
+    public void testToType_directDecodingEqualsTranslator_4ByteFloat() {
+        Random random = new Random(0);
+        for (String dpt : new String[] { "14.019", "14.056" }) {
+            for (float value : new float[] { 0, 1.5f, -1.5f, 3.14159e20f, 1e-3f, 123456.78f, Float.MAX_VALUE,
+                    Float.MIN_VALUE }) {
+                assertDecodingEqualsTranslator(dpt, toBytes(Float.floatToIntBits(value)));
+            }
+            for (int i = 0; i < 10_000; i++) {
+                assertDecodingEqualsTranslator(dpt, toBytes(random.nextInt()));
+            }
+        }
+    }
+
+    private static byte[] toBytes(int bits) {
+        return new byte[] { (byte) (bits >> 24), (byte) (bits >> 16), (byte) (bits >> 8), (byte) bits };
+    }
+
+    private static void assertDecodingEqualsTranslator(String dpt, byte[] data) {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        Datapoint datapoint = new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dpt);
+        Object expected = decode(mapper, datapoint, data, false);
+        Object actual = decode(mapper, datapoint, data, true);
+        assertEquals(String.format("DPT %s, data %s", dpt, Arrays.toString(data)), expected, actual);
+        if (expected != null) {
+            // equal types might still differ in scale
+            assertEquals(expected.toString(), actual.toString());
+        }
+    }
+
+    private static Object decode(KNXCoreTypeMapper mapper, Datapoint datapoint, byte[] data,
+            boolean decodeDirectly) {
+        try {
+            return mapper.toType(datapoint, data, decodeDirectly);
+        } catch (IllegalArgumentException e) {
+            // e.g. value out of the range of PercentType
+            return e.getClass();
+        }
+    }
+
+    private static Type toType(String dpt, int... data) {
+        byte[] bytes = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            bytes[i] = (byte) data[i];
+        }
+        return new KNXCoreTypeMapper().toType(new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dpt), bytes);
+    }
+
 }
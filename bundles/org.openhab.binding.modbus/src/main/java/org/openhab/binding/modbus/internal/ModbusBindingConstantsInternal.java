@@ -48,6 +48,14 @@ public class ModbusBindingConstantsInternal {
     public static final String CHANNEL_LAST_READ_ERROR = "lastReadError";
     public static final String CHANNEL_LAST_WRITE_SUCCESS = "lastWriteSuccess";
     public static final String CHANNEL_LAST_WRITE_ERROR = "lastWriteError";
+    public static final String CHANNEL_STATISTICS_BORROW_WAIT = "statisticsBorrowWait";
+    public static final String CHANNEL_STATISTICS_CONNECT_TIME = "statisticsConnectTime";
+    public static final String CHANNEL_STATISTICS_TRANSACTION_TIME = "statisticsTransactionTime";
+    public static final String CHANNEL_STATISTICS_TRANSACTION_TIME_95 = "statisticsTransactionTime95";
+    public static final String CHANNEL_STATISTICS_CALLBACK_TIME = "statisticsCallbackTime";
+    public static final String CHANNEL_STATISTICS_RETRIES = "statisticsRetries";
+    public static final String CHANNEL_STATISTICS_TIMEOUTS = "statisticsTimeouts";
+    public static final String CHANNEL_STATISTICS_UNEXPECTED_TRANSACTION_IDS = "statisticsUnexpectedTransactionIds";
 
     public static final String[] DATA_CHANNELS = { CHANNEL_SWITCH, CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER,
             CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
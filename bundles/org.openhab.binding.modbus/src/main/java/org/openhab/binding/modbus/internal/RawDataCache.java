@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Raw data of the previous poll, used to detect whether the polled data has changed without decoding it
+ *
+ * Only the registers (or the bit) that the value is decoded from are compared. The class is not thread-safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RawDataCache {
+
+    private static final int NO_BIT = -1;
+
+    private int[] registers = new int[0];
+    private int registerCount;
+    private int bit = NO_BIT;
+    private boolean valid;
+
+    /**
+     * Compare registers with the registers of the previous poll, and remember them for the next comparison
+     *
+     * @param data polled registers
+     * @param firstRegister index of the first register to compare
+     * @param count number of registers to compare
+     * @return whether the registers have changed since previous poll. Registers out of bounds are considered changed.
+     */
+    public boolean updateRegisters(ModbusRegisterArray data, int firstRegister, int count) {
+        if (firstRegister < 0 || count <= 0 || firstRegister + count > data.size()) {
+            invalidate();
+            return true;
+        }
+        boolean changed = !valid || bit != NO_BIT || registerCount != count;
+        if (registers.length < count) {
+            registers = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            int value = data.getRegister(firstRegister + i).toUnsignedShort();
+            if (registers[i] != value) {
+                registers[i] = value;
+                changed = true;
+            }
+        }
+        registerCount = count;
+        bit = NO_BIT;
+        valid = true;
+        return changed;
+    }
+
+    /**
+     * Compare bit with the bit of the previous poll, and remember it for the next comparison
+     *
+     * @param data polled bits
+     * @param index index of the bit to compare
+     * @return whether the bit has changed since previous poll. Bit out of bounds is considered changed.
+     */
+    public boolean updateBit(BitArray data, int index) {
+        if (index < 0 || index >= data.size()) {
+            invalidate();
+            return true;
+        }
+        int value = data.getBit(index) ? 1 : 0;
+        boolean changed = !valid || bit != value;
+        bit = value;
+        registerCount = 0;
+        valid = true;
+        return changed;
+    }
+
+    /**
+     * Forget the previous poll, next update is considered as changed
+     */
+    public void invalidate() {
+        valid = false;
+    }
+}
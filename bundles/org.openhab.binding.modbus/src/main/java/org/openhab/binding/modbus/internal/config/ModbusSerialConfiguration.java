@@ -44,6 +44,8 @@ public class ModbusSerialConfiguration {
     private int connectMaxTries;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int readMergeGapTolerance = -1;
+    private int statisticsRefreshMillis;
 
     public @Nullable String getPort() {
         return port;
@@ -164,4 +166,21 @@ public class ModbusSerialConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public int getReadMergeGapTolerance() {
+        return readMergeGapTolerance;
+    }
+
+    public void setReadMergeGapTolerance(int readMergeGapTolerance) {
+        this.readMergeGapTolerance = readMergeGapTolerance;
+    }
+
+    public int getStatisticsRefreshMillis() {
+        return statisticsRefreshMillis;
+    }
+
+    public void setStatisticsRefreshMillis(int statisticsRefreshMillis) {
+        this.statisticsRefreshMillis = statisticsRefreshMillis;
+    }
+
 }
@@ -33,6 +33,9 @@ public class ModbusTcpConfiguration {
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
     private boolean enableDiscovery;
+    private int readMergeGapTolerance = -1;
+    private int statisticsRefreshMillis;
+    private int maxPipelinedTransactions = 1;
 
     public @Nullable String getHost() {
         return host;
@@ -106,4 +109,28 @@ public class ModbusTcpConfiguration {
         this.enableDiscovery = enableDiscovery;
     }
 
+    public int getReadMergeGapTolerance() {
+        return readMergeGapTolerance;
+    }
+
+    public void setReadMergeGapTolerance(int readMergeGapTolerance) {
+        this.readMergeGapTolerance = readMergeGapTolerance;
+    }
+
+    public int getMaxPipelinedTransactions() {
+        return maxPipelinedTransactions;
+    }
+
+    public void setMaxPipelinedTransactions(int maxPipelinedTransactions) {
+        this.maxPipelinedTransactions = maxPipelinedTransactions;
+    }
+
+    public int getStatisticsRefreshMillis() {
+        return statisticsRefreshMillis;
+    }
+
+    public void setStatisticsRefreshMillis(int statisticsRefreshMillis) {
+        this.statisticsRefreshMillis = statisticsRefreshMillis;
+    }
+
 }
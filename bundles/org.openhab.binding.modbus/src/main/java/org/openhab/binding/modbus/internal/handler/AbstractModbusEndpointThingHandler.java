@@ -12,10 +12,15 @@
  */
 package org.openhab.binding.modbus.internal.handler;
 
+import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -24,6 +29,7 @@ import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -50,6 +56,8 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected Supplier<ModbusManager> managerRef;
     @Nullable
     protected volatile EndpointPoolConfiguration poolConfiguration;
+    @Nullable
+    private volatile ScheduledFuture<?> statisticsFuture;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, Supplier<ModbusManager> managerRef) {
@@ -80,6 +88,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 managerRef.get().addListener(this);
                 managerRef.get().setEndpointPoolConfiguration(endpoint, poolConfiguration);
                 updateStatus(ThingStatus.ONLINE);
+                startStatisticsRefresh();
             } catch (ModbusConfigurationException e) {
                 logger.debug("Exception during initialization", e);
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, String.format(
@@ -92,9 +101,49 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        stopStatisticsRefresh();
         managerRef.get().removeListener(this);
     }
 
+    private void startStatisticsRefresh() {
+        stopStatisticsRefresh();
+        long refreshMillis = getStatisticsRefreshMillis();
+        if (refreshMillis > 0) {
+            statisticsFuture = scheduler.scheduleWithFixedDelay(this::updateStatistics, refreshMillis, refreshMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void stopStatisticsRefresh() {
+        ScheduledFuture<?> statisticsFuture = this.statisticsFuture;
+        if (statisticsFuture != null) {
+            statisticsFuture.cancel(false);
+            this.statisticsFuture = null;
+        }
+    }
+
+    /**
+     * Update statistics channels with the statistics of the endpoint
+     */
+    protected void updateStatistics() {
+        E endpoint = this.endpoint;
+        if (endpoint == null) {
+            return;
+        }
+        ModbusEndpointStatistics statistics = managerRef.get().getEndpointStatistics(endpoint);
+        logger.debug("Statistics of {}: {}", getThing().getUID(), statistics);
+        updateState(CHANNEL_STATISTICS_BORROW_WAIT, new DecimalType(statistics.getBorrowWait().getMean()));
+        updateState(CHANNEL_STATISTICS_CONNECT_TIME, new DecimalType(statistics.getConnectTime().getMean()));
+        updateState(CHANNEL_STATISTICS_TRANSACTION_TIME, new DecimalType(statistics.getTransactionTime().getMean()));
+        updateState(CHANNEL_STATISTICS_TRANSACTION_TIME_95,
+                new DecimalType(statistics.getTransactionTime().getPercentile(95)));
+        updateState(CHANNEL_STATISTICS_CALLBACK_TIME, new DecimalType(statistics.getCallbackTime().getMean()));
+        updateState(CHANNEL_STATISTICS_RETRIES, new DecimalType(statistics.getRetries().getSum()));
+        updateState(CHANNEL_STATISTICS_TIMEOUTS, new DecimalType(statistics.getTimeouts()));
+        updateState(CHANNEL_STATISTICS_UNEXPECTED_TRANSACTION_IDS,
+                new DecimalType(statistics.getUnexpectedTransactionIds()));
+    }
+
     @Override
     public @Nullable ModbusSlaveEndpoint asSlaveEndpoint() {
         return endpoint;
@@ -124,6 +173,13 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     @Override
     public abstract int getSlaveId();
 
+    /**
+     * Get interval for updating the statistics channels
+     *
+     * @return interval in milliseconds, or zero to disable the statistics channels
+     */
+    protected abstract long getStatisticsRefreshMillis();
+
     /**
      * Must be overriden by subclasses to initialize config, endpoint, and poolConfiguration
      */
@@ -58,6 +58,7 @@ import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.RawDataCache;
 import org.openhab.binding.modbus.internal.Transformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
 import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
@@ -94,6 +95,9 @@ import org.slf4j.LoggerFactory;
  * synchronized
  * to avoid data race conditions.
  *
+ * Polled data is decoded and transformed only when the raw data (the registers or the bit the value is read from) has
+ * changed since the previous poll. Otherwise the channel states of the previous poll are reused.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @NonNullByDefault
@@ -150,6 +154,7 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    private final RawDataCache rawDataCache = new RawDataCache();
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -419,6 +424,14 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        rawDataCache.invalidate();
+    }
+
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        // States are cached only for the channels linked at the time of decoding
+        rawDataCache.invalidate();
+        super.channelLinked(channelUID);
     }
 
     @Override
@@ -683,6 +696,13 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+        if (!rawDataCache.updateRegisters(registers, readIndex.get() - pollStart,
+                Math.max(1, readValueType.getBits() / 16))) {
+            Map<ChannelUID, State> values = processUnchangedValue();
+            logger.trace("Thing {} registers unchanged, channels updated: {}. Registers {} for request {}",
+                    thing.getUID(), values, registers, request);
+            return;
+        }
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
@@ -700,6 +720,12 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         } else if (!isReadEnabled) {
             return;
         }
+        if (!rawDataCache.updateBit(bits, readIndex.get() - pollStart)) {
+            Map<ChannelUID, State> values = processUnchangedValue();
+            logger.trace("Thing {} bit unchanged, channels updated: {}. Bits {} for request {}", thing.getUID(), values,
+                    bits, request);
+            return;
+        }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
         Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
@@ -866,6 +892,21 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         return states;
     }
 
+    /**
+     * Update linked channels with the states of the previous poll, when the polled data has not changed
+     *
+     * @return updated channel data
+     */
+    private Map<ChannelUID, State> processUnchangedValue() {
+        Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>(channelLastState);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            states.put(lastReadSuccessUID, new DateTimeType());
+        }
+        updateExpiredChannels(states);
+        return states;
+    }
+
     private void updateExpiredChannels(Map<ChannelUID, State> states) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
@@ -65,6 +65,7 @@ public class ModbusSerialThingHandler
         poolConfiguration.setConnectMaxTries(config.getConnectMaxTries());
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
+        poolConfiguration.setReadMergeGapTolerance(config.getReadMergeGapTolerance());
 
         // Never reconnect serial connections "automatically"
         poolConfiguration.setInterConnectDelayMillis(1000);
@@ -94,6 +95,12 @@ public class ModbusSerialThingHandler
                 Optional.ofNullable(this.endpoint).map(e -> e.getPortName()).orElse("<null>"));
     }
 
+    @Override
+    protected long getStatisticsRefreshMillis() {
+        ModbusSerialConfiguration config = this.config;
+        return config == null ? 0 : config.getStatisticsRefreshMillis();
+    }
+
     @Override
     public int getSlaveId() {
         ModbusSerialConfiguration config = this.config;
@@ -61,6 +61,8 @@ public class ModbusTcpThingHandler
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
+        poolConfiguration.setReadMergeGapTolerance(config.getReadMergeGapTolerance());
+        poolConfiguration.setMaxPipelinedTransactions(config.getMaxPipelinedTransactions());
     }
 
     @Override
@@ -72,6 +74,12 @@ public class ModbusTcpThingHandler
                 Optional.ofNullable(this.endpoint).map(e -> String.valueOf(e.getPort())).orElse("<null>"));
     }
 
+    @Override
+    protected long getStatisticsRefreshMillis() {
+        ModbusTcpConfiguration config = this.config;
+        return config == null ? 0 : config.getStatisticsRefreshMillis();
+    }
+
     @Override
     public int getSlaveId() {
         if (config == null) {
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class RawDataCacheTest {
+
+    private final RawDataCache cache = new RawDataCache();
+
+    @Test
+    public void testRegistersChanged() {
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 2, 3, 4), 1, 2), is(true));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 2, 3, 4), 1, 2), is(false));
+        // Registers outside the slice are ignored
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(9, 2, 3, 9), 1, 2), is(false));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(9, 2, 5, 9), 1, 2), is(true));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(9, 2, 5, 9), 1, 2), is(false));
+    }
+
+    @Test
+    public void testSliceChanged() {
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 1, 1), 0, 1), is(true));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 1, 1), 1, 1), is(false));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 1, 1), 1, 2), is(true));
+    }
+
+    @Test
+    public void testOutOfBoundsIsChanged() {
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 2), 1, 2), is(true));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1, 2), 1, 2), is(true));
+        assertThat(cache.updateBit(new BasicBitArray(true), 1), is(true));
+        assertThat(cache.updateBit(new BasicBitArray(true), 1), is(true));
+    }
+
+    @Test
+    public void testBitChanged() {
+        assertThat(cache.updateBit(new BasicBitArray(false, true), 1), is(true));
+        assertThat(cache.updateBit(new BasicBitArray(true, true), 1), is(false));
+        assertThat(cache.updateBit(new BasicBitArray(true, false), 1), is(true));
+    }
+
+    @Test
+    public void testInvalidate() {
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1), 0, 1), is(true));
+        cache.invalidate();
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1), 0, 1), is(true));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1), 0, 1), is(false));
+        // Switching from registers to bits is always a change
+        assertThat(cache.updateBit(new BasicBitArray(true), 0), is(true));
+        assertThat(cache.updateRegisters(new BasicModbusRegisterArray(1), 0, 1), is(true));
+    }
+}
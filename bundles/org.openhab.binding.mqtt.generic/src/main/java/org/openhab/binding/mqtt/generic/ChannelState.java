@@ -20,6 +20,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -43,6 +44,23 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class ChannelState implements MqttMessageSubscriber {
+    /**
+     * The most recently decoded payload. All channels subscribed to a topic receive the same payload array. Decoding it
+     * only once hands the same string instance to the transformations of every channel, which allows transformation
+     * services to reuse what they parsed for the first channel (JSONPATH caches parsed documents by source identity).
+     */
+    private static final AtomicReference<@Nullable DecodedPayload> LAST_DECODED_PAYLOAD = new AtomicReference<>();
+
+    private static class DecodedPayload {
+        final byte[] payload;
+        final String value;
+
+        DecodedPayload(byte[] payload, String value) {
+            this.payload = payload;
+            this.value = value;
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ChannelState.class);
 
     // Immutable channel configuration
@@ -131,6 +149,22 @@ public class ChannelState implements MqttMessageSubscriber {
         return channelUID;
     }
 
+    /**
+     * Decode the UTF8 payload, returning the same string instance for repeated calls with the same payload instance
+     *
+     * @param payload The byte payload
+     * @return decoded payload
+     */
+    static String decodePayload(byte[] payload) {
+        DecodedPayload decoded = LAST_DECODED_PAYLOAD.get();
+        if (decoded != null && decoded.payload == payload) {
+            return decoded.value;
+        }
+        String value = new String(payload, StandardCharsets.UTF_8);
+        LAST_DECODED_PAYLOAD.set(new DecodedPayload(payload, value));
+        return value;
+    }
+
     /**
      * Incoming message from the MqttBrokerConnection
      *
@@ -153,7 +187,7 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
+        String strValue = decodePayload(payload);
         for (ChannelStateTransformation t : transformationsIn) {
             String transformedValue = t.processValue(strValue);
             if (transformedValue != null) {
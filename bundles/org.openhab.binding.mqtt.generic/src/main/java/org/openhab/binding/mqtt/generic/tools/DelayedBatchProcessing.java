@@ -13,12 +13,19 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -27,32 +34,93 @@ import org.eclipse.jdt.annotation.Nullable;
  * Collects objects over time until a specified delay passed by.
  * Then call the user back with a list of accumulated objects and start over again.
  *
+ * Objects are collected in a lock-free queue, any number of threads may add objects concurrently.
+ *
+ * Optionally objects are coalesced by a key: if an object with the same key is already waiting for the batch, it is
+ * replaced by the new object, keeping its position in the batch. Only the latest object per key (e.g. per MQTT
+ * topic) is delivered.
+ *
+ * The number of waiting objects can be limited. When the limit is reached, either the new object or the oldest
+ * waiting object is dropped, according to the {@link DropPolicy}. The limit is strict, also with concurrent producers.
+ *
  * @author David Graeff - Initial contribution
  *
  * @param <T> Any object
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
+
+    /**
+     * Capacity of a batch processing without limit
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * What to drop when an object is added to a full batch processing
+     */
+    public enum DropPolicy {
+        /** Drop the added object */
+        DROP_NEWEST,
+        /** Drop the oldest waiting object to make room for the added object */
+        DROP_OLDEST
+    }
+
     private final int delay;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
     private final ScheduledExecutorService executor;
-    protected @Nullable ScheduledFuture<?> future;
+    private final int capacity;
+    private final DropPolicy dropPolicy;
+    private final @Nullable Function<T, ?> keyFunction;
+
+    /** Waiting objects, or the keys of the waiting objects when coalescing */
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    /** Latest object per key, when coalescing */
+    private final Map<Object, T> latestByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    protected volatile @Nullable ScheduledFuture<?> future;
 
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} without capacity limit and without coalescing.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, consumer, executor, UNBOUNDED, DropPolicy.DROP_NEWEST, null);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     * @param capacity Maximum number of waiting objects, or {@link #UNBOUNDED}
+     * @param dropPolicy What to drop when the capacity is reached
+     * @param keyFunction Function returning the coalescing key of an object, or null to deliver all objects
+     */
+    public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor,
+            int capacity, DropPolicy dropPolicy, @Nullable Function<T, ?> keyFunction) {
         this.delay = delay;
         this.consumer = consumer;
         this.executor = executor;
+        this.capacity = capacity;
+        this.dropPolicy = dropPolicy;
+        this.keyFunction = keyFunction;
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity need to be greater than 0!");
+        }
     }
 
     /**
@@ -63,31 +131,139 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     @Override
     public void accept(T t) {
-        queue.add(t);
-        final ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture == null || scheduledFuture.isDone()) {
-            this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+        acceptedCount.incrementAndGet();
+        if (enqueue(t)) {
+            // Only the thread winning the flag schedules, the flag is cleared when the batch is taken
+            if (scheduled.compareAndSet(false, true)) {
+                this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+            }
         }
     }
 
     /**
-     * Return the so far accumulated objects, but do not deliver them to the target consumer anymore.
+     * Add the object to the queue
      *
-     * @return A list of accumulated objects
+     * @return true if a new object or key was queued
      */
-    public List<T> join() {
-        ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture != null && !scheduledFuture.isDone()) {
-            scheduledFuture.cancel(false);
+    private boolean enqueue(T t) {
+        Function<T, ?> keyFunction = this.keyFunction;
+        Object key = keyFunction == null ? null : keyFunction.apply(t);
+        if (key == null) {
+            if (!reserveSlot()) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            queue.offer(t);
+            return true;
+        }
+
+        boolean reserved = false;
+        while (true) {
+            if (latestByKey.replace(key, t) != null) {
+                // An object with the same key is waiting, it is replaced and keeps its position
+                if (reserved) {
+                    size.decrementAndGet();
+                }
+                coalescedCount.incrementAndGet();
+                return false;
+            }
+            if (!reserved) {
+                if (!reserveSlot()) {
+                    droppedCount.incrementAndGet();
+                    return false;
+                }
+                reserved = true;
+                // The key might have been queued by another thread meanwhile, check again
+                continue;
+            }
+            if (latestByKey.putIfAbsent(key, t) == null) {
+                queue.offer(key);
+                return true;
+            }
         }
+    }
+
+    /**
+     * Reserve room for one object, dropping the oldest object if the policy allows. The number of waiting objects
+     * never exceeds the capacity: the slot of a dropped object is handed over to the new object without being
+     * released in between.
+     *
+     * @return false if the new object should be dropped
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            } else if (dropPolicy == DropPolicy.DROP_NEWEST) {
+                return false;
+            } else if (poll() != null) {
+                // The oldest object was dropped, its slot is reused by the new object
+                droppedCount.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take the oldest object from the queue and release its slot
+     *
+     * @return the object or null if the queue is empty
+     */
+    private @Nullable T take() {
+        T item = poll();
+        if (item != null) {
+            size.decrementAndGet();
+        }
+        return item;
+    }
+
+    /**
+     * Remove the oldest object from the queue, keeping its slot reserved
+     *
+     * @return the object or null if the queue is empty
+     */
+    private @Nullable T poll() {
+        while (true) {
+            Object head = queue.poll();
+            if (head == null) {
+                return null;
+            }
+            if (keyFunction == null) {
+                @SuppressWarnings("unchecked")
+                T item = (T) head;
+                return item;
+            }
+            T item = latestByKey.remove(head);
+            if (item != null) {
+                return item;
+            }
+            // A key without object does not hold a slot for a new object
+            size.decrementAndGet();
+        }
+    }
+
+    private List<T> takeAll() {
         List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+        T item;
+        while ((item = take()) != null) {
+            lqueue.add(item);
         }
         return lqueue;
     }
 
+    /**
+     * Return the so far accumulated objects, but do not deliver them to the target consumer anymore.
+     *
+     * @return A list of accumulated objects
+     */
+    public List<T> join() {
+        cancel();
+        return takeAll();
+    }
+
     /**
      * Return true if there is a delayed processing going on.
      */
@@ -100,22 +276,61 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * Deliver queued items now to the target consumer.
      */
     public void forceProcessNow() {
+        cancel();
+        run();
+    }
+
+    private void cancel() {
         ScheduledFuture<?> scheduledFuture = this.future;
         if (scheduledFuture != null && !scheduledFuture.isDone()) {
             scheduledFuture.cancel(false);
         }
-        run();
+        scheduled.set(false);
     }
 
     private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
+        // Clear the flag before taking the batch: objects added from now on arm a new delay
+        scheduled.set(false);
+        List<T> lqueue = takeAll();
 
         if (!lqueue.isEmpty()) {
+            batchCount.incrementAndGet();
             consumer.accept(lqueue);
         }
     }
+
+    /**
+     * Return the number of objects waiting for the next batch.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Return the number of objects added since creation, including coalesced and dropped objects.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * Return the number of objects that replaced a waiting object with the same key.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * Return the number of objects dropped because the capacity was reached.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Return the number of batches delivered to the consumer.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
 }
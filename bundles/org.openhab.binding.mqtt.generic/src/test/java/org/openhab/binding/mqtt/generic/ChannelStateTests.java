@@ -130,6 +130,17 @@ public class ChannelStateTests {
         verify(connection).unsubscribe(eq("state"), eq(c));
     }
 
+    @Test
+    public void payloadDecodedOnceTest() {
+        byte[] payload = "{\"temperature\":21.5}".getBytes();
+        String value = ChannelState.decodePayload(payload);
+        assertThat(value, is("{\"temperature\":21.5}"));
+        // Same payload instance, as received by all channels subscribed to the topic
+        assertThat(ChannelState.decodePayload(payload), is(sameInstance(value)));
+        // Equal payload of another message
+        assertThat(ChannelState.decodePayload(payload.clone()), is(not(sameInstance(value))));
+    }
+
     @Test
     public void receiveWildcardTest() throws InterruptedException, ExecutionException, TimeoutException {
         ChannelState c = spy(new ChannelState(ChannelConfigBuilder.create("state/+/topic", "command").build(),
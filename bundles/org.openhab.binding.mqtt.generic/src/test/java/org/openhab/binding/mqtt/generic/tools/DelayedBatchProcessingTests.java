@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.DropPolicy;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} queueing, coalescing and capacity handling.
+ *
+ * @author agent - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    // Long enough to never fire during a test, batches are taken with join() or forceProcessNow()
+    private static final int DELAY = 60000;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void itemsDeliveredInOrder() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(DELAY, batches::add, executor);
+        processing.accept("a");
+        processing.accept("b");
+        processing.accept("a");
+        assertThat(processing.isArmed(), is(true));
+        assertThat(processing.size(), is(3));
+
+        processing.forceProcessNow();
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b", "a"))));
+        assertThat(processing.size(), is(0));
+        assertThat(processing.getBatchCount(), is(1L));
+        assertThat(processing.getAcceptedCount(), is(3L));
+    }
+
+    @Test
+    public void itemsWithSameKeyCoalesced() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(DELAY, batches::add, executor,
+                DelayedBatchProcessing.UNBOUNDED, DropPolicy.DROP_NEWEST, item -> item.substring(0, 1));
+        processing.accept("a1");
+        processing.accept("b1");
+        processing.accept("a2");
+        processing.accept("c1");
+        processing.accept("b2");
+
+        // Latest value is delivered at the position of the first one
+        assertThat(processing.join(), is(Arrays.asList("a2", "b2", "c1")));
+        assertThat(processing.getCoalescedCount(), is(2L));
+        assertThat(processing.isArmed(), is(false));
+
+        // Keys are free again after the batch was taken
+        processing.accept("a3");
+        assertThat(processing.join(), is(Arrays.asList("a3")));
+    }
+
+    @Test
+    public void dropOldestWhenFull() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(DELAY, batches::add, executor, 3,
+                DropPolicy.DROP_OLDEST, null);
+        for (String item : Arrays.asList("0", "1", "2", "3", "4")) {
+            processing.accept(item);
+        }
+        assertThat(processing.join(), is(Arrays.asList("2", "3", "4")));
+        assertThat(processing.getDroppedCount(), is(2L));
+    }
+
+    @Test
+    public void dropNewestWhenFull() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(DELAY, batches::add, executor, 3,
+                DropPolicy.DROP_NEWEST, null);
+        for (String item : Arrays.asList("0", "1", "2", "3", "4")) {
+            processing.accept(item);
+        }
+        assertThat(processing.join(), is(Arrays.asList("0", "1", "2")));
+        assertThat(processing.getDroppedCount(), is(2L));
+    }
+
+    @Test
+    public void dropOldestNeverExceedsCapacityWithConcurrentProducers() throws InterruptedException {
+        final int capacity = 10;
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(DELAY, batches::add, executor,
+                capacity, DropPolicy.DROP_OLDEST, null);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger maxSize = new AtomicInteger();
+        Thread watcher = new Thread(() -> {
+            while (running.get()) {
+                maxSize.accumulateAndGet(processing.size(), Math::max);
+            }
+        });
+        watcher.start();
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    processing.accept(Integer.toString(j));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        running.set(false);
+        watcher.join();
+
+        assertThat(maxSize.get() <= capacity, is(true));
+        List<String> waiting = processing.join();
+        assertThat(waiting.size(), is(capacity));
+        assertThat(processing.getDroppedCount(), is(40000L - capacity));
+    }
+
+    @Test
+    public void coalescedItemDoesNotCountAgainstCapacity() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(DELAY, batches::add, executor, 2,
+                DropPolicy.DROP_NEWEST, item -> item.substring(0, 1));
+        processing.accept("a1");
+        processing.accept("b1");
+        processing.accept("a2");
+        assertThat(processing.join(), is(Arrays.asList("a2", "b1")));
+        assertThat(processing.getDroppedCount(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity() {
+        new DelayedBatchProcessing<String>(DELAY, batches::add, executor, 0, DropPolicy.DROP_NEWEST, null);
+    }
+}
@@ -30,6 +30,7 @@ import org.openhab.binding.mqtt.generic.AbstractMQTTThingHandler;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.DropPolicy;
 import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
 import org.openhab.binding.mqtt.homie.internal.homie300.Device;
 import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes;
@@ -57,6 +58,11 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     protected final int subscribeTimeout;
     protected HandlerConfiguration config = new HandlerConfiguration();
     protected DelayedBatchProcessing<Object> delayedProcessing;
+    /**
+     * Limit of the nodes and properties waiting for a rebuild, protecting against floods of retained messages. The
+     * batch only triggers a rebuild from the {@link Device}, so dropped changes are still part of the pending rebuild.
+     */
+    static final int MAX_PENDING_CHANGES = 1000;
     private @Nullable ScheduledFuture<?> heartBeatTimer;
 
     /**
@@ -76,10 +82,24 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         this.channelTypeProvider = channelTypeProvider;
         this.subscribeTimeout = subscribeTimeout;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler);
+        // Repeated changes of a node or property within the delay are coalesced, the batch only triggers a rebuild
+        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler,
+                MAX_PENDING_CHANGES, DropPolicy.DROP_NEWEST, HomieThingHandler::batchKey);
         this.device = new Device(this.thing.getUID(), this, new DeviceAttributes());
     }
 
+    /**
+     * The key by which changed nodes and properties are coalesced in the {@link DelayedBatchProcessing}.
+     */
+    static @Nullable Object batchKey(Object nodeOrProperty) {
+        if (nodeOrProperty instanceof Node) {
+            return ((Node) nodeOrProperty).uid();
+        } else if (nodeOrProperty instanceof Property) {
+            return ((Property) nodeOrProperty).channelUID;
+        }
+        return null;
+    }
+
     /**
      * Overwrite the {@link Device} and {@link DelayedBatchProcessing} object.
      * Those are set in the constructor already, but require to be replaced for tests.
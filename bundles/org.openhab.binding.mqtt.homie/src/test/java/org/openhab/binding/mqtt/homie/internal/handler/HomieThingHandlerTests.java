@@ -20,6 +20,7 @@ import static org.openhab.binding.mqtt.homie.internal.handler.ThingChannelConsta
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -56,6 +57,7 @@ import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.mapping.SubscribeFieldToMQTTtopic;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
 import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing;
+import org.openhab.binding.mqtt.generic.tools.DelayedBatchProcessing.DropPolicy;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.binding.mqtt.handler.AbstractBrokerHandler;
 import org.openhab.binding.mqtt.homie.ChannelStateHelper;
@@ -137,7 +139,8 @@ public class HomieThingHandlerTests {
         thingHandler.setCallback(callback);
         final Device device = new Device(thing.getUID(), thingHandler, spy(new DeviceAttributes()),
                 spy(new ChildMap<>()));
-        thingHandler.setInternalObjects(spy(device), spy(new DelayedBatchProcessing<>(500, thingHandler, scheduler)));
+        thingHandler.setInternalObjects(spy(device), spy(new DelayedBatchProcessing<>(500, thingHandler, scheduler,
+                HomieThingHandler.MAX_PENDING_CHANGES, DropPolicy.DROP_NEWEST, HomieThingHandler::batchKey)));
 
         // Return the bridge handler if the thing handler asks for it
         doReturn(bridgeHandler).when(thingHandler).getBridgeHandler();
@@ -369,4 +372,28 @@ public class HomieThingHandlerTests {
         assertThat(properties.get(MqttBindingConstants.HOMIE_PROPERTY_VERSION), is("3.0"));
         assertThat(properties.size(), is(1));
     }
+
+    @SuppressWarnings("null")
+    @Test
+    public void repeatedChangesCoalesced() {
+        Node node = thingHandler.device.createNode("node", spy(new NodeAttributes()));
+        node.attributes.name = "testnode";
+        Property property = node.createProperty("property", spy(new PropertyAttributes()));
+        property.attributes.name = "testprop";
+        property.attributes.datatype = DataTypeEnum.string_;
+        property.attributesReceived();
+        Property otherProperty = node.createProperty("other", spy(new PropertyAttributes()));
+        otherProperty.attributes.name = "otherprop";
+        otherProperty.attributes.datatype = DataTypeEnum.string_;
+        otherProperty.attributesReceived();
+
+        thingHandler.nodeAddedOrChanged(node);
+        thingHandler.propertyAddedOrChanged(property);
+        thingHandler.propertyAddedOrChanged(otherProperty);
+        thingHandler.propertyAddedOrChanged(property);
+        thingHandler.nodeAddedOrChanged(node);
+
+        assertThat(thingHandler.delayedProcessing.join(), is(Arrays.<Object> asList(node, property, otherProperty)));
+        assertThat(thingHandler.delayedProcessing.getCoalescedCount(), is(2L));
+    }
 }
@@ -12,8 +12,19 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -30,11 +41,47 @@ import io.github.hapjava.HomekitCharacteristicChangeCallback;
  * Homekit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * Notifications are not sent from the thread changing the item state. Changes of a characteristic within
+ * {@link HomekitSettings#notificationCoalesceMillis} are coalesced into one notification, and notifications for the
+ * characteristics of one item are sent at most once per {@link HomekitSettings#notificationMinIntervalMillis}. This
+ * keeps fast changing items like power meters from saturating the connections to the Homekit clients. The number of
+ * sent and suppressed notifications is logged periodically on debug level.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
+    private static final long STATISTICS_LOG_INTERVAL_MINUTES = 15;
+
     private Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    /** Pending notifications by item. Guarded by itself. */
+    private final Map<GenericItem, PendingNotifications> pendingByItem = new HashMap<>();
+    private final AtomicLong sentNotifications = new AtomicLong();
+    private final AtomicLong suppressedNotifications = new AtomicLong();
+    private volatile long coalesceMillis;
+    private volatile long minIntervalMillis;
+    private final LongSupplier clock;
+    private final ScheduledFuture<?> statisticsLogger;
+    private long loggedSentNotifications;
+    private long loggedSuppressedNotifications;
+
+    public HomekitAccessoryUpdater(ScheduledExecutorService scheduler, HomekitSettings settings) {
+        this(scheduler, settings, System::currentTimeMillis);
+    }
+
+    HomekitAccessoryUpdater(ScheduledExecutorService scheduler, HomekitSettings settings, LongSupplier clock) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        updateSettings(settings);
+        statisticsLogger = scheduler.scheduleWithFixedDelay(this::logStatistics, STATISTICS_LOG_INTERVAL_MINUTES,
+                STATISTICS_LOG_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public void updateSettings(HomekitSettings settings) {
+        this.coalesceMillis = Math.max(0, settings.notificationCoalesceMillis);
+        this.minIntervalMillis = Math.max(0, settings.notificationMinIntervalMillis);
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -56,7 +103,7 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.debug("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(itemKey, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -75,16 +122,154 @@ public class HomekitAccessoryUpdater {
             item.removeStateChangeListener(v);
             return null;
         });
+        discardPendingNotifications(item);
+    }
+
+    /**
+     * Move the subscriptions of an item that was replaced in the item registry to the new item instance.
+     *
+     * @param item The new item instance
+     */
+    public void resubscribe(GenericItem item) {
+        for (ItemKey itemKey : new ArrayList<>(subscriptionsByName.keySet())) {
+            if (itemKey.item != item && itemKey.item.getName().equals(item.getName())) {
+                Subscription subscription = subscriptionsByName.remove(itemKey);
+                if (subscription != null) {
+                    logger.debug("Moving subscription for {} / {} to the new item instance", item, itemKey.key);
+                    itemKey.item.removeStateChangeListener(subscription);
+                    subscribe(item, itemKey.key, subscription.callback);
+                }
+            }
+        }
+    }
+
+    private void discardPendingNotifications(GenericItem item) {
+        if (subscriptionsByName.keySet().stream().anyMatch(k -> k.item.equals(item))) {
+            // Other characteristics of this item are still subscribed
+            return;
+        }
+        synchronized (pendingByItem) {
+            PendingNotifications pending = pendingByItem.remove(item);
+            if (pending != null) {
+                pending.cancel();
+            }
+        }
+    }
+
+    /**
+     * Discard all pending notifications, and stop logging the statistics.
+     */
+    public void stop() {
+        if (statisticsLogger != null) {
+            statisticsLogger.cancel(false);
+        }
+        synchronized (pendingByItem) {
+            pendingByItem.values().forEach(p -> p.cancel());
+            pendingByItem.clear();
+        }
+    }
+
+    /**
+     * Get the number of notifications sent to the Homekit clients
+     */
+    public long getSentNotificationCount() {
+        return sentNotifications.get();
     }
 
-    @FunctionalInterface
-    private static interface Subscription extends StateChangeListener {
+    /**
+     * Get the number of changes that did not result in a notification of their own, since a notification for the
+     * same characteristic was already pending
+     */
+    public long getSuppressedNotificationCount() {
+        return suppressedNotifications.get();
+    }
+
+    private void logStatistics() {
+        long sent = sentNotifications.get();
+        long suppressed = suppressedNotifications.get();
+        if (sent != loggedSentNotifications || suppressed != loggedSuppressedNotifications) {
+            logger.debug("Sent {} Homekit notifications, suppressed {} changes in the last {} minutes",
+                    sent - loggedSentNotifications, suppressed - loggedSuppressedNotifications,
+                    STATISTICS_LOG_INTERVAL_MINUTES);
+            loggedSentNotifications = sent;
+            loggedSuppressedNotifications = suppressed;
+        }
+    }
+
+    private void changed(ItemKey itemKey) {
+        synchronized (pendingByItem) {
+            PendingNotifications pending = pendingByItem.computeIfAbsent(itemKey.item,
+                    k -> new PendingNotifications());
+            if (!pending.keys.add(itemKey)) {
+                suppressedNotifications.incrementAndGet();
+            }
+            if (pending.future == null) {
+                long now = clock.getAsLong();
+                long due = Math.max(now + coalesceMillis, pending.lastSentMillis + minIntervalMillis);
+                pending.future = scheduler.schedule(() -> send(itemKey.item), due - now, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void send(GenericItem item) {
+        List<ItemKey> keys;
+        synchronized (pendingByItem) {
+            PendingNotifications pending = pendingByItem.get(item);
+            if (pending == null) {
+                return;
+            }
+            keys = new ArrayList<>(pending.keys);
+            pending.keys.clear();
+            pending.future = null;
+            pending.lastSentMillis = clock.getAsLong();
+        }
+        for (ItemKey key : keys) {
+            Subscription subscription = subscriptionsByName.get(key);
+            if (subscription == null) {
+                // Unsubscribed in the meantime
+                continue;
+            }
+            try {
+                subscription.callback.changed();
+                sentNotifications.incrementAndGet();
+            } catch (RuntimeException e) {
+                logger.warn("Could not notify Homekit clients about change of {} / {}: {}", key.item.getName(),
+                        key.key, e.getMessage());
+            }
+        }
+        logger.trace("Sent notifications for {} ({} sent, {} suppressed in total)", item.getName(),
+                sentNotifications.get(), suppressedNotifications.get());
+    }
+
+    private static class PendingNotifications {
+        private final Set<ItemKey> keys = new LinkedHashSet<>();
+        private long lastSentMillis;
+        private ScheduledFuture<?> future;
+
+        private void cancel() {
+            if (future != null) {
+                future.cancel(false);
+                future = null;
+            }
+        }
+    }
+
+    private class Subscription implements StateChangeListener {
+        private final ItemKey itemKey;
+        private final HomekitCharacteristicChangeCallback callback;
+
+        private Subscription(ItemKey itemKey, HomekitCharacteristicChangeCallback callback) {
+            this.itemKey = itemKey;
+            this.callback = callback;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            changed(itemKey);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
     }
@@ -14,18 +14,28 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.items.ItemRegistryChangeListener;
+import org.eclipse.smarthome.core.storage.Storage;
+import org.eclipse.smarthome.core.storage.StorageService;
 import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
 import org.openhab.io.homekit.internal.accessories.IncompleteAccessoryException;
 import org.slf4j.Logger;
@@ -40,16 +50,20 @@ import io.github.hapjava.HomekitRoot;
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitChangeListener implements ItemRegistryChangeListener {
+    private static final String STORAGE_KEY_ACCESSORIES_HASH = "accessories_hash";
+    private static final String STORAGE_KEY_CONFIGURATION_REVISION = "configuration_revision";
+
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final ItemRegistry itemRegistry;
+    private final Storage<String> storage;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
-    private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
+    private final ScheduledExecutorService scheduler;
+    private HomekitAccessoryUpdater updater;
     private HomekitSettings settings;
 
     private Set<String> pendingUpdates = new HashSet<>();
-
-    private final ScheduledExecutorService scheduler = ThreadPoolManager
-            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    /** Signatures of the created root accessories, by root item name */
+    private final Map<String, AccessorySignature> signatures = new HashMap<>();
 
     /**
      * Rather than reacting to item added/removed/modified changes directly, we mark them as dirty (and the groups to
@@ -61,9 +75,18 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      */
     private final Debouncer applyUpdatesDebouncer;
 
-    HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings) {
+    HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings, StorageService storageService) {
+        this(itemRegistry, settings, storageService,
+                ThreadPoolManager.getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON));
+    }
+
+    HomekitChangeListener(ItemRegistry itemRegistry, HomekitSettings settings, StorageService storageService,
+            ScheduledExecutorService scheduler) {
         this.itemRegistry = itemRegistry;
+        this.scheduler = scheduler;
+        this.storage = storageService.getStorage("homekit");
         this.settings = settings;
+        this.updater = new HomekitAccessoryUpdater(scheduler, settings);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
@@ -72,6 +95,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 .filter(taggedItem -> taggedItem.isAccessory())
                 .filter(taggedItem -> !taggedItem.isMemberOfAccessoryGroup())
                 .forEach(rootTaggedItem -> createRootAccessory(rootTaggedItem));
+        updateConfigurationRevision();
     }
 
     @Override
@@ -116,17 +140,34 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         }
     }
 
-    private synchronized void applyUpdates() {
-        Iterator<String> iter = pendingUpdates.iterator();
+    /**
+     * Re-creates the accessories of the dirty items. Accessories whose items did not change in a way that is relevant
+     * to Homekit are kept, so that the Homekit clients do not need to reload the accessories.
+     */
+    synchronized void applyUpdates() {
+        int unchanged = 0;
+        for (String name : pendingUpdates) {
+            Optional<HomekitTaggedItem> rootItem = getItemOptional(name)
+                    .map(i -> new HomekitTaggedItem(i, itemRegistry))
+                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup());
+            AccessorySignature signature = rootItem.map(this::createSignature).orElse(null);
+            AccessorySignature oldSignature = signatures.get(name);
+            if (signature != null && oldSignature != null && signature.isSameAs(oldSignature)) {
+                // The item instance might have been replaced, make sure the subscriptions follow
+                rootItem.map(HomekitTaggedItem::getItem).filter(GenericItem.class::isInstance)
+                        .ifPresent(item -> updater.resubscribe((GenericItem) item));
+                unchanged++;
+                continue;
+            }
 
-        while (iter.hasNext()) {
-            String name = iter.next();
             accessoryRegistry.remove(name);
-
-            getItemOptional(name).map(i -> new HomekitTaggedItem(i, itemRegistry))
-                    .filter(i -> i.isAccessory() && !i.isMemberOfAccessoryGroup())
-                    .ifPresent(rootItem -> createRootAccessory(rootItem));
+            signatures.remove(name);
+            rootItem.ifPresent(i -> createRootAccessory(i));
         }
+        logger.debug("Applied {} homekit item updates, {} accessories were unchanged", pendingUpdates.size(),
+                unchanged);
+        pendingUpdates.clear();
+        updateConfigurationRevision();
     }
 
     @Override
@@ -137,6 +178,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        signatures.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -153,10 +195,14 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        this.updater.updateSettings(settings);
     }
 
     public void stop() {
         this.itemRegistry.removeRegistryChangeListener(this);
+        this.updater.stop();
+        logger.debug("Sent {} Homekit notifications, suppressed {} changes", updater.getSentNotificationCount(),
+                updater.getSuppressedNotificationCount());
     }
 
     private void createRootAccessory(HomekitTaggedItem taggedItem) {
@@ -169,9 +215,103 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             logger.debug("Adding homekit device {}", taggedItem.getItem().getUID());
             accessoryRegistry.addRootAccessory(taggedItem.getName(),
                     HomekitAccessoryFactory.create(taggedItem, itemRegistry, updater, settings));
+            signatures.put(taggedItem.getName(), createSignature(taggedItem));
             logger.debug("Added homekit device {}", taggedItem.getItem().getUID());
         } catch (HomekitException | IncompleteAccessoryException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
         }
     }
+
+    /**
+     * Persist a hash of all accessory signatures. The configuration revision is only increased if the accessories
+     * differ from the ones that were stored, so an unchanged setup is recognized across restarts.
+     *
+     * Note: the HAP library used here does not allow to announce a configuration number (the "c#" field of the mDNS
+     * record), so the revision is currently only logged when the bridge is started. It is kept in the storage anyway,
+     * so that the revision is already stable across restarts once it can be handed to the bridge.
+     */
+    private void updateConfigurationRevision() {
+        Map<String, String> sorted = new TreeMap<>();
+        signatures.forEach((name, signature) -> sorted.put(name, signature.structure));
+        String hash = Integer.toHexString(sorted.toString().hashCode());
+        if (hash.equals(storage.get(STORAGE_KEY_ACCESSORIES_HASH))) {
+            logger.debug("Homekit accessory configuration unchanged ({} accessories)", sorted.size());
+            return;
+        }
+        int revision = 1;
+        String storedRevision = storage.get(STORAGE_KEY_CONFIGURATION_REVISION);
+        if (storedRevision != null) {
+            try {
+                revision = Integer.parseInt(storedRevision) + 1;
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid stored configuration revision {}", storedRevision);
+            }
+        }
+        storage.put(STORAGE_KEY_ACCESSORIES_HASH, hash);
+        storage.put(STORAGE_KEY_CONFIGURATION_REVISION, Integer.toString(revision));
+        logger.debug("Homekit accessory configuration changed ({} accessories), revision {}", sorted.size(),
+                revision);
+    }
+
+    /**
+     * The current revision of the accessory configuration. Only increased when accessories were added, removed or
+     * changed.
+     */
+    public int getConfigurationRevision() {
+        String storedRevision = storage.get(STORAGE_KEY_CONFIGURATION_REVISION);
+        try {
+            return storedRevision != null ? Integer.parseInt(storedRevision) : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private AccessorySignature createSignature(HomekitTaggedItem taggedItem) {
+        Item item = taggedItem.getItem();
+        StringBuilder structure = new StringBuilder();
+        structure.append(taggedItem.getAccessoryType()).append('|').append(settings.hashCode());
+        appendItem(structure, item);
+        List<Item> members = Collections.emptyList();
+        if (item instanceof GroupItem) {
+            // Some accessories keep references to the member items, so the members must be the same instances
+            members = new ArrayList<>(((GroupItem) item).getMembers());
+            members.sort((a, b) -> a.getName().compareTo(b.getName()));
+            members.forEach(member -> appendItem(structure, member));
+        }
+        return new AccessorySignature(structure.toString(), members);
+    }
+
+    private static void appendItem(StringBuilder structure, Item item) {
+        String type = item.getType();
+        if (item instanceof GroupItem && ((GroupItem) item).getBaseItem() != null) {
+            type += ":" + ((GroupItem) item).getBaseItem().getType();
+        }
+        structure.append('|').append(item.getName()).append(',').append(type).append(',').append(item.getLabel())
+                .append(',').append(item.getTags().stream().sorted().collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Everything about the items of an accessory that is used to create the accessory
+     */
+    private static class AccessorySignature {
+        private final String structure;
+        private final List<Item> members;
+
+        AccessorySignature(String structure, List<Item> members) {
+            this.structure = structure;
+            this.members = members;
+        }
+
+        boolean isSameAs(AccessorySignature other) {
+            if (!structure.equals(other.structure) || members.size() != other.members.size()) {
+                return false;
+            }
+            for (int i = 0; i < members.size(); i++) {
+                if (members.get(i) != other.members.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -68,7 +68,7 @@ public class HomekitImpl implements Homekit {
         this.storageService = storageService;
         this.networkAddressService = networkAddressService;
         this.settings = processConfig(config);
-        this.changeListener = new HomekitChangeListener(itemRegistry, settings);
+        this.changeListener = new HomekitChangeListener(itemRegistry, settings, storageService);
         startHomekitServer();
     }
 
@@ -117,6 +117,8 @@ public class HomekitImpl implements Homekit {
                     settings.name, HomekitSettings.MANUFACTURER,
                     FrameworkUtil.getBundle(getClass()).getVersion().toString(), HomekitSettings.SERIAL_NUMBER);
             changeListener.setBridge(bridge);
+            logger.debug("Starting HomeKit bridge with accessory configuration revision {}",
+                    changeListener.getConfigurationRevision());
             bridge.start();
             this.bridge = bridge;
         } else {
@@ -35,6 +35,8 @@ public class HomekitSettings {
     public String thermostatCurrentModeCooling = "Cooling";
     public String thermostatCurrentModeOff = "Off";
     public String networkInterface;
+    public int notificationCoalesceMillis = 100;
+    public int notificationMinIntervalMillis = 500;
 
     @Deprecated
     public String thermostatHeatMode;
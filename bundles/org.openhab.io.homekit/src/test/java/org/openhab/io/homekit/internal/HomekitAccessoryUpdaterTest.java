@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.StateChangeListener;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.github.hapjava.HomekitCharacteristicChangeCallback;
+
+/**
+ * Tests for {@link HomekitAccessoryUpdater}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomekitAccessoryUpdaterTest {
+
+    private ScheduledExecutorService scheduler;
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+    private final List<Long> scheduledDelays = new ArrayList<>();
+    private final List<ScheduledFuture<?>> scheduledFutures = new ArrayList<>();
+    private long now = 1000;
+    private HomekitAccessoryUpdater updater;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            scheduledTasks.add(invocation.getArgument(0));
+            scheduledDelays.add(invocation.getArgument(1));
+            scheduledFutures.add(future);
+            return future;
+        });
+        HomekitSettings settings = new HomekitSettings();
+        settings.notificationCoalesceMillis = 100;
+        settings.notificationMinIntervalMillis = 500;
+        updater = new HomekitAccessoryUpdater(scheduler, settings, () -> now);
+    }
+
+    private StateChangeListener subscribe(GenericItem item, String key, HomekitCharacteristicChangeCallback callback) {
+        ArgumentCaptor<StateChangeListener> listener = ArgumentCaptor.forClass(StateChangeListener.class);
+        updater.subscribe(item, key, callback);
+        verify(item, atLeastOnce()).addStateChangeListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private GenericItem mockItem(String name) {
+        GenericItem item = mock(GenericItem.class);
+        when(item.getName()).thenReturn(name);
+        return item;
+    }
+
+    private void change(StateChangeListener listener, GenericItem item) {
+        listener.stateChanged(item, new DecimalType(1), new DecimalType(2));
+    }
+
+    @Test
+    public void testChangesWithinWindowAreCoalesced() {
+        GenericItem item = mockItem("power");
+        HomekitCharacteristicChangeCallback callback = mock(HomekitCharacteristicChangeCallback.class);
+        StateChangeListener listener = subscribe(item, null, callback);
+
+        change(listener, item);
+        change(listener, item);
+        change(listener, item);
+
+        assertThat(scheduledTasks.size(), is(1));
+        assertThat(scheduledDelays.get(0), is(100L));
+        verify(callback, never()).changed();
+
+        now += 100;
+        scheduledTasks.get(0).run();
+
+        verify(callback, times(1)).changed();
+        assertThat(updater.getSentNotificationCount(), is(1L));
+        assertThat(updater.getSuppressedNotificationCount(), is(2L));
+    }
+
+    @Test
+    public void testCharacteristicsOfOneItemShareNotification() {
+        GenericItem item = mockItem("light");
+        HomekitCharacteristicChangeCallback onCallback = mock(HomekitCharacteristicChangeCallback.class);
+        HomekitCharacteristicChangeCallback brightnessCallback = mock(HomekitCharacteristicChangeCallback.class);
+        updater.subscribe(item, "on", onCallback);
+        StateChangeListener brightnessListener = subscribe(item, "brightness", brightnessCallback);
+        ArgumentCaptor<StateChangeListener> listeners = ArgumentCaptor.forClass(StateChangeListener.class);
+        verify(item, times(2)).addStateChangeListener(listeners.capture());
+        StateChangeListener onListener = listeners.getAllValues().get(0);
+
+        change(onListener, item);
+        change(brightnessListener, item);
+
+        assertThat(scheduledTasks.size(), is(1));
+        scheduledTasks.get(0).run();
+
+        verify(onCallback).changed();
+        verify(brightnessCallback).changed();
+        assertThat(updater.getSentNotificationCount(), is(2L));
+        assertThat(updater.getSuppressedNotificationCount(), is(0L));
+    }
+
+    @Test
+    public void testNotificationsAreSpacedByMinInterval() {
+        GenericItem item = mockItem("power");
+        HomekitCharacteristicChangeCallback callback = mock(HomekitCharacteristicChangeCallback.class);
+        StateChangeListener listener = subscribe(item, null, callback);
+
+        change(listener, item);
+        now += 100;
+        scheduledTasks.get(0).run();
+
+        now += 50;
+        change(listener, item);
+
+        assertThat(scheduledTasks.size(), is(2));
+        // sent at 1100, changed at 1150: not before 1100 + 500
+        assertThat(scheduledDelays.get(1), is(450L));
+
+        now += 450;
+        scheduledTasks.get(1).run();
+        verify(callback, times(2)).changed();
+
+        now += 1000;
+        change(listener, item);
+        assertThat(scheduledDelays.get(2), is(100L));
+    }
+
+    @Test
+    public void testUnsubscribeDiscardsPendingNotification() {
+        GenericItem item = mockItem("power");
+        HomekitCharacteristicChangeCallback callback = mock(HomekitCharacteristicChangeCallback.class);
+        StateChangeListener listener = subscribe(item, null, callback);
+
+        change(listener, item);
+        updater.unsubscribe(item);
+
+        verify(item).removeStateChangeListener(listener);
+        verify(scheduledFutures.get(0)).cancel(false);
+
+        // The task may already be running when the future gets cancelled
+        scheduledTasks.get(0).run();
+        verify(callback, never()).changed();
+        assertThat(updater.getSentNotificationCount(), is(0L));
+    }
+
+    @Test
+    public void testUnsubscribeKeepsNotificationOfOtherCharacteristics() {
+        GenericItem item = mockItem("light");
+        HomekitCharacteristicChangeCallback onCallback = mock(HomekitCharacteristicChangeCallback.class);
+        HomekitCharacteristicChangeCallback brightnessCallback = mock(HomekitCharacteristicChangeCallback.class);
+        StateChangeListener onListener = subscribe(item, "on", onCallback);
+        updater.subscribe(item, "brightness", brightnessCallback);
+
+        change(onListener, item);
+        updater.unsubscribe(item, "brightness");
+
+        verify(scheduledFutures.get(0), never()).cancel(anyBoolean());
+        scheduledTasks.get(0).run();
+        verify(onCallback).changed();
+        verify(brightnessCallback, never()).changed();
+    }
+
+    @Test
+    public void testStopDiscardsPendingNotifications() {
+        GenericItem item = mockItem("power");
+        HomekitCharacteristicChangeCallback callback = mock(HomekitCharacteristicChangeCallback.class);
+        StateChangeListener listener = subscribe(item, null, callback);
+
+        change(listener, item);
+        updater.stop();
+
+        verify(scheduledFutures.get(0)).cancel(false);
+        scheduledTasks.get(0).run();
+        verify(callback, never()).changed();
+    }
+
+    @Test
+    public void testFailingCallbackIsNotCounted() {
+        GenericItem item = mockItem("power");
+        HomekitCharacteristicChangeCallback callback = mock(HomekitCharacteristicChangeCallback.class);
+        doThrow(new IllegalStateException("connection closed")).when(callback).changed();
+        StateChangeListener listener = subscribe(item, null, callback);
+
+        change(listener, item);
+        scheduledTasks.get(0).run();
+
+        verify(callback).changed();
+        assertThat(updater.getSentNotificationCount(), is(0L));
+    }
+
+    @Test
+    public void testStatisticsAreLoggedPeriodically() {
+        verify(scheduler).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), eq(TimeUnit.MINUTES));
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemNotFoundException;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.storage.Storage;
+import org.eclipse.smarthome.core.storage.StorageService;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.hapjava.HomekitRoot;
+
+/**
+ * Tests for {@link HomekitChangeListener}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HomekitChangeListenerTest {
+
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<String, String> stored = new HashMap<>();
+    private final HomekitSettings settings = new HomekitSettings();
+    private ItemRegistry itemRegistry;
+    private StorageService storageService;
+    private ScheduledExecutorService scheduler;
+    private HomekitRoot bridge;
+    private HomekitAccessoryUpdater updater;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws ItemNotFoundException {
+        itemRegistry = mock(ItemRegistry.class);
+        when(itemRegistry.getAll()).thenAnswer(invocation -> new ArrayList<>(items.values()));
+        when(itemRegistry.get(anyString())).thenAnswer(invocation -> items.get(invocation.getArgument(0)));
+        when(itemRegistry.getItem(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            Item item = items.get(name);
+            if (item == null) {
+                throw new ItemNotFoundException(name);
+            }
+            return item;
+        });
+
+        Storage<String> storage = mock(Storage.class);
+        when(storage.get(anyString())).thenAnswer(invocation -> stored.get(invocation.getArgument(0)));
+        when(storage.put(anyString(), anyString()))
+                .thenAnswer(invocation -> stored.put(invocation.getArgument(0), invocation.getArgument(1)));
+        storageService = mock(StorageService.class);
+        when(storageService.<String> getStorage("homekit")).thenReturn(storage);
+
+        scheduler = mock(ScheduledExecutorService.class);
+        bridge = mock(HomekitRoot.class);
+        updater = mock(HomekitAccessoryUpdater.class);
+    }
+
+    private SwitchItem addLight(String name, String label) {
+        SwitchItem item = new SwitchItem(name);
+        item.setLabel(label);
+        item.addTag("Lighting");
+        items.put(name, item);
+        return item;
+    }
+
+    private HomekitChangeListener createListener() {
+        HomekitChangeListener listener = new HomekitChangeListener(itemRegistry, settings, storageService, scheduler);
+        listener.setUpdater(updater);
+        listener.setBridge(bridge);
+        return listener;
+    }
+
+    @Test
+    public void testUnchangedItemKeepsAccessory() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+        verify(bridge, times(1)).addAccessory(any());
+
+        SwitchItem replacement = addLight("light", "Light");
+        listener.updated(light, replacement);
+        listener.applyUpdates();
+
+        verify(bridge, never()).removeAccessory(any());
+        verify(bridge, times(1)).addAccessory(any());
+        verify(updater).resubscribe(replacement);
+    }
+
+    @Test
+    public void testChangedItemRecreatesAccessory() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+
+        SwitchItem replacement = addLight("light", "Ceiling Light");
+        listener.updated(light, replacement);
+        listener.applyUpdates();
+
+        verify(bridge, times(1)).removeAccessory(any());
+        verify(bridge, times(2)).addAccessory(any());
+        verify(updater, never()).resubscribe(any());
+    }
+
+    @Test
+    public void testChangedTagsRecreateAccessory() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+
+        SwitchItem replacement = new SwitchItem("light");
+        replacement.setLabel("Light");
+        replacement.addTag("Switchable");
+        items.put("light", replacement);
+        listener.updated(light, replacement);
+        listener.applyUpdates();
+
+        verify(bridge, times(1)).removeAccessory(any());
+        verify(bridge, times(2)).addAccessory(any());
+    }
+
+    @Test
+    public void testAddedItemCreatesAccessory() {
+        addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+
+        SwitchItem added = addLight("kitchen", "Kitchen");
+        listener.added(added);
+        listener.applyUpdates();
+
+        verify(bridge, never()).removeAccessory(any());
+        verify(bridge, times(2)).addAccessory(any());
+    }
+
+    @Test
+    public void testAddedUntaggedItemIsIgnored() {
+        HomekitChangeListener listener = createListener();
+
+        SwitchItem untagged = new SwitchItem("untagged");
+        items.put("untagged", untagged);
+        listener.added(untagged);
+        listener.applyUpdates();
+
+        verify(bridge, never()).addAccessory(any());
+        assertThat(listener.getConfigurationRevision(), is(1));
+    }
+
+    @Test
+    public void testRemovedItemRemovesAccessory() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+
+        items.remove("light");
+        listener.removed(light);
+        listener.applyUpdates();
+
+        verify(bridge, times(1)).removeAccessory(any());
+        verify(bridge, times(1)).addAccessory(any());
+    }
+
+    @Test
+    public void testUpdatesAreDebounced() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+
+        listener.updated(light, light);
+        listener.updated(light, light);
+
+        verify(bridge, never()).removeAccessory(any());
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(1000L), any());
+    }
+
+    @Test
+    public void testRevisionIsKeptForUnchangedConfiguration() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+        assertThat(listener.getConfigurationRevision(), is(1));
+        String hash = stored.get("accessories_hash");
+        assertThat(hash, is(notNullValue()));
+
+        listener.updated(light, addLight("light", "Light"));
+        listener.applyUpdates();
+        assertThat(listener.getConfigurationRevision(), is(1));
+
+        // Restart with the same items
+        HomekitChangeListener restarted = createListener();
+        assertThat(restarted.getConfigurationRevision(), is(1));
+        assertThat(stored.get("accessories_hash"), is(hash));
+    }
+
+    @Test
+    public void testRevisionIsIncreasedOnChange() {
+        SwitchItem light = addLight("light", "Light");
+        HomekitChangeListener listener = createListener();
+
+        listener.updated(light, addLight("light", "Ceiling Light"));
+        listener.applyUpdates();
+        assertThat(listener.getConfigurationRevision(), is(2));
+
+        listener.added(addLight("kitchen", "Kitchen"));
+        listener.applyUpdates();
+        assertThat(listener.getConfigurationRevision(), is(3));
+
+        // Restart with the same items
+        HomekitChangeListener restarted = createListener();
+        assertThat(restarted.getConfigurationRevision(), is(3));
+    }
+
+    @Test
+    public void testRevisionIsIncreasedForChangeWhileStopped() {
+        addLight("light", "Light");
+        createListener();
+
+        addLight("kitchen", "Kitchen");
+        HomekitChangeListener restarted = createListener();
+        assertThat(restarted.getConfigurationRevision(), is(2));
+    }
+
+    @Test
+    public void testInvalidStoredRevisionIsReset() {
+        stored.put("configuration_revision", "invalid");
+        addLight("light", "Light");
+
+        HomekitChangeListener listener = createListener();
+
+        assertThat(listener.getConfigurationRevision(), is(1));
+        assertThat(stored.get("configuration_revision"), is("1"));
+    }
+}
@@ -48,6 +48,11 @@ public class HueEmulationConfig {
     public String restrictToTagsWhiteLights = "Lighting";
     /** Comma separated list of tags */
     public String ignoreItemsWithTags = "internal";
+    /**
+     * Brightness and color commands to the same item within this time window (in milliseconds) are coalesced to the
+     * latest value. 0 disables coalescing.
+     */
+    public int commandCoalescingMillis = 200;
 
     public static final String CONFIG_UUID = "uuid";
     public String uuid = "";
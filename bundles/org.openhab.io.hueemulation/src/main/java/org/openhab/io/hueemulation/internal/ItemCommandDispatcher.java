@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.items.events.ItemEventFactory;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Posts item commands that result from Hue API requests.
+ *
+ * <p>
+ * The event bus has no batched command event: each command is posted as its own item command event with
+ * {@link EventPublisher#post(Event)}, in the order of the request. Only the decision which commands are posted now is
+ * made for all commands of one request (for example all item commands of a recalled scene) at once.
+ * </p>
+ *
+ * <p>
+ * Voice assistants and apps with sliders send a flood of brightness and color changes while the slider is moved.
+ * Those commands ({@link PercentType} and its subclasses) are coalesced per item: The first change is posted
+ * immediately, further changes within {@link HueEmulationConfig#commandCoalescingMillis} only replace the pending
+ * value, which is posted when the window has passed. Any other command (ON/OFF etc.) discards a pending slider value
+ * of the same item and is posted immediately, so that a late brightness value cannot turn a light on again.
+ * </p>
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ItemCommandDispatcher {
+    private static final String SOURCE = "hueemulation";
+
+    private final Logger logger = LoggerFactory.getLogger(ItemCommandDispatcher.class);
+    private final ConfigStore cs;
+    /** Coalescing state per item UID. Guarded by this. */
+    private final Map<String, ItemThrottle> throttles = new HashMap<>();
+
+    private static class ItemThrottle {
+        long lastPostMillis;
+        @Nullable
+        Command pendingCommand;
+        @Nullable
+        EventPublisher publisher;
+        /** Whether a flush of the pending command is scheduled. Not derived from {@link #flushFuture}. */
+        boolean flushScheduled;
+        @Nullable
+        ScheduledFuture<?> flushFuture;
+    }
+
+    public ItemCommandDispatcher(ConfigStore cs) {
+        this.cs = cs;
+    }
+
+    /**
+     * Post a single item command.
+     *
+     * @param publisher The event publisher
+     * @param itemUID The item UID
+     * @param command The command
+     */
+    public void post(EventPublisher publisher, String itemUID, Command command) {
+        Map<String, Command> commands = new HashMap<>(1);
+        commands.put(itemUID, command);
+        post(publisher, commands);
+    }
+
+    /**
+     * Post the given item commands, one event per item command. Slider commands might be delayed, see the class
+     * description.
+     *
+     * @param publisher The event publisher
+     * @param commands Commands by item UID. The iteration order of the map is the posting order.
+     */
+    public void post(EventPublisher publisher, Map<String, Command> commands) {
+        List<Event> events = new ArrayList<>(commands.size());
+        synchronized (this) {
+            for (Map.Entry<String, Command> entry : commands.entrySet()) {
+                if (shouldPostNow(publisher, entry.getKey(), entry.getValue())) {
+                    events.add(ItemEventFactory.createCommandEvent(entry.getKey(), entry.getValue(), SOURCE));
+                }
+            }
+        }
+        for (Event event : events) {
+            publisher.post(event);
+        }
+    }
+
+    /**
+     * Discard all pending commands.
+     */
+    public synchronized void cancelAll() {
+        for (ItemThrottle throttle : throttles.values()) {
+            ScheduledFuture<?> future = throttle.flushFuture;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        throttles.clear();
+    }
+
+    /**
+     * Get the number of items with a pending, coalesced command.
+     */
+    public synchronized int getPendingCount() {
+        return (int) throttles.values().stream().filter(t -> t.pendingCommand != null).count();
+    }
+
+    private boolean shouldPostNow(EventPublisher publisher, String itemUID, Command command) {
+        int window = cs.config.commandCoalescingMillis;
+        if (window <= 0 || !(command instanceof PercentType)) {
+            ItemThrottle throttle = throttles.remove(itemUID);
+            if (throttle != null && throttle.pendingCommand != null) {
+                logger.debug("Discarding pending command {} to {}, superseded by {}", throttle.pendingCommand,
+                        itemUID, command);
+                ScheduledFuture<?> future = throttle.flushFuture;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+            return true;
+        }
+
+        ItemThrottle throttle = throttles.computeIfAbsent(itemUID, k -> new ItemThrottle());
+        long now = System.currentTimeMillis();
+        if (throttle.pendingCommand == null && now - throttle.lastPostMillis >= window) {
+            throttle.lastPostMillis = now;
+            return true;
+        }
+
+        throttle.pendingCommand = command;
+        throttle.publisher = publisher;
+        if (!throttle.flushScheduled) {
+            throttle.flushScheduled = true;
+            long delay = Math.max(0, throttle.lastPostMillis + window - now);
+            throttle.flushFuture = cs.scheduler.schedule(() -> flush(itemUID), delay, TimeUnit.MILLISECONDS);
+        }
+        return false;
+    }
+
+    private void flush(String itemUID) {
+        Command command;
+        EventPublisher publisher;
+        synchronized (this) {
+            ItemThrottle throttle = throttles.get(itemUID);
+            if (throttle == null) {
+                return;
+            }
+            command = throttle.pendingCommand;
+            publisher = throttle.publisher;
+            throttle.pendingCommand = null;
+            throttle.publisher = null;
+            throttle.flushScheduled = false;
+            throttle.flushFuture = null;
+            throttle.lastPostMillis = System.currentTimeMillis();
+        }
+        if (command != null && publisher != null) {
+            logger.debug("sending coalesced {} to {}", command, itemUID);
+            publisher.post(ItemEventFactory.createCommandEvent(itemUID, command, SOURCE));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Caches the JSON serialization of each entry of a map, like the lights of the
+ * {@link org.openhab.io.hueemulation.internal.dto.HueDataStore}.
+ * <p>
+ * An entry is serialized again only if it was replaced, if its key changed or if it was invalidated. The key is
+ * computed from the entry on every access, and must cover everything that the serialization depends on and that can
+ * change without an invalidation, like the state of the backing item.
+ * <p>
+ * The JSON of the whole map is assembled from the cached fragments, without serializing the entries again. The
+ * assembled JSON is reused, together with its entity tag, as long as none of the fragments change.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonFragmentCache<T> {
+
+    /**
+     * Serialized JSON of a whole map
+     */
+    public static class Snapshot {
+        private final Fragment[] fragments;
+        public final String json;
+        /** Entity tag of the JSON, without quotes */
+        public final String etag;
+
+        Snapshot(Fragment[] fragments, String json) {
+            this.fragments = fragments;
+            this.json = json;
+            this.etag = Integer.toHexString(json.hashCode()) + "-" + Integer.toHexString(json.length());
+        }
+    }
+
+    private static class Fragment {
+        private final Object entry;
+        private final @Nullable Object key;
+        private final String json;
+        private final String member;
+
+        Fragment(String id, Object entry, @Nullable Object key, String json) {
+            this.entry = entry;
+            this.key = key;
+            this.json = json;
+            this.member = new JsonPrimitive(id).toString() + ":" + json;
+        }
+    }
+
+    private final Function<T, @Nullable Object> keyFunction;
+    private final Function<T, String> serializer;
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+    private volatile @Nullable Snapshot snapshot;
+
+    /**
+     * Create a cache
+     *
+     * @param keyFunction computes the key of an entry. The entry is serialized again whenever the key changes.
+     * @param serializer serializes an entry to JSON
+     */
+    public JsonFragmentCache(Function<T, @Nullable Object> keyFunction, Function<T, String> serializer) {
+        this.keyFunction = keyFunction;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Get the JSON of a single entry
+     *
+     * @param id the id of the entry in the map
+     * @param entry the entry
+     * @return the serialized entry
+     */
+    public String get(String id, T entry) {
+        return fragment(id, entry).json;
+    }
+
+    /**
+     * Get the JSON object of all the entries of the map
+     *
+     * @param entries the map, iterated in its own order
+     * @return the serialized map with its entity tag
+     */
+    public Snapshot getAll(Map<String, T> entries) {
+        Fragment[] parts = new Fragment[entries.size()];
+        int i = 0;
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            parts[i++] = fragment(entry.getKey(), entry.getValue());
+        }
+
+        Snapshot last = snapshot;
+        if (last != null && sameFragments(last.fragments, parts)) {
+            return last;
+        }
+
+        StringBuilder json = new StringBuilder("{");
+        for (Fragment part : parts) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(part.member);
+        }
+        json.append('}');
+        Snapshot newSnapshot = new Snapshot(parts, json.toString());
+        snapshot = newSnapshot;
+        return newSnapshot;
+    }
+
+    private static boolean sameFragments(Fragment[] a, Fragment[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Fragment fragment(String id, T entry) {
+        Object key = keyFunction.apply(entry);
+        Fragment fragment = fragments.get(id);
+        if (fragment == null || fragment.entry != entry || !Objects.equals(fragment.key, key)) {
+            fragment = new Fragment(id, entry, key, serializer.apply(entry));
+            fragments.put(id, fragment);
+        }
+        return fragment;
+    }
+
+    /**
+     * Serialize the entry again on next access
+     *
+     * @param id the id of the entry in the map
+     */
+    public void invalidate(String id) {
+        fragments.remove(id);
+    }
+
+    /**
+     * Serialize all entries again on next access
+     */
+    public void invalidateAll() {
+        fragments.clear();
+        snapshot = null;
+    }
+}
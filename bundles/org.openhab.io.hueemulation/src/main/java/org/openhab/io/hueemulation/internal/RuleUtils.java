@@ -22,9 +22,13 @@ import java.util.regex.Pattern;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.openhab.core.automation.Action;
+import org.openhab.core.automation.Rule;
 import org.openhab.core.automation.Trigger;
 import org.openhab.core.automation.util.ModuleBuilder;
+import org.openhab.io.hueemulation.internal.automation.dto.ItemCommandActionConfig;
 import org.openhab.io.hueemulation.internal.dto.HueDataStore;
 import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
 import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
@@ -107,6 +111,44 @@ public class RuleUtils {
         }
     }
 
+    /**
+     * An item and the command of a "core.ItemCommandAction" rule action
+     */
+    public static class ItemCommandAction {
+        public final Item item;
+        public final String command;
+
+        public ItemCommandAction(Item item, String command) {
+            this.item = item;
+            this.command = command;
+        }
+    }
+
+    /**
+     * Returns the item command actions of a rule, for example of a scene, in the order of the rule actions.
+     * Other actions and actions that refer to a non existing item are skipped.
+     *
+     * @param rule A rule
+     * @param itemRegistry The item registry to look up the referred items
+     * @return The item command actions
+     */
+    public static List<ItemCommandAction> itemCommandActions(Rule rule, ItemRegistry itemRegistry) {
+        List<ItemCommandAction> actions = new ArrayList<>();
+        for (Action a : rule.getActions()) {
+            if (!a.getTypeUID().equals("core.ItemCommandAction")) {
+                continue;
+            }
+            ItemCommandActionConfig config = a.getConfiguration().as(ItemCommandActionConfig.class);
+            Item item = itemRegistry.get(config.itemName);
+            if (item == null) {
+                LOGGER.warn("Rule {} is referring to a non existing item {}", rule.getName(), config.itemName);
+                continue;
+            }
+            actions.add(new ItemCommandAction(item, config.command));
+        }
+        return actions;
+    }
+
     public static class ConfigHttpAction {
         public String url = "";
         public String method = "";
@@ -13,7 +13,11 @@
 package org.openhab.io.hueemulation.internal.rest;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,8 +30,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -38,12 +45,18 @@ import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
-import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.openhab.core.automation.Rule;
+import org.openhab.core.automation.RuleRegistry;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.DeviceType;
+import org.openhab.io.hueemulation.internal.ItemCommandDispatcher;
+import org.openhab.io.hueemulation.internal.JsonFragmentCache;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
+import org.openhab.io.hueemulation.internal.RuleUtils;
+import org.openhab.io.hueemulation.internal.RuleUtils.ItemCommandAction;
 import org.openhab.io.hueemulation.internal.StateUtils;
 import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
 import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
@@ -51,6 +64,7 @@ import org.openhab.io.hueemulation.internal.dto.HueNewLights;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueChangeRequest;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueStateChange;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
+import org.openhab.io.hueemulation.internal.dto.response.HueSuccessGeneric;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -112,6 +126,29 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     protected @NonNullByDefault({}) ItemRegistry itemRegistry;
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
     protected volatile @Nullable EventPublisher eventPublisher;
+    @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
+    protected volatile @Nullable RuleRegistry ruleRegistry;
+
+    private @NonNullByDefault({}) ItemCommandDispatcher commandDispatcher;
+
+    /**
+     * Serialized lights. A light is serialized again if the state or label of its item changes, or if a command was
+     * sent to it.
+     */
+    private final JsonFragmentCache<HueLightEntry> lightsJson = new JsonFragmentCache<>(
+            light -> Arrays.asList(light.item, light.item.getState(), light.item.getLabel(), light.lastCommand,
+                    light.lastHueChange),
+            light -> cs.gson.toJson(light));
+
+    /**
+     * Serialized groups. A group is serialized again if its members change. Changes to the group action are
+     * invalidated explicitly.
+     */
+    private final JsonFragmentCache<HueGroupEntry> groupsJson = new JsonFragmentCache<>(
+            group -> Arrays.asList(group.groupItem,
+                    group.groupItem != null ? group.groupItem.getMembers() : group.lights, group.action, group.name,
+                    group.type, group.roomclass, group.sensors),
+            group -> cs.gson.toJson(group));
 
     /**
      * Registers to the {@link ItemRegistry} and enumerates currently existing items.
@@ -119,6 +156,9 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Activate
     protected void activate() {
         cs.ds.resetGroupsAndLights();
+        lightsJson.invalidateAll();
+        groupsJson.invalidateAll();
+        commandDispatcher = new ItemCommandDispatcher(cs);
 
         itemRegistry.removeRegistryChangeListener(this);
         itemRegistry.addRegistryChangeListener(this);
@@ -134,6 +174,7 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Deactivate
     protected void deactivate() {
         itemRegistry.removeRegistryChangeListener(this);
+        commandDispatcher.cancelAll();
     }
 
     @Override
@@ -153,6 +194,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         }
 
         String hueID = cs.mapItemUIDtoHueID(element);
+        lightsJson.invalidate(hueID);
+        groupsJson.invalidate(hueID);
 
         if (element instanceof GroupItem && !element.hasTag(EXPOSE_AS_DEVICE_TAG)) {
             GroupItem g = (GroupItem) element;
@@ -196,6 +239,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         logger.debug("Remove item {}", hueID);
         cs.ds.lights.remove(hueID);
         cs.ds.groups.remove(hueID);
+        lightsJson.invalidate(hueID);
+        groupsJson.invalidate(hueID);
         updateGroup0();
     }
 
@@ -211,6 +256,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         GenericItem element = (GenericItem) newElement;
 
         String hueID = cs.mapItemUIDtoHueID(element);
+        lightsJson.invalidate(hueID);
+        groupsJson.invalidate(hueID);
 
         HueGroupEntry hueGroup = cs.ds.groups.get(hueID);
         if (hueGroup != null) {
@@ -243,12 +290,12 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        return cachedResponse(request, lightsJson.getAll(cs.ds.lights));
     }
 
     @GET
@@ -285,7 +332,11 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        if (hueDevice == null) {
+            return Response.ok("null").build();
+        }
+        return Response.ok(lightsJson.get(id, hueDevice)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -373,13 +424,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
 
         // If a command could be created, post it to the framework now
         if (command != null) {
-            EventPublisher localEventPublisher = eventPublisher;
-            if (localEventPublisher != null) {
-                logger.debug("sending {} to {}", command, itemUID);
-                localEventPublisher.post(ItemEventFactory.createCommandEvent(itemUID, command, "hueemulation"));
-            } else {
-                logger.warn("No event publisher. Cannot post item '{}' command!", itemUID);
-            }
+            logger.debug("sending {} to {}", command, itemUID);
+            postCommands(Collections.singletonMap(itemUID, command));
             hueDevice.lastCommand = command;
             hueDevice.lastHueChange = newState;
         }
@@ -415,35 +461,77 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         hueDevice.action = StateUtils.colorStateFromItemState(groupItem.getState(), hueDevice.deviceType);
 
         List<HueResponse> responses = new ArrayList<>();
+        // The item commands of this request are collected first and then posted one by one
+        Map<String, Command> commands = new LinkedHashMap<>();
+
+        String sceneId = state.scene;
+        if (sceneId != null) {
+            if (!collectSceneCommands(sceneId, commands)) {
+                return NetworkUtils.singleError(cs.gson, uri, HueResponse.NOT_AVAILABLE, "Scene not existing");
+            }
+            responses.add(new HueResponse(new HueSuccessGeneric(sceneId, "/groups/" + id + "/action/scene")));
+        }
+
         Command command = StateUtils.computeCommandByState(responses, "/groups/" + id + "/state/", hueDevice.action,
                 state);
-
-        // If a command could be created, post it to the framework now
         if (command != null) {
-            logger.debug("sending {} to {}", command, id);
-            EventPublisher localEventPublisher = eventPublisher;
-            if (localEventPublisher != null) {
-                localEventPublisher
-                        .post(ItemEventFactory.createCommandEvent(groupItem.getUID(), command, "hueemulation"));
-            } else {
-                logger.warn("No event publisher. Cannot post item '{}' command!", groupItem.getUID());
-            }
+            commands.put(groupItem.getUID(), command);
+        }
+
+        // If commands could be created, post them to the framework now
+        if (!commands.isEmpty()) {
+            logger.debug("sending {} to group {}", commands, id);
+            postCommands(commands);
         }
+        // The group action was changed in place
+        groupsJson.invalidate(id);
 
         return Response.ok(cs.gson.toJson(responses, new TypeToken<List<?>>() {
         }.getType())).build();
     }
 
+    /**
+     * Collects the item commands of the given scene, in the order of the scene actions.
+     *
+     * @return false if the scene does not exist
+     */
+    private boolean collectSceneCommands(String sceneId, Map<String, Command> commands) {
+        RuleRegistry localRuleRegistry = ruleRegistry;
+        Rule scene = localRuleRegistry != null ? localRuleRegistry.get(sceneId) : null;
+        if (scene == null || !scene.getTags().contains("scene")) {
+            return false;
+        }
+        for (ItemCommandAction action : RuleUtils.itemCommandActions(scene, itemRegistry)) {
+            Command command = TypeParser.parseCommand(action.item.getAcceptedCommandTypes(), action.command);
+            if (command == null) {
+                logger.warn("Scene {} has an invalid command {} for item {}", scene.getName(), action.command,
+                        action.item.getName());
+                continue;
+            }
+            commands.put(action.item.getUID(), command);
+        }
+        return true;
+    }
+
+    private void postCommands(Map<String, Command> commands) {
+        EventPublisher localEventPublisher = eventPublisher;
+        if (localEventPublisher != null) {
+            commandDispatcher.post(localEventPublisher, commands);
+        } else {
+            logger.warn("No event publisher. Cannot post item commands {}!", commands.keySet());
+        }
+    }
+
     @GET
     @Path("{username}/groups")
     @ApiOperation(value = "Return all groups")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllGroupsApi(@Context UriInfo uri,
+    public Response getAllGroupsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        return cachedResponse(request, groupsJson.getAll(cs.ds.groups));
     }
 
     @GET
@@ -456,7 +544,11 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups.get(id))).build();
+        HueGroupEntry hueGroup = cs.ds.groups.get(id);
+        if (hueGroup == null) {
+            return Response.ok("null").build();
+        }
+        return Response.ok(groupsJson.get(id, hueGroup)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -527,4 +619,17 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.NOT_AVAILABLE, "Group does not exist");
         }
     }
+
+    /**
+     * Answers with "304 Not Modified" if the client already has the current JSON, according to the If-None-Match
+     * header.
+     */
+    private Response cachedResponse(Request request, JsonFragmentCache.Snapshot snapshot) {
+        EntityTag etag = new EntityTag(snapshot.etag);
+        ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(snapshot.json).tag(etag).build();
+    }
 }
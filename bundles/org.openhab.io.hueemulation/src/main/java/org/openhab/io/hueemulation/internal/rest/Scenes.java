@@ -50,8 +50,9 @@ import org.openhab.core.automation.util.ModuleBuilder;
 import org.openhab.core.automation.util.RuleBuilder;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
+import org.openhab.io.hueemulation.internal.RuleUtils;
+import org.openhab.io.hueemulation.internal.RuleUtils.ItemCommandAction;
 import org.openhab.io.hueemulation.internal.StateUtils;
-import org.openhab.io.hueemulation.internal.automation.dto.ItemCommandActionConfig;
 import org.openhab.io.hueemulation.internal.dto.AbstractHueState;
 import org.openhab.io.hueemulation.internal.dto.HueSceneEntry;
 import org.openhab.io.hueemulation.internal.dto.HueSceneWithLightstates;
@@ -124,18 +125,8 @@ public class Scenes implements RegistryChangeListener<Rule> {
 
         List<String> items = new ArrayList<>();
 
-        for (Action a : scene.getActions()) {
-            if (!a.getTypeUID().equals("core.ItemCommandAction")) {
-                continue;
-            }
-            ItemCommandActionConfig config = a.getConfiguration().as(ItemCommandActionConfig.class);
-            Item item;
-            try {
-                item = itemRegistry.getItem(config.itemName);
-            } catch (ItemNotFoundException e) {
-                logger.warn("Rule {} is referring to a non existing item {}", scene.getName(), config.itemName);
-                continue;
-            }
+        for (ItemCommandAction action : RuleUtils.itemCommandActions(scene, itemRegistry)) {
+            Item item = action.item;
             if (scene.getActions().size() == 1 && item instanceof GroupItem) {
                 entry.type = HueSceneEntry.TypeEnum.GroupScene;
                 entry.group = cs.mapItemUIDtoHueID(item);
@@ -14,12 +14,19 @@ package org.openhab.io.hueemulation.internal.rest;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
-import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -31,10 +38,16 @@ import org.eclipse.smarthome.core.library.items.ColorItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
 import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.Command;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.automation.Rule;
+import org.openhab.core.automation.RuleRegistry;
+import org.openhab.core.automation.util.RuleBuilder;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.dto.HueGroupEntry;
@@ -42,6 +55,7 @@ import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
 import org.openhab.io.hueemulation.internal.dto.HueStateColorBulb;
 import org.openhab.io.hueemulation.internal.dto.HueStatePlug;
 import org.openhab.io.hueemulation.internal.rest.mocks.DummyItemRegistry;
+import org.openhab.io.hueemulation.internal.rest.mocks.DummyRuleRegistry;
 
 /**
  * Tests for {@link LightsAndGroups}.
@@ -335,6 +349,158 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void getAllLightsCachedWithEtag() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        assertThat(etag, is(notNullValue()));
+        String body = response.readEntity(String.class);
+
+        // Unchanged lights
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        // The item state changes, the light is serialized again
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), is(not(etag)));
+        assertThat(response.readEntity(String.class), is(not(body)));
+    }
+
+    @Test
+    public void getAllGroupsCachedWithEtag() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        assertThat(response.readEntity(String.class), containsString("\"10\":{"));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(304, response.getStatus());
+
+        cs.ds.groups.get("10").name = "renamed";
+        cs.ds.groups.get("10").type = "Room";
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString()).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), containsString("renamed"));
+    }
+
+    @Test
+    public void recallSceneSkipsNonExistingItems() {
+        itemRegistry.add(new SwitchItem("sceneSwitch1"));
+        RuleRegistry ruleRegistry = new DummyRuleRegistry();
+        ruleRegistry.add(RuleBuilder.create("scene1").withTags("scene") //
+                .withActions(Scenes.actionFromState("removedSwitch", (Command) OnOffType.OFF),
+                        Scenes.actionFromState("sceneSwitch1", (Command) OnOffType.ON))
+                .build());
+        subject.ruleRegistry = ruleRegistry;
+
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups/10/action").request()
+                .put(Entity.json("{'scene':'scene1'}"));
+        assertEquals(200, response.getStatus());
+
+        ArgumentCaptor<Event> events = ArgumentCaptor.forClass(Event.class);
+        verify(commonSetup.eventPublisher, times(1)).post(events.capture());
+        assertThat(((ItemCommandEvent) events.getValue()).getItemName(), is("sceneSwitch1"));
+        assertThat(((ItemCommandEvent) events.getValue()).getItemCommand(), is(OnOffType.ON));
+    }
+
+    @Test
+    public void recallSceneViaGroupAction() {
+        itemRegistry.add(new SwitchItem("sceneSwitch1"));
+        itemRegistry.add(new SwitchItem("sceneSwitch2"));
+        RuleRegistry ruleRegistry = new DummyRuleRegistry();
+        ruleRegistry.add(RuleBuilder.create("scene1").withTags("scene") //
+                .withActions(Scenes.actionFromState("sceneSwitch1", (Command) OnOffType.ON),
+                        Scenes.actionFromState("sceneSwitch2", (Command) OnOffType.OFF))
+                .build());
+        subject.ruleRegistry = ruleRegistry;
+
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups/10/action").request()
+                .put(Entity.json("{'scene':'scene1'}"));
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), is("[{\"success\":{\"/groups/10/action/scene\":\"scene1\"}}]"));
+
+        ArgumentCaptor<Event> events = ArgumentCaptor.forClass(Event.class);
+        verify(commonSetup.eventPublisher, times(2)).post(events.capture());
+        assertThat(((ItemCommandEvent) events.getAllValues().get(0)).getItemName(), is("sceneSwitch1"));
+        assertThat(((ItemCommandEvent) events.getAllValues().get(0)).getItemCommand(), is(OnOffType.ON));
+        assertThat(((ItemCommandEvent) events.getAllValues().get(1)).getItemName(), is("sceneSwitch2"));
+        assertThat(((ItemCommandEvent) events.getAllValues().get(1)).getItemCommand(), is(OnOffType.OFF));
+
+        // Not a scene
+        Rule rule = RuleBuilder.create("notascene").build();
+        ruleRegistry.add(rule);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/groups/10/action").request()
+                .put(Entity.json("{'scene':'notascene'}"));
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    public void sliderChangesAreCoalesced() {
+        List<Runnable> scheduled = enableCoalescing();
+
+        changeBrightness("2", 100);
+        changeBrightness("2", 150);
+        changeBrightness("2", 200);
+        // Only the first change is posted immediately, the others are coalesced
+        verify(commonSetup.eventPublisher, times(1)).post(any());
+        assertThat(scheduled.size(), is(1));
+
+        scheduled.get(0).run();
+        ArgumentCaptor<Event> events = ArgumentCaptor.forClass(Event.class);
+        verify(commonSetup.eventPublisher, times(2)).post(events.capture());
+        // bri 100 and 200 of 254
+        assertThat(((ItemCommandEvent) events.getAllValues().get(0)).getItemCommand(), is(new PercentType(39)));
+        assertThat(((ItemCommandEvent) events.getAllValues().get(1)).getItemCommand(), is(new PercentType(79)));
+    }
+
+    @Test
+    public void switchingOffDiscardsCoalescedSliderChange() {
+        List<Runnable> scheduled = enableCoalescing();
+
+        changeBrightness("2", 100);
+        changeBrightness("2", 150);
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/2/state").request()
+                .put(Entity.json("{'on':false}"));
+        assertEquals(200, response.getStatus());
+
+        // The pending brightness must not turn the light on again
+        scheduled.forEach(Runnable::run);
+        ArgumentCaptor<Event> events = ArgumentCaptor.forClass(Event.class);
+        verify(commonSetup.eventPublisher, times(2)).post(events.capture());
+        assertThat(((ItemCommandEvent) events.getAllValues().get(1)).getItemCommand(), is(OnOffType.OFF));
+    }
+
+    /**
+     * Use a coalescing window that will not pass during a test, and collect the scheduled flushes instead of running
+     * them immediately.
+     */
+    private List<Runnable> enableCoalescing() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("uuid", "demouuid");
+        properties.put("commandCoalescingMillis", 60000);
+        cs.modified(properties);
+
+        List<Runnable> scheduled = new ArrayList<>();
+        when(commonSetup.scheduler.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(answer -> {
+            scheduled.add(answer.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+        return scheduled;
+    }
+
+    private void changeBrightness(String id, int bri) {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights/" + id + "/state")
+                .request().put(Entity.json("{'bri':" + bri + "}"));
+        assertEquals(200, response.getStatus());
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
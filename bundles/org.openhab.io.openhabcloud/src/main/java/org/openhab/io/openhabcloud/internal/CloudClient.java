@@ -20,26 +20,30 @@ import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
 import org.eclipse.jetty.client.api.Response;
-import org.eclipse.jetty.client.api.Response.ContentListener;
+import org.eclipse.jetty.client.api.Response.AsyncContentListener;
 import org.eclipse.jetty.client.api.Response.HeadersListener;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
@@ -67,6 +71,23 @@ import io.socket.engineio.client.Transport;
  */
 
 public class CloudClient {
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+
+    /*
+     * Number of response bytes that may be handed to socket.io before waiting for the transport to drain
+     */
+    private static final int RESPONSE_WINDOW_SIZE = 256 * 1024;
+
+    /*
+     * Time without new response content after which content that does not fill a complete frame is sent
+     */
+    private static final long RESPONSE_FLUSH_IDLE_MILLIS = 50;
+
+    /*
+     * Request header set by Atmosphere clients (Classic UI, apps) for push transports such as long polling
+     */
+    private static final String ATMOSPHERE_TRANSPORT_HEADER = "X-Atmosphere-Transport";
+
     /*
      * Logger for this class
      */
@@ -98,9 +119,26 @@ public class CloudClient {
     private final HttpClient jettyClient;
 
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This map holds HTTP requests to local openHAB which are currently running
      */
-    private Map<Integer, Request> runningRequests;
+    private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
+
+    /*
+     * Size of the frames proxied response content is collected into before sending it to the openHAB Cloud
+     */
+    private final int responseFrameSize;
+
+    /*
+     * Whether to gzip compressible response content if the requesting client accepts it
+     */
+    private final boolean compressResponses;
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD);
+
+    /*
+     * Flow control between local responses and the socket.io connection
+     */
+    private final ResponseFlowControl flowControl = new ResponseFlowControl(RESPONSE_WINDOW_SIZE, scheduler);
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -138,16 +176,20 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param responseFrameSize Size of the frames response content is collected into before it is sent to the openHAB
+     *            Cloud
+     * @param compressResponses Gzip compressible response content if the requesting client accepts it
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, int responseFrameSize, boolean compressResponses) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<>();
+        this.responseFrameSize = responseFrameSize;
+        this.compressResponses = compressResponses;
         this.jettyClient = httpClient;
     }
 
@@ -183,6 +225,12 @@ public class CloudClient {
                         headers.put("remoteaccess", Arrays.asList(((Boolean) remoteAccessEnabled).toString()));
                     }
                 });
+                transport.on(Transport.EVENT_DRAIN, new Emitter.Listener() {
+                    @Override
+                    public void call(Object... args) {
+                        flowControl.drained();
+                    }
+                });
             }
         });
         socket.on(Socket.EVENT_CONNECT, new Emitter.Listener() {
@@ -242,9 +290,9 @@ public class CloudClient {
                 this.localBaseUrl);
         isConnected = false;
         // And clean up the list of running requests
-        if (runningRequests != null) {
-            runningRequests.clear();
-        }
+        runningRequests.clear();
+        // Do not keep responses waiting for a transport that is gone
+        flowControl.drained();
     }
 
     /**
@@ -334,8 +382,10 @@ public class CloudClient {
                 logger.warn("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
+            ResponseListener listener = new ResponseListener(requestId, acceptsGzip(requestHeadersJson),
+                    hasHeader(requestHeadersJson, ATMOSPHERE_TRANSPORT_HEADER));
+            request.onResponseHeaders(listener).onResponseContentAsync(listener).onRequestFailure(listener)
+                    .send(listener);
             // If successfully submitted request to http client, add it to the list of currently
             // running requests to be able to cancel it if needed
             runningRequests.put(requestId, request);
@@ -363,15 +413,37 @@ public class CloudClient {
         }
     }
 
+    private boolean hasHeader(JSONObject requestHeadersJson, String name) {
+        @SuppressWarnings("unchecked")
+        Iterator<String> headersIterator = requestHeadersJson.keys();
+        while (headersIterator.hasNext()) {
+            if (headersIterator.next().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acceptsGzip(JSONObject requestHeadersJson) {
+        @SuppressWarnings("unchecked")
+        Iterator<String> headersIterator = requestHeadersJson.keys();
+        while (headersIterator.hasNext()) {
+            String headerName = headersIterator.next();
+            if (HttpHeader.ACCEPT_ENCODING.is(headerName)) {
+                return requestHeadersJson.optString(headerName).toLowerCase(Locale.ROOT).contains("gzip");
+            }
+        }
+        return false;
+    }
+
     private void handleCancelEvent(JSONObject data) {
         try {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and abort running request
-            if (runningRequests.containsKey(requestId)) {
-                Request request = runningRequests.get(requestId);
+            Request request = runningRequests.remove(requestId);
+            if (request != null) {
                 request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
             }
         } catch (JSONException e) {
             logger.debug("{}", e.getMessage());
@@ -522,28 +594,101 @@ public class CloudClient {
      * An internal class which forwards response headers and data back to the openHAB Cloud
      */
     private class ResponseListener
-            implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
+            implements Response.CompleteListener, HeadersListener, AsyncContentListener, FailureListener {
 
-        private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
-
-        public ResponseListener(int requestId) {
+        private final boolean mAcceptsGzip;
+        private final boolean mPushRequest;
+        private ResponseFrameEncoder mEncoder;
+        private ScheduledFuture<?> mFlushFuture;
+        private long mLastContentMillis;
+        private boolean mCompleted;
+
+        public ResponseListener(int requestId, boolean acceptsGzip, boolean pushRequest) {
             mRequestId = requestId;
+            mAcceptsGzip = acceptsGzip;
+            mPushRequest = pushRequest;
         }
 
-        private JSONObject getJSONHeaders(HttpFields httpFields) {
+        private JSONObject getJSONHeaders(HttpFields httpFields, boolean compressed) {
             JSONObject headersJSON = new JSONObject();
             try {
                 for (HttpField field : httpFields) {
+                    if (compressed && field.getHeader() == HttpHeader.CONTENT_LENGTH) {
+                        // The length of the compressed content is not known in advance
+                        continue;
+                    }
                     headersJSON.put(field.getName(), field.getValue());
                 }
+                if (compressed) {
+                    headersJSON.put(HttpHeader.CONTENT_ENCODING.asString(), "gzip");
+                    headersJSON.put(HttpHeader.VARY.asString(), HttpHeader.ACCEPT_ENCODING.asString());
+                }
             } catch (JSONException e) {
                 logger.warn("Error forming response headers: {}", e.getMessage());
             }
             return headersJSON;
         }
 
+        private boolean shouldCompress(Response response) {
+            if (!compressResponses || !mAcceptsGzip
+                    || response.getHeaders().containsKey(HttpHeader.CONTENT_ENCODING.asString())) {
+                return false;
+            }
+            String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+            if (contentType == null || isEventStream(response)) {
+                // Events must reach the client one by one, compressing them gains nothing
+                return false;
+            }
+            contentType = contentType.toLowerCase(Locale.ROOT);
+            return contentType.startsWith("text/") || contentType.startsWith("application/json")
+                    || contentType.startsWith("application/javascript") || contentType.startsWith("application/xml")
+                    || contentType.startsWith("image/svg+xml") || contentType.contains("+json")
+                    || contentType.contains("+xml");
+        }
+
+        private boolean isEventStream(Response response) {
+            String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+            return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/event-stream");
+        }
+
+        /**
+         * Send the content held back by the encoder once no new content has been received for a while
+         */
+        private synchronized void flushIdleContent() {
+            mFlushFuture = null;
+            if (mCompleted || mEncoder == null || !mEncoder.hasUnflushedContent()) {
+                return;
+            }
+            long idleMillis = System.currentTimeMillis() - mLastContentMillis;
+            if (idleMillis < RESPONSE_FLUSH_IDLE_MILLIS) {
+                mFlushFuture = scheduler.schedule(this::flushIdleContent, RESPONSE_FLUSH_IDLE_MILLIS - idleMillis,
+                        TimeUnit.MILLISECONDS);
+                return;
+            }
+            try {
+                emitFrames(mEncoder.flush());
+            } catch (IOException e) {
+                logger.debug("Could not flush response content of request {}: {}", mRequestId, e.getMessage());
+            }
+        }
+
+        private void emitFrames(List<byte[]> frames) {
+            for (byte[] frame : frames) {
+                JSONObject responseJson = new JSONObject();
+                try {
+                    responseJson.put("id", mRequestId);
+                    responseJson.put("body", frame);
+                    flowControl.sent(frame.length);
+                    socket.emit("responseContentBinary", responseJson);
+                    logger.debug("Sent content of size {} to request {}", frame.length, mRequestId);
+                } catch (JSONException e) {
+                    logger.debug("{}", e.getMessage());
+                }
+            }
+        }
+
         @Override
         public void onComplete(Result result) {
             // Remove this request from list of running requests
@@ -561,12 +706,33 @@ public class CloudClient {
                 }
             }
 
+            // Send the content that did not fill a complete frame
+            synchronized (this) {
+                mCompleted = true;
+                if (mFlushFuture != null) {
+                    mFlushFuture.cancel(false);
+                    mFlushFuture = null;
+                }
+                if (mEncoder != null) {
+                    try {
+                        emitFrames(mEncoder.finish());
+                        if (mEncoder.isCompressed()) {
+                            logger.debug("Compressed response to request {} from {} to {} bytes", mRequestId,
+                                    mEncoder.getContentBytes(), mEncoder.getEncodedBytes());
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Could not finish response content of request {}: {}", mRequestId,
+                                e.getMessage());
+                    }
+                }
+            }
+
             /**
              * What is this? In some cases where latency is very low the myopenhab service
              * can receive responseFinished before the headers or content are received and I
              * cannot find another workaround to prevent it.
              */
-            ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD).schedule(() -> {
+            scheduler.schedule(() -> {
                 JSONObject responseJson = new JSONObject();
                 try {
                     responseJson.put("id", mRequestId);
@@ -591,28 +757,48 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
+        public void onContent(Response response, ByteBuffer content, Callback callback) {
             logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
-            JSONObject responseJson = new JSONObject();
-            try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
-                socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
-            } catch (JSONException e) {
-                logger.debug("{}", e.getMessage());
+            synchronized (this) {
+                try {
+                    if (mEncoder == null) {
+                        mEncoder = new ResponseFrameEncoder(responseFrameSize, false, mPushRequest);
+                    }
+                    emitFrames(mEncoder.write(content));
+                } catch (IOException e) {
+                    logger.debug("Could not process response content of request {}: {}", mRequestId,
+                            e.getMessage());
+                    callback.failed(e);
+                    return;
+                }
+                mLastContentMillis = System.currentTimeMillis();
+                if (mFlushFuture == null && mEncoder.hasUnflushedContent()) {
+                    mFlushFuture = scheduler.schedule(this::flushIdleContent, RESPONSE_FLUSH_IDLE_MILLIS,
+                            TimeUnit.MILLISECONDS);
+                }
             }
+            // Read further content once socket.io has caught up
+            flowControl.whenOpen(callback::succeeded);
         }
 
         @Override
-        public void onHeaders(Response response) {
+        public synchronized void onHeaders(Response response) {
             if (!mHeadersSent) {
                 logger.debug("Jetty finished receiving response header");
                 JSONObject responseJson = new JSONObject();
                 mHeadersSent = true;
+                boolean compress = shouldCompress(response);
+                // Pushed content must reach the client as soon as it is received
+                boolean streaming = mPushRequest || isEventStream(response);
+                try {
+                    mEncoder = new ResponseFrameEncoder(responseFrameSize, compress, streaming);
+                } catch (IOException e) {
+                    logger.debug("Could not set up response content encoding: {}", e.getMessage());
+                    compress = false;
+                }
                 try {
                     responseJson.put("id", mRequestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
+                    responseJson.put("headers", getJSONHeaders(response.getHeaders(), compress));
                     responseJson.put("responseStatusCode", response.getStatus());
                     responseJson.put("responseStatusText", "OK");
                     socket.emit("responseHeader", responseJson);
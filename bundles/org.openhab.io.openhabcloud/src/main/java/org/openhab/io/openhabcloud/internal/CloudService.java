@@ -82,6 +82,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_RESPONSE_FRAME_SIZE = "responseFrameSize";
+    private static final String CFG_COMPRESS_RESPONSES = "compressResponses";
+    private static final int DEFAULT_RESPONSE_FRAME_SIZE = 16 * 1024;
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
@@ -99,6 +102,8 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     private boolean remoteAccessEnabled = true;
     private Set<String> exposedItems = null;
+    private int responseFrameSize = DEFAULT_RESPONSE_FRAME_SIZE;
+    private boolean compressResponses = false;
     private int localPort;
 
     public CloudService() {
@@ -218,6 +223,21 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             }
         }
 
+        Object frameSizeCfg = config.get(CFG_RESPONSE_FRAME_SIZE);
+        responseFrameSize = DEFAULT_RESPONSE_FRAME_SIZE;
+        if (frameSizeCfg instanceof Number) {
+            responseFrameSize = Math.max(1024, ((Number) frameSizeCfg).intValue());
+        } else if (frameSizeCfg != null) {
+            try {
+                responseFrameSize = Math.max(1024, Integer.parseInt(frameSizeCfg.toString().trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}', using {}", CFG_RESPONSE_FRAME_SIZE, frameSizeCfg,
+                        DEFAULT_RESPONSE_FRAME_SIZE);
+            }
+        }
+        Object compressCfg = config.get(CFG_COMPRESS_RESPONSES);
+        compressResponses = compressCfg != null && Boolean.parseBoolean(compressCfg.toString().trim());
+
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
         if (cloudClient != null) {
@@ -237,7 +257,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
-                remoteAccessEnabled, exposedItems);
+                remoteAccessEnabled, exposedItems, responseFrameSize, compressResponses);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Window based flow control between the local Jetty responses and the socket.io connection.
+ *
+ * socket.io emits are queued without limit until the transport has written them. Every emitted frame is counted
+ * against the window; once the window is full, reading further response content from Jetty is postponed until the
+ * transport reports that it has drained its queue. This way large responses (charts, images) are streamed through
+ * a bounded amount of memory instead of being read completely into the socket.io queue.
+ *
+ * @author agent - Initial contribution
+ */
+class ResponseFlowControl {
+
+    private final long windowSize;
+    private final Executor executor;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private long inFlightBytes;
+
+    /**
+     * @param windowSize number of bytes that may be emitted before waiting for the transport to drain
+     * @param executor executor used to resume waiting continuations
+     */
+    ResponseFlowControl(long windowSize, Executor executor) {
+        this.windowSize = windowSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Account bytes that were handed to socket.io
+     */
+    synchronized void sent(int bytes) {
+        inFlightBytes += bytes;
+    }
+
+    /**
+     * Run the continuation now if the window is open, otherwise as soon as the transport has drained
+     */
+    void whenOpen(Runnable continuation) {
+        synchronized (this) {
+            if (inFlightBytes >= windowSize) {
+                waiting.add(continuation);
+                return;
+            }
+        }
+        continuation.run();
+    }
+
+    /**
+     * Called when the transport has written all queued packets, or when the connection was lost. Opens the window
+     * and resumes all waiting continuations.
+     */
+    void drained() {
+        List<Runnable> ready;
+        synchronized (this) {
+            inFlightBytes = 0;
+            if (waiting.isEmpty()) {
+                return;
+            }
+            ready = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        ready.forEach(executor::execute);
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Collects the content chunks of a proxied response into frames of a fixed size, optionally gzip compressing the
+ * content. Jetty delivers response content in many small chunks, sending each of them as its own socket.io event
+ * causes a lot of overhead on slow links. Content that does not fill a complete frame is held back until more content
+ * arrives, {@link #flush()} is called or the content is finished.
+ *
+ * Streaming responses (server-sent events, long polling) must reach the client without delay. In streaming mode,
+ * everything received from Jetty is emitted at the end of every chunk instead, and compressed content is sync flushed.
+ *
+ * Not thread safe, the caller serializes the delivery of the content and the flushes.
+ *
+ * @author agent - Initial contribution
+ */
+class ResponseFrameEncoder {
+
+    private final int frameSize;
+    private final boolean streaming;
+    private final ByteArrayOutputStream buffer;
+    private final GZIPOutputStream gzip;
+    private boolean unflushed;
+    private long contentBytes;
+    private long encodedBytes;
+
+    /**
+     * @param frameSize size of the emitted frames in bytes. Frames emitted by a flush may be smaller.
+     * @param compress whether to gzip the content
+     * @param streaming whether to emit all content at the end of every chunk
+     */
+    ResponseFrameEncoder(int frameSize, boolean compress, boolean streaming) throws IOException {
+        this.frameSize = Math.max(1, frameSize);
+        this.streaming = streaming;
+        this.buffer = new ByteArrayOutputStream(Math.min(this.frameSize, 64 * 1024) + 1024);
+        this.gzip = compress ? new GZIPOutputStream(buffer, 8192, true) : null;
+    }
+
+    /**
+     * Add response content
+     *
+     * @param content content received from Jetty. Consumed completely.
+     * @return frames that can be sent, possibly empty. In streaming mode, all content received so far.
+     */
+    List<byte[]> write(ByteBuffer content) throws IOException {
+        int length = content.remaining();
+        contentBytes += length;
+        if (content.hasArray()) {
+            write(content.array(), content.arrayOffset() + content.position(), length);
+            content.position(content.limit());
+        } else {
+            byte[] bytes = new byte[length];
+            content.get(bytes);
+            write(bytes, 0, length);
+        }
+        if (length > 0) {
+            unflushed = true;
+        }
+        if (streaming) {
+            return flush();
+        }
+        List<byte[]> frames = takeFrames(false);
+        if (gzip == null && buffer.size() == 0) {
+            unflushed = false;
+        }
+        return frames;
+    }
+
+    /**
+     * Emit all content received so far, including the content that does not fill a complete frame
+     *
+     * @return the frames, possibly empty
+     */
+    List<byte[]> flush() throws IOException {
+        if (gzip != null && unflushed) {
+            gzip.flush();
+        }
+        unflushed = false;
+        return takeFrames(true);
+    }
+
+    /**
+     * Finish the content
+     *
+     * @return the remaining frames
+     */
+    List<byte[]> finish() throws IOException {
+        if (gzip != null) {
+            gzip.finish();
+        }
+        unflushed = false;
+        return takeFrames(true);
+    }
+
+    /**
+     * Whether content received from Jetty has not been emitted yet
+     */
+    boolean hasUnflushedContent() {
+        return unflushed;
+    }
+
+    boolean isStreaming() {
+        return streaming;
+    }
+
+    boolean isCompressed() {
+        return gzip != null;
+    }
+
+    /**
+     * Number of content bytes received from Jetty
+     */
+    long getContentBytes() {
+        return contentBytes;
+    }
+
+    /**
+     * Number of (compressed) bytes emitted as frames
+     */
+    long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (gzip != null) {
+            gzip.write(bytes, offset, length);
+        } else {
+            buffer.write(bytes, offset, length);
+        }
+    }
+
+    private List<byte[]> takeFrames(boolean all) {
+        int size = buffer.size();
+        if (size == 0 || (!all && size < frameSize)) {
+            return Collections.emptyList();
+        }
+        byte[] data = buffer.toByteArray();
+        buffer.reset();
+        List<byte[]> frames = new ArrayList<>(size / frameSize + 1);
+        int offset = 0;
+        while (size - offset >= frameSize) {
+            frames.add(Arrays.copyOfRange(data, offset, offset + frameSize));
+            offset += frameSize;
+        }
+        if (offset < size) {
+            if (all) {
+                frames.add(Arrays.copyOfRange(data, offset, size));
+            } else {
+                buffer.write(data, offset, size - offset);
+            }
+        }
+        encodedBytes += size - buffer.size();
+        return frames;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ResponseFlowControl}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ResponseFlowControlTest {
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private final List<String> calls = new ArrayList<>();
+    private final ResponseFlowControl flowControl = new ResponseFlowControl(100, executed::add);
+
+    private void runExecuted() {
+        List<Runnable> tasks = new ArrayList<>(executed);
+        executed.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testContinuationRunsImmediatelyWhileWindowIsOpen() {
+        flowControl.sent(99);
+        flowControl.whenOpen(() -> calls.add("first"));
+
+        assertThat(calls, is(Arrays.asList("first")));
+        assertThat(executed.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testContinuationWaitsForDrainWhenWindowIsFull() {
+        flowControl.sent(60);
+        flowControl.sent(40);
+        flowControl.whenOpen(() -> calls.add("first"));
+        flowControl.whenOpen(() -> calls.add("second"));
+
+        assertThat(calls.isEmpty(), is(true));
+
+        flowControl.drained();
+        assertThat(executed.size(), is(2));
+        runExecuted();
+        assertThat(calls, is(Arrays.asList("first", "second")));
+    }
+
+    @Test
+    public void testDrainReopensWindow() {
+        flowControl.sent(100);
+        flowControl.drained();
+
+        flowControl.whenOpen(() -> calls.add("first"));
+        assertThat(calls, is(Arrays.asList("first")));
+
+        flowControl.sent(100);
+        flowControl.whenOpen(() -> calls.add("second"));
+        assertThat(calls, is(Arrays.asList("first")));
+        flowControl.drained();
+        runExecuted();
+        assertThat(calls, is(Arrays.asList("first", "second")));
+    }
+
+    @Test
+    public void testDrainWithoutWaitingContinuations() {
+        flowControl.drained();
+        assertThat(executed.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testContinuationsAreResumedOnlyOnce() {
+        flowControl.sent(100);
+        flowControl.whenOpen(() -> calls.add("first"));
+        flowControl.drained();
+        flowControl.drained();
+
+        assertThat(executed.size(), is(1));
+        runExecuted();
+        assertThat(calls, is(Arrays.asList("first")));
+    }
+}
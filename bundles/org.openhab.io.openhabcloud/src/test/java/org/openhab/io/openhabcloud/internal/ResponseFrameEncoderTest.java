@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ResponseFrameEncoder}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ResponseFrameEncoderTest {
+
+    private static ByteBuffer content(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(List<byte[]> frames) throws IOException {
+        return new String(concat(frames), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(List<byte[]> frames) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] frame : frames) {
+            out.write(frame);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed, int length) throws IOException {
+        byte[] result = new byte[length];
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(compressed)))) {
+            in.readFully(result);
+        }
+        return result;
+    }
+
+    @Test
+    public void testSmallChunksAreCoalescedIntoFrames() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(4, false, false);
+
+        assertThat(encoder.write(content("abc")).isEmpty(), is(true));
+        assertThat(encoder.hasUnflushedContent(), is(true));
+
+        List<byte[]> frames = encoder.write(content("def"));
+        assertThat(frames.size(), is(1));
+        assertThat(text(frames), is("abcd"));
+
+        frames = encoder.finish();
+        assertThat(frames.size(), is(1));
+        assertThat(text(frames), is("ef"));
+        assertThat(encoder.hasUnflushedContent(), is(false));
+        assertThat(encoder.getContentBytes(), is(6L));
+        assertThat(encoder.getEncodedBytes(), is(6L));
+    }
+
+    @Test
+    public void testCompleteFramesAreNotHeldBack() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(4, false, false);
+
+        List<byte[]> frames = encoder.write(content("abcdefgh"));
+
+        assertThat(frames.size(), is(2));
+        assertThat(text(frames), is("abcdefgh"));
+        assertThat(encoder.hasUnflushedContent(), is(false));
+        assertThat(encoder.finish().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testFlushEmitsHeldBackContent() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(4, false, false);
+
+        assertThat(encoder.write(content("abcdef")).size(), is(1));
+        List<byte[]> frames = encoder.flush();
+
+        assertThat(text(frames), is("ef"));
+        assertThat(encoder.hasUnflushedContent(), is(false));
+        assertThat(encoder.flush().isEmpty(), is(true));
+        assertThat(encoder.getEncodedBytes(), is(6L));
+    }
+
+    @Test
+    public void testStreamingContentIsEmittedAtEndOfEveryChunk() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(4, false, true);
+        assertThat(encoder.isStreaming(), is(true));
+
+        List<byte[]> frames = encoder.write(content("abc"));
+        assertThat(frames.size(), is(1));
+        assertThat(text(frames), is("abc"));
+        assertThat(encoder.hasUnflushedContent(), is(false));
+
+        assertThat(encoder.write(content("")).isEmpty(), is(true));
+        assertThat(encoder.finish().isEmpty(), is(true));
+        assertThat(encoder.getContentBytes(), is(3L));
+        assertThat(encoder.getEncodedBytes(), is(3L));
+    }
+
+    @Test
+    public void testStreamingChunkIsSplitAtFrameSize() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(4, false, true);
+
+        List<byte[]> frames = encoder.write(content("abcdefghij"));
+
+        assertThat(frames.size(), is(3));
+        assertThat(new String(frames.get(0), StandardCharsets.UTF_8), is("abcd"));
+        assertThat(new String(frames.get(1), StandardCharsets.UTF_8), is("efgh"));
+        assertThat(new String(frames.get(2), StandardCharsets.UTF_8), is("ij"));
+
+        frames = encoder.write(content("klmn"));
+        assertThat(frames.size(), is(1));
+        assertThat(text(frames), is("klmn"));
+        assertThat(encoder.getEncodedBytes(), is(14L));
+    }
+
+    @Test
+    public void testDirectBufferIsConsumed() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(1024, false, false);
+        ByteBuffer direct = ByteBuffer.allocateDirect(5);
+        direct.put("hello".getBytes(StandardCharsets.UTF_8));
+        direct.flip();
+
+        assertThat(encoder.write(direct).isEmpty(), is(true));
+
+        assertThat(direct.remaining(), is(0));
+        assertThat(text(encoder.finish()), is("hello"));
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        Random random = new Random(0);
+        for (int i = 0; i < 2000; i++) {
+            builder.append("{\"item\":\"Sensor").append(random.nextInt(50)).append("\",\"state\":")
+                    .append(random.nextInt(1000)).append("}\n");
+        }
+        byte[] original = builder.toString().getBytes(StandardCharsets.UTF_8);
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(1024, true, false);
+        assertThat(encoder.isCompressed(), is(true));
+
+        List<byte[]> frames = new ArrayList<>();
+        for (int offset = 0; offset < original.length; offset += 3000) {
+            int length = Math.min(3000, original.length - offset);
+            frames.addAll(encoder.write(ByteBuffer.wrap(original, offset, length)));
+        }
+        frames.addAll(encoder.finish());
+
+        // Only the last frame is smaller than the frame size
+        for (byte[] frame : frames.subList(0, frames.size() - 1)) {
+            assertThat(frame.length, is(1024));
+        }
+        byte[] compressed = concat(frames);
+        assertThat(compressed.length < original.length, is(true));
+        assertThat(encoder.getContentBytes(), is((long) original.length));
+        assertThat(encoder.getEncodedBytes(), is((long) compressed.length));
+        assertThat(gunzip(compressed, original.length), is(original));
+    }
+
+    @Test
+    public void testCompressedStreamingChunkCanBeDecodedBeforeFinish() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(1024, true, true);
+        byte[] event = "data: {\"state\":\"ON\"}\n\n".getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = concat(encoder.write(ByteBuffer.wrap(event)));
+
+        assertThat(gunzip(compressed, event.length), is(event));
+    }
+
+    @Test
+    public void testCompressedFlushCanBeDecodedBeforeFinish() throws IOException {
+        ResponseFrameEncoder encoder = new ResponseFrameEncoder(1024, true, false);
+        byte[] page = "{\"widgets\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(encoder.write(ByteBuffer.wrap(page)).isEmpty(), is(true));
+        assertThat(encoder.hasUnflushedContent(), is(true));
+        byte[] compressed = concat(encoder.flush());
+
+        assertThat(gunzip(compressed, page.length), is(page));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Immutable snapshot of the statistics of operations with a single endpoint
+ *
+ * All durations are in milliseconds. Statistics are collected since the activation of the {@link ModbusManager}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointStatistics {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusHistogram borrowWait;
+    private final ModbusHistogram connectTime;
+    private final ModbusHistogram transactionTime;
+    private final ModbusHistogram callbackTime;
+    private final ModbusHistogram retries;
+    private final long timeouts;
+    private final long unexpectedTransactionIds;
+
+    public ModbusEndpointStatistics(ModbusSlaveEndpoint endpoint, ModbusHistogram borrowWait,
+            ModbusHistogram connectTime, ModbusHistogram transactionTime, ModbusHistogram callbackTime,
+            ModbusHistogram retries, long timeouts, long unexpectedTransactionIds) {
+        this.endpoint = endpoint;
+        this.borrowWait = borrowWait;
+        this.connectTime = connectTime;
+        this.transactionTime = transactionTime;
+        this.callbackTime = callbackTime;
+        this.retries = retries;
+        this.timeouts = timeouts;
+        this.unexpectedTransactionIds = unexpectedTransactionIds;
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get time waited for a connection from the pool. This includes the inter-transaction delay and the possible
+     * connection establishment.
+     */
+    public ModbusHistogram getBorrowWait() {
+        return borrowWait;
+    }
+
+    /**
+     * Get time spent establishing the connection, per connection attempt
+     */
+    public ModbusHistogram getConnectTime() {
+        return connectTime;
+    }
+
+    /**
+     * Get round trip time of the transactions, per try. Failed tries are included.
+     */
+    public ModbusHistogram getTransactionTime() {
+        return transactionTime;
+    }
+
+    /**
+     * Get time spent in the callbacks
+     */
+    public ModbusHistogram getCallbackTime() {
+        return callbackTime;
+    }
+
+    /**
+     * Get number of retries per operation. Zero means that the operation succeeded or failed on the first try.
+     */
+    public ModbusHistogram getRetries() {
+        return retries;
+    }
+
+    /**
+     * Get number of tries that failed since the response did not arrive in time
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Get number of responses with transaction ID not matching the request
+     */
+    public long getUnexpectedTransactionIds() {
+        return unexpectedTransactionIds;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("endpoint", endpoint).append("borrowWait", borrowWait)
+                .append("connectTime", connectTime).append("transactionTime", transactionTime)
+                .append("callbackTime", callbackTime).append("retries", retries).append("timeouts", timeouts)
+                .append("unexpectedTransactionIds", unexpectedTransactionIds).toString();
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Immutable snapshot of a histogram with fixed buckets
+ *
+ * Each bucket counts the values that are less than or equal to the upper bound of the bucket, and greater than the
+ * upper bound of the previous bucket. Values greater than the last upper bound are counted in an extra overflow bucket.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusHistogram {
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final long[] upperBounds;
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    /**
+     * Construct histogram snapshot
+     *
+     * @param upperBounds upper bounds of the buckets, in ascending order
+     * @param counts number of values in each bucket. Should have one more element than <code>upperBounds</code>, the
+     *            last element being the overflow bucket.
+     * @param sum sum of all values
+     * @param max maximum of all values
+     * @throws IllegalArgumentException when the number of counts does not match the bucket upper bounds
+     */
+    public ModbusHistogram(long[] upperBounds, long[] counts, long sum, long max) {
+        if (counts.length != upperBounds.length + 1) {
+            throw new IllegalArgumentException("Expecting one count per bucket, and count for the overflow bucket");
+        }
+        this.upperBounds = upperBounds.clone();
+        this.counts = counts.clone();
+        this.count = Arrays.stream(counts).sum();
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Get number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get sum of recorded values
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Get maximum of recorded values, or zero if there are no values
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get mean of recorded values, or zero if there are no values
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Get estimate for the percentile of the recorded values
+     *
+     * The estimate is the upper bound of the bucket containing the percentile, limited by the maximum value.
+     *
+     * @param percentile percentile in range 0...100
+     * @return estimated percentile, or zero if there are no values
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile should be in range 0...100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < upperBounds.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(upperBounds[i], max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Get upper bounds of the buckets, excluding the overflow bucket
+     */
+    public long[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    /**
+     * Get number of values in each bucket. The last element is the overflow bucket.
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("count", count).append("mean", getMean())
+                .append("p50", getPercentile(50)).append("p95", getPercentile(95)).append("max", max).toString();
+    }
+}
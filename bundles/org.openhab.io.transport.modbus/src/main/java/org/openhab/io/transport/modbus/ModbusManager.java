@@ -33,7 +33,8 @@ public interface ModbusManager {
      * background.
      *
      * @param task
-     * @return future representing the polled task
+     * @return future representing the polled task. The future completes once the poll has been executed. Cancelling
+     *         the future prevents the execution if the poll is still waiting in the queue of the endpoint.
      */
     public ScheduledFuture<?> submitOneTimePoll(PollTask task);
 
@@ -41,6 +42,9 @@ public interface ModbusManager {
      * Register regularly polled task. The method returns immediately, and the execution of the poll task will happen in
      * the background.
      *
+     * The poll period is measured from the moment the previous execution was queued to the endpoint. An execution is
+     * skipped if the previous execution is still waiting in the queue.
+     *
      * @param task
      * @return
      */
@@ -49,6 +53,9 @@ public interface ModbusManager {
     /**
      * Unregister regularly polled task
      *
+     * An ongoing execution of the poll task is not interrupted, since the executing thread might be serving other
+     * tasks of the same endpoint. The ongoing execution does not retry, though.
+     *
      * @param task poll task to unregister
      * @return whether poll task was unregistered. Poll task is not unregistered in case of unexpected errors or
      *         in the case where the poll task is not registered in the first place
@@ -60,7 +67,8 @@ public interface ModbusManager {
      * background.
      *
      * @param task
-     * @return future representing the task
+     * @return future representing the task. The future completes once the write has been executed. Cancelling the
+     *         future prevents the execution if the write is still waiting in the queue of the endpoint.
      */
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task);
 
@@ -83,6 +91,18 @@ public interface ModbusManager {
      */
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint);
 
+    /**
+     * Get statistics of the operations with a given endpoint
+     *
+     * Use the statistics to tune the timing related settings of the endpoint, for example the inter-transaction delay
+     * and timeouts.
+     *
+     * @param endpoint endpoint to query
+     * @return statistics collected since the activation of the manager. Statistics are empty if there have not been
+     *         any operations with the endpoint.
+     */
+    public ModbusEndpointStatistics getEndpointStatistics(ModbusSlaveEndpoint endpoint);
+
     /**
      * Register listener for changes
      *
@@ -34,4 +34,17 @@ public interface ModbusManagerListener {
     public void onEndpointPoolConfigurationSet(ModbusSlaveEndpoint endpoint,
             @Nullable EndpointPoolConfiguration configuration);
 
+    /**
+     * Called when an operation is taken from the queue of the endpoint for execution
+     *
+     * Operations of each endpoint are executed one at a time. Growing queue size or wait time indicates that the
+     * endpoint cannot keep up with the poll periods.
+     *
+     * @param endpoint endpoint of the operation
+     * @param queueSize number of operations still waiting in the queue of the endpoint
+     * @param waitMillis how long the operation waited in the queue, in milliseconds
+     */
+    public default void onOperationDequeued(ModbusSlaveEndpoint endpoint, int queueSize, long waitMillis) {
+    }
+
 }
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Planner merging adjacent or overlapping read requests into as few Modbus transactions as possible.
+ *
+ * Poll tasks are merged only if they share the endpoint, slave id and function code. Merged reads never exceed
+ * the protocol limits ({@link #MAX_REGISTERS_PER_READ} registers, {@link #MAX_BITS_PER_READ} coils/discrete inputs),
+ * and tasks are merged only if the gap between them is at most the configured gap tolerance (in registers or bits).
+ *
+ * Each merged read is represented by {@link MergedPollTask} which hands every original callback its own slice of the
+ * response.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadRequestPlanner {
+
+    /**
+     * Maximum number of registers that can be read with single read request (function codes 3 and 4)
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs that can be read with single read request (function codes 1 and 2)
+     */
+    public static final int MAX_BITS_PER_READ = 2000;
+
+    private static final Comparator<PollTask> BY_REFERENCE = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getReference())
+            .thenComparingInt(task -> task.getRequest().getDataLength());
+
+    private final int gapTolerance;
+
+    /**
+     *
+     * @param gapTolerance maximum number of unrequested registers (or bits) allowed between two merged requests
+     * @throws IllegalArgumentException when gap tolerance is negative
+     */
+    public ModbusReadRequestPlanner(int gapTolerance) {
+        if (gapTolerance < 0) {
+            throw new IllegalArgumentException("gapTolerance should be non-negative");
+        }
+        this.gapTolerance = gapTolerance;
+    }
+
+    public int getGapTolerance() {
+        return gapTolerance;
+    }
+
+    /**
+     * Return maximum number of items (registers or bits) that can be read with single request using the function code
+     *
+     * @param functionCode read function code
+     * @return maximum data length of single request
+     */
+    public static int getMaxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_READ;
+            case READ_INPUT_REGISTERS:
+            case READ_MULTIPLE_REGISTERS:
+                return MAX_REGISTERS_PER_READ;
+            default:
+                throw new IllegalArgumentException(String.format("Unexpected function code %s", functionCode));
+        }
+    }
+
+    /**
+     * Plan the execution of given poll tasks
+     *
+     * Tasks that could not be merged with any other task are returned as-is. Merged tasks are returned as
+     * {@link MergedPollTask}. Order of the returned tasks follows the order of first appearance of each endpoint, slave
+     * and function code combination, and within one combination, the start address.
+     *
+     * @param tasks poll tasks to plan
+     * @return poll tasks to execute
+     */
+    public List<PollTask> plan(Collection<PollTask> tasks) {
+        Map<MergeKey, List<PollTask>> groups = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            groups.computeIfAbsent(new MergeKey(task), key -> new ArrayList<>()).add(task);
+        }
+
+        List<PollTask> planned = new ArrayList<>(tasks.size());
+        for (List<PollTask> group : groups.values()) {
+            group.sort(BY_REFERENCE);
+            int maxLength = getMaxDataLength(group.get(0).getRequest().getFunctionCode());
+            List<PollTask> pending = new ArrayList<>();
+            int pendingStart = 0;
+            int pendingEnd = 0; // exclusive
+            for (PollTask task : group) {
+                ModbusReadRequestBlueprint request = task.getRequest();
+                int start = request.getReference();
+                int end = start + request.getDataLength();
+                if (!pending.isEmpty() && start <= pendingEnd + gapTolerance
+                        && Math.max(end, pendingEnd) - pendingStart <= maxLength) {
+                    pending.add(task);
+                    pendingEnd = Math.max(end, pendingEnd);
+                    continue;
+                }
+                flush(planned, pending, pendingStart, pendingEnd);
+                pending = new ArrayList<>();
+                pending.add(task);
+                pendingStart = start;
+                pendingEnd = end;
+            }
+            flush(planned, pending, pendingStart, pendingEnd);
+        }
+        return planned;
+    }
+
+    private static void flush(List<PollTask> planned, List<PollTask> pending, int start, int end) {
+        if (pending.isEmpty()) {
+            return;
+        } else if (pending.size() == 1) {
+            planned.add(pending.get(0));
+        } else {
+            planned.add(new MergedPollTask(pending, start, end - start));
+        }
+    }
+
+    /**
+     * Key identifying requests that can be merged together
+     */
+    private static class MergeKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final int unitId;
+        private final ModbusReadFunctionCode functionCode;
+
+        MergeKey(PollTask task) {
+            this.endpoint = task.getEndpoint();
+            this.unitId = task.getRequest().getUnitID();
+            this.functionCode = task.getRequest().getFunctionCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, unitId, functionCode);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            MergeKey other = (MergeKey) obj;
+            return unitId == other.unitId && functionCode == other.functionCode && endpoint.equals(other.endpoint);
+        }
+    }
+
+    /**
+     * Poll task representing several merged poll tasks
+     *
+     * The task acts as its own callback, slicing the response and forwarding the slices to the callbacks of the
+     * original tasks. Errors are forwarded to all original callbacks.
+     *
+     * @author agent - Initial contribution
+     */
+    public static class MergedPollTask implements PollTask, ModbusReadCallback {
+
+        private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+        static {
+            toStringStyle.setUseShortClassName(true);
+        }
+
+        private final Logger logger = LoggerFactory.getLogger(MergedPollTask.class);
+
+        private final List<PollTask> tasks;
+        private final ModbusSlaveEndpoint endpoint;
+        private final BasicModbusReadRequestBlueprint request;
+
+        MergedPollTask(List<PollTask> tasks, int start, int length) {
+            PollTask first = tasks.get(0);
+            this.tasks = Collections.unmodifiableList(new ArrayList<>(tasks));
+            this.endpoint = first.getEndpoint();
+            int maxTries = tasks.stream().mapToInt(PollTask::getMaxTries).max().orElse(1);
+            this.request = new BasicModbusReadRequestBlueprint(first.getRequest().getUnitID(),
+                    first.getRequest().getFunctionCode(), start, length, maxTries);
+        }
+
+        /**
+         * Get the original poll tasks merged into this task
+         *
+         * @return unmodifiable list of poll tasks
+         */
+        public List<PollTask> getTasks() {
+            return tasks;
+        }
+
+        @Override
+        public ModbusSlaveEndpoint getEndpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public ModbusReadRequestBlueprint getRequest() {
+            return request;
+        }
+
+        @Override
+        public ModbusReadCallback getCallback() {
+            return this;
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint mergedRequest, ModbusRegisterArray registers) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback callback = task.getCallback();
+                if (callback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                ModbusRegister[] slice = new ModbusRegister[taskRequest.getDataLength()];
+                for (int i = 0; i < slice.length; i++) {
+                    slice[i] = registers.getRegister(offset + i);
+                }
+                invokeSafely(task, () -> callback.onRegisters(taskRequest, new BasicModbusRegisterArray(slice)));
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint mergedRequest, BitArray bits) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback callback = task.getCallback();
+                if (callback == null) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - request.getReference();
+                BasicBitArray slice = new BasicBitArray(taskRequest.getDataLength());
+                for (int i = 0; i < slice.size(); i++) {
+                    slice.setBit(i, bits.getBit(offset + i));
+                }
+                invokeSafely(task, () -> callback.onBits(taskRequest, slice));
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint mergedRequest, Exception error) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback callback = task.getCallback();
+                if (callback != null) {
+                    invokeSafely(task, () -> callback.onError(task.getRequest(), error));
+                }
+            }
+        }
+
+        /**
+         * Invoke callback of a single task, making sure that a failing callback does not prevent the other callbacks
+         * from receiving their data
+         */
+        private void invokeSafely(PollTask task, Runnable invocation) {
+            try {
+                invocation.run();
+            } catch (RuntimeException e) {
+                logger.warn("Callback of poll task {} (part of merged request {}) failed unexpectedly: {} {}", task,
+                        request, e.getClass().getName(), e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder(71, 7).append(request).append(endpoint).append(tasks).toHashCode();
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                    .append("tasks", tasks.size()).toString();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            MergedPollTask rhs = (MergedPollTask) obj;
+            return new EqualsBuilder().append(request, rhs.request).append(endpoint, rhs.endpoint)
+                    .append(tasks, rhs.tasks).isEquals();
+        }
+    }
+}
@@ -61,6 +61,18 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Maximum number of unrequested registers (or coils/discrete inputs) between two regular polls that are still
+     * merged into one read request. Negative value (default) disables merging of the regular polls.
+     */
+    private int readMergeGapTolerance = -1;
+
+    /**
+     * Maximum number of outstanding transactions with regular polls of the endpoint, matched by the transaction ID.
+     * Applies only to TCP endpoints. Default of 1 means that transactions are executed one-by-one.
+     */
+    private int maxPipelinedTransactions = 1;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -107,10 +119,27 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getReadMergeGapTolerance() {
+        return readMergeGapTolerance;
+    }
+
+    public void setReadMergeGapTolerance(int readMergeGapTolerance) {
+        this.readMergeGapTolerance = readMergeGapTolerance;
+    }
+
+    public int getMaxPipelinedTransactions() {
+        return maxPipelinedTransactions;
+    }
+
+    public void setMaxPipelinedTransactions(int maxPipelinedTransactions) {
+        this.maxPipelinedTransactions = maxPipelinedTransactions;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(readMergeGapTolerance).append(maxPipelinedTransactions).toHashCode();
     }
 
     @Override
@@ -119,7 +148,9 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis)
+                .append("readMergeGapTolerance", readMergeGapTolerance)
+                .append("maxPipelinedTransactions", maxPipelinedTransactions).toString();
     }
 
     @Override
@@ -137,7 +168,9 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(readMergeGapTolerance, rhs.readMergeGapTolerance)
+                .append(maxPipelinedTransactions, rhs.maxPipelinedTransactions).isEquals();
     }
 
 }
@@ -42,15 +42,28 @@ public class AggregateStopWatch {
     /**
      * Time for actual the actual transaction (read/write to slave)
      */
-    final SimpleStopWatch transaction = new SimpleStopWatch();
+    final SimpleStopWatch transaction;
 
     /**
      * Time for calling calling the callback
      */
-    final SimpleStopWatch callback = new SimpleStopWatch();
+    final SimpleStopWatch callback;
 
     public AggregateStopWatch() {
         this.operationId = UUID.randomUUID().toString();
+        this.transaction = new SimpleStopWatch();
+        this.callback = new SimpleStopWatch();
+    }
+
+    /**
+     * Construct aggregate stop watch recording each transaction and callback duration to the endpoint statistics
+     *
+     * @param statistics statistics of the endpoint
+     */
+    public AggregateStopWatch(EndpointStatisticsRecorder statistics) {
+        this.operationId = UUID.randomUUID().toString();
+        this.transaction = new SimpleStopWatch(statistics.transactionTime::record);
+        this.callback = new SimpleStopWatch(statistics.callbackTime::record);
     }
 
     /**
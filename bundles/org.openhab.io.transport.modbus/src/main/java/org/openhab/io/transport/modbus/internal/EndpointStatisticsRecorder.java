@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Collects statistics of operations with a single endpoint
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointStatisticsRecorder {
+
+    private static final long[] RETRY_BUCKETS = { 0, 1, 2, 3, 5, 10 };
+
+    private final ModbusSlaveEndpoint endpoint;
+    final HistogramRecorder borrowWait = new HistogramRecorder(HistogramRecorder.DURATION_BUCKETS_MILLIS);
+    final HistogramRecorder connectTime = new HistogramRecorder(HistogramRecorder.DURATION_BUCKETS_MILLIS);
+    final HistogramRecorder transactionTime = new HistogramRecorder(HistogramRecorder.DURATION_BUCKETS_MILLIS);
+    final HistogramRecorder callbackTime = new HistogramRecorder(HistogramRecorder.DURATION_BUCKETS_MILLIS);
+    final HistogramRecorder retries = new HistogramRecorder(RETRY_BUCKETS);
+    final LongAdder timeouts = new LongAdder();
+    final LongAdder unexpectedTransactionIds = new LongAdder();
+
+    public EndpointStatisticsRecorder(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public ModbusEndpointStatistics snapshot() {
+        return new ModbusEndpointStatistics(endpoint, borrowWait.snapshot(), connectTime.snapshot(),
+                transactionTime.snapshot(), callbackTime.snapshot(), retries.snapshot(), timeouts.sum(),
+                unexpectedTransactionIds.sum());
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Serialized queue of operations targeting a single endpoint
+ *
+ * Operations are executed one at a time by the thread that happens to drain the queue. Other threads offering
+ * operations to a queue that is already being drained return immediately, leaving the execution to the draining
+ * thread. This way a slow endpoint occupies at most one thread of the shared thread pool, instead of every
+ * pending operation blocking a thread while waiting for a connection.
+ *
+ * Writes are executed before polls. Regular polls are deduplicated: if a previous execution of the same poll is still
+ * waiting in the queue, the new execution is dropped since it would only read the same data again.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointTaskQueue {
+
+    /**
+     * Priority of the queued operation. Operations are executed in the order of declaration.
+     */
+    public enum Priority {
+        WRITE,
+        ONE_OFF_POLL,
+        REGULAR_POLL
+    }
+
+    /**
+     * Listener notified when operation is taken from the queue
+     */
+    @FunctionalInterface
+    public interface DequeueListener {
+        void onDequeue(ModbusSlaveEndpoint endpoint, int queueSize, long waitMillis);
+    }
+
+    private static class Entry {
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedMillis;
+        private final @Nullable Object deduplicationKey;
+        private final Runnable operation;
+
+        Entry(Priority priority, long sequence, @Nullable Object deduplicationKey, Runnable operation) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedMillis = System.currentTimeMillis();
+            this.deduplicationKey = deduplicationKey;
+            this.operation = operation;
+        }
+    }
+
+    private static final Comparator<Entry> EXECUTION_ORDER = Comparator.<Entry, Priority> comparing(e -> e.priority)
+            .thenComparingLong(e -> e.sequence);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final PriorityBlockingQueue<Entry> queue = new PriorityBlockingQueue<>(11, EXECUTION_ORDER);
+    private final Set<Object> queuedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile long lastWaitMillis;
+
+    public EndpointTaskQueue(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Add operation to the queue
+     *
+     * @param priority priority of the operation
+     * @param deduplicationKey key identifying operations that are redundant when queued twice, or null to queue always
+     * @param operation operation to execute. Should not throw.
+     * @return whether the operation was queued. False if operation with same deduplication key was already queued.
+     */
+    public boolean offer(Priority priority, @Nullable Object deduplicationKey, Runnable operation) {
+        if (deduplicationKey != null && !queuedKeys.add(deduplicationKey)) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        queue.offer(new Entry(priority, sequence.getAndIncrement(), deduplicationKey, operation));
+        return true;
+    }
+
+    /**
+     * Execute queued operations in the calling thread, unless some other thread is already draining the queue
+     *
+     * @param listener listener called before each operation is executed
+     */
+    public void drain(DequeueListener listener) {
+        // Re-check after releasing the drain flag: another thread might have offered an operation after we
+        // polled the queue empty, but before we released the flag.
+        while (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                Entry entry;
+                while ((entry = queue.poll()) != null) {
+                    Object key = entry.deduplicationKey;
+                    if (key != null) {
+                        queuedKeys.remove(key);
+                    }
+                    long waitMillis = System.currentTimeMillis() - entry.enqueuedMillis;
+                    lastWaitMillis = waitMillis;
+                    listener.onDequeue(endpoint, queue.size(), waitMillis);
+                    entry.operation.run();
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get number of operations waiting in the queue
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Get the time the most recently executed operation waited in the queue, in milliseconds
+     */
+    public long getLastWaitMillis() {
+        return lastWaitMillis;
+    }
+
+    /**
+     * Get number of operations that were dropped since identical operation was already queued
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.ModbusHistogram;
+
+/**
+ * Lock-free recorder of values into fixed histogram buckets
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HistogramRecorder {
+
+    /**
+     * Bucket upper bounds suitable for durations in milliseconds
+     */
+    public static final long[] DURATION_BUCKETS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000,
+            10000 };
+
+    private final long[] upperBounds;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Construct recorder
+     *
+     * @param upperBounds upper bounds of the buckets, in ascending order
+     */
+    public HistogramRecorder(long... upperBounds) {
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Bucket upper bounds should be in ascending order");
+            }
+        }
+        this.upperBounds = upperBounds.clone();
+        this.counts = new AtomicLongArray(upperBounds.length + 1);
+    }
+
+    /**
+     * Record a value. Negative values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        long nonNegative = Math.max(0, value);
+        int index = Arrays.binarySearch(upperBounds, nonNegative);
+        // Not found: binarySearch returns (-(insertion point) - 1), i.e. index of first bound greater than the value
+        counts.incrementAndGet(index >= 0 ? index : -index - 1);
+        sum.add(nonNegative);
+        max.accumulateAndGet(nonNegative, Math::max);
+    }
+
+    /**
+     * Take snapshot of the recorded values
+     *
+     * Values recorded concurrently with the snapshot might be only partially reflected in the sum and the maximum.
+     */
+    public ModbusHistogram snapshot() {
+        long[] snapshotCounts = new long[counts.length()];
+        for (int i = 0; i < snapshotCounts.length; i++) {
+            snapshotCounts[i] = counts.get(i);
+        }
+        return new ModbusHistogram(upperBounds, snapshotCounts, sum.sum(), max.get());
+    }
+}
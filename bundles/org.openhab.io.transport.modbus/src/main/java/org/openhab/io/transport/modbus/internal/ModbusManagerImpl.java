@@ -13,8 +13,13 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -24,6 +29,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.imageio.IIOException;
@@ -37,10 +43,13 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointStatistics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusReadRequestPlanner;
+import org.openhab.io.transport.modbus.ModbusReadRequestPlanner.MergedPollTask;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusUnexpectedResponseFunctionCodeException;
 import org.openhab.io.transport.modbus.ModbusUnexpectedResponseSizeException;
@@ -56,6 +65,7 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue.Priority;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -68,9 +78,12 @@ import net.wimpi.modbus.ModbusException;
 import net.wimpi.modbus.ModbusIOException;
 import net.wimpi.modbus.ModbusSlaveException;
 import net.wimpi.modbus.io.ModbusTransaction;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -79,6 +92,9 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations are queued per endpoint (see {@link EndpointTaskQueue}), so that slow endpoints do not occupy the threads
+ * of the shared thread pool while waiting for a connection.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -93,6 +109,58 @@ public class ModbusManagerImpl implements ModbusManager {
         private static final long serialVersionUID = 6939730579178506885L;
     }
 
+    /**
+     * Regular polls sharing the same endpoint and poll period. The polls are executed together, merged
+     * using {@link ModbusReadRequestPlanner} and/or pipelined over single TCP connection.
+     */
+    private static class PollGroup {
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+        private final int gapTolerance;
+        private final int pipelineDepth;
+        private final @Nullable ModbusReadRequestPlanner planner;
+        private final Set<PollTask> tasks = new CopyOnWriteArraySet<>();
+        /**
+         * Cached plan of the tasks, guarded by this group. Invalidation and planning are done while holding the lock
+         * so that a plan computed from outdated tasks can never replace the invalidation.
+         */
+        private @Nullable List<PollTask> plan;
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        PollGroup(ModbusSlaveEndpoint endpoint, long pollPeriodMillis, int gapTolerance, int pipelineDepth) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+            this.gapTolerance = gapTolerance;
+            this.pipelineDepth = pipelineDepth;
+            this.planner = gapTolerance >= 0 ? new ModbusReadRequestPlanner(gapTolerance) : null;
+        }
+
+        synchronized void add(PollTask task) {
+            tasks.add(task);
+            plan = null;
+        }
+
+        synchronized boolean remove(PollTask task) {
+            boolean removed = tasks.remove(task);
+            plan = null;
+            return removed;
+        }
+
+        synchronized List<PollTask> getPlan() {
+            List<PollTask> plan = this.plan;
+            if (plan == null) {
+                ModbusReadRequestPlanner planner = this.planner;
+                this.plan = plan = planner == null ? new ArrayList<>(tasks) : planner.plan(tasks);
+            }
+            return plan;
+        }
+
+        boolean matches(ModbusSlaveEndpoint endpoint, long pollPeriodMillis, int gapTolerance, int pipelineDepth) {
+            return this.endpoint.equals(endpoint) && this.pollPeriodMillis == pollPeriodMillis
+                    && this.gapTolerance == gapTolerance && this.pipelineDepth == pipelineDepth;
+        }
+    }
+
     @FunctionalInterface
     private interface ModbusOperation<T> {
 
@@ -314,6 +382,27 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Groups of regular polls that are merged together. Only used with endpoints that have read merging enabled, see
+     * {@link EndpointPoolConfiguration#getReadMergeGapTolerance()}
+     */
+    private final Set<PollGroup> pollGroups = new CopyOnWriteArraySet<>();
+    /**
+     * Serialized operation queues, one per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointTaskQueue> endpointQueues = new ConcurrentHashMap<>();
+    /**
+     * Endpoints that failed with pipelined transactions, and are polled serially until their configuration is set again
+     */
+    private final Set<ModbusSlaveEndpoint> pipeliningDisabledEndpoints = ConcurrentHashMap.newKeySet();
+    /**
+     * Statistics of operations, one per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointStatisticsRecorder> endpointStatistics = new ConcurrentHashMap<>();
+    /**
+     * Transaction IDs for pipelined transactions, see {@link #nextPipelinedTransactionId()}
+     */
+    private final AtomicInteger pipelinedTransactionId = new AtomicInteger();
     /**
      * Executor for requests
      */
@@ -356,6 +445,8 @@ public class ModbusManagerImpl implements ModbusManager {
             });
         });
 
+        connectionFactory.setConnectTimeListener((endpoint, millis) -> statistics(endpoint).connectTime.record(millis));
+
         GenericKeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> genericKeyedObjectPool = new ModbusConnectionPool(
                 connectionFactory);
         genericKeyedObjectPool.setSwallowedExceptionListener(new SwallowedExceptionListener() {
@@ -396,11 +487,40 @@ public class ModbusManagerImpl implements ModbusManager {
                 connection = Optional.empty();
             }
         }
-        logger.trace("borrowing connection (got {}) for endpoint {} took {} ms", connection, endpoint,
-                System.currentTimeMillis() - start);
+        long borrowMillis = System.currentTimeMillis() - start;
+        statistics(endpoint).borrowWait.record(borrowMillis);
+        logger.trace("borrowing connection (got {}) for endpoint {} took {} ms", connection, endpoint, borrowMillis);
         return connection;
     }
 
+    private EndpointStatisticsRecorder statistics(ModbusSlaveEndpoint endpoint) {
+        return endpointStatistics.computeIfAbsent(endpoint, EndpointStatisticsRecorder::new);
+    }
+
+    /**
+     * Record failed try to the statistics of the endpoint
+     *
+     * Timeouts are recognized from {@link InterruptedIOException} (e.g. socket read timeout), or from the error
+     * message since the modbus library does not always preserve the original exception.
+     */
+    private void recordFailure(EndpointStatisticsRecorder statistics, Exception error) {
+        if (error instanceof ModbusUnexpectedTransactionIdException) {
+            statistics.unexpectedTransactionIds.increment();
+            return;
+        }
+        @Nullable
+        Throwable cause = error;
+        while (cause != null) {
+            String message = cause.getMessage();
+            if (cause instanceof InterruptedIOException || (message != null
+                    && (message.toLowerCase().contains("timeout") || message.toLowerCase().contains("timed out")))) {
+                statistics.timeouts.increment();
+                return;
+            }
+            cause = cause.getCause();
+        }
+    }
+
     private void invalidate(ModbusSlaveEndpoint endpoint, Optional<ModbusSlaveConnection> connection) {
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
@@ -538,7 +658,8 @@ public class ModbusManagerImpl implements ModbusManager {
      */
     private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void executeOperation(
             @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
-        AggregateStopWatch timer = new AggregateStopWatch();
+        EndpointStatisticsRecorder statistics = statistics(task.getEndpoint());
+        AggregateStopWatch timer = new AggregateStopWatch(statistics);
         timer.total.resume();
         String operationId = timer.operationId;
 
@@ -564,6 +685,7 @@ public class ModbusManagerImpl implements ModbusManager {
         }
 
         Optional<ModbusSlaveConnection> connection = Optional.empty();
+        int tryIndex = 0;
         try {
             logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
                     operationId);
@@ -583,7 +705,6 @@ public class ModbusManagerImpl implements ModbusManager {
                 return;
             }
 
-            int tryIndex = 0;
             /**
              * last execution is tracked such that the endpoint is not spammed on retry. First retry can be executed
              * right away since getConnection ensures enough time has passed since last transaction. More precisely,
@@ -624,6 +745,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     break;
                 } catch (IOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordFailure(statistics, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -641,6 +763,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusIOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordFailure(statistics, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -672,6 +795,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 } catch (ModbusUnexpectedTransactionIdException | ModbusUnexpectedResponseFunctionCodeException
                         | ModbusUnexpectedResponseSizeException e) {
                     lastError.set(e);
+                    recordFailure(statistics, e);
                     // transaction error details already logged
                     if (willRetry) {
                         logger.warn(
@@ -688,6 +812,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusException e) {
                     lastError.set(e);
+                    recordFailure(statistics, e);
                     // Some other (unexpected) exception occurred
                     if (willRetry) {
                         logger.warn(
@@ -733,6 +858,9 @@ public class ModbusManagerImpl implements ModbusManager {
         } finally {
             timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
+            if (tryIndex > 0) {
+                statistics.retries.record(tryIndex - 1);
+            }
             timer.suspendAllRunning();
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
         }
@@ -744,12 +872,13 @@ public class ModbusManagerImpl implements ModbusManager {
         Objects.requireNonNull(executor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
+        QueuedOperationFuture future = new QueuedOperationFuture();
+        executor.execute(() -> {
             long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
+            logger.debug("Will now queue one-off poll task {}, waited in thread pool for {}", task,
                     millisInThreadPoolWaiting);
-            executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+            enqueueOperation(task, true, pollOperation, Priority.ONE_OFF_POLL, future);
+        });
         return future;
     }
 
@@ -764,25 +893,18 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
-                long started = System.currentTimeMillis();
-                logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
-                        started);
-                try {
-                    executeOperation(task, false, pollOperation);
-                } catch (Exception e) {
-                    // We want to catch all unexpected exceptions since all unhandled exceptions make
-                    // ScheduledExecutorService halt the polling. It is better to print out the exception, and try again
-                    // (on next poll cycle)
-                    logger.warn(
-                            "Execution of scheduled ({}ms) poll task {} failed unexpectedly. Ignoring exception, polling again according to poll interval.",
-                            pollPeriodMillis, task, e);
-                }
-                long finished = System.currentTimeMillis();
-                logger.debug(
-                        "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
-                        pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            int gapTolerance = getReadMergeGapTolerance(task.getEndpoint());
+            int pipelineDepth = getPipelineDepth(task.getEndpoint());
+            ScheduledFuture<?> future;
+            if (gapTolerance >= 0 || pipelineDepth > 1) {
+                future = registerGroupedPoll(executor, task, pollPeriodMillis, initialDelayMillis, gapTolerance,
+                        pipelineDepth);
+            } else {
+                future = executor.scheduleWithFixedDelay(() -> {
+                    logger.debug("Queuing scheduled ({}ms) poll task {}", pollPeriodMillis, task);
+                    enqueueOperation(task, false, pollOperation, Priority.REGULAR_POLL, null);
+                }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            }
 
             scheduledPollTasks.put(task, future);
             logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
@@ -790,6 +912,283 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    private int getReadMergeGapTolerance(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null) {
+            return -1;
+        }
+        return Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.getReadMergeGapTolerance()).orElse(-1);
+    }
+
+    /**
+     * Get maximum number of outstanding transactions with the endpoint. Pipelining is supported only with TCP
+     * endpoints.
+     */
+    private int getPipelineDepth(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return 1;
+        }
+        return Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
+                .map(cfg -> cfg.getMaxPipelinedTransactions()).orElse(1);
+    }
+
+    /**
+     * Register poll task to a group of polls that share the endpoint and poll period
+     *
+     * The group is scheduled when first task is added, with the initial delay of that task.
+     *
+     * @return future of the group
+     */
+    private ScheduledFuture<?> registerGroupedPoll(ScheduledExecutorService executor, PollTask task,
+            long pollPeriodMillis, long initialDelayMillis, int gapTolerance, int pipelineDepth) {
+        PollGroup group = pollGroups.stream().filter(
+                candidate -> candidate.matches(task.getEndpoint(), pollPeriodMillis, gapTolerance, pipelineDepth))
+                .findFirst().orElse(null);
+        if (group == null) {
+            PollGroup newGroup = new PollGroup(task.getEndpoint(), pollPeriodMillis, gapTolerance, pipelineDepth);
+            newGroup.future = executor.scheduleWithFixedDelay(() -> executePollGroup(newGroup), initialDelayMillis,
+                    pollPeriodMillis, TimeUnit.MILLISECONDS);
+            pollGroups.add(newGroup);
+            group = newGroup;
+        }
+        group.add(task);
+        logger.trace("Poll task {} merged to group of {} poll tasks with endpoint {} and period {}", task,
+                group.tasks.size(), task.getEndpoint(), pollPeriodMillis);
+        return Objects.requireNonNull(group.future);
+    }
+
+    private void executePollGroup(PollGroup group) {
+        List<PollTask> plan = group.getPlan();
+        logger.debug("Queuing scheduled ({}ms) group of {} poll tasks as {} requests", group.pollPeriodMillis,
+                group.tasks.size(), plan.size());
+        if (group.pipelineDepth > 1 && plan.size() > 1 && !pipeliningDisabledEndpoints.contains(group.endpoint)) {
+            for (int i = 0; i < plan.size(); i += group.pipelineDepth) {
+                enqueuePipelinedPolls(
+                        new ArrayList<>(plan.subList(i, Math.min(plan.size(), i + group.pipelineDepth))));
+            }
+            return;
+        }
+        for (PollTask task : plan) {
+            // Merged tasks are not registered as such, and thus are executed like one-off tasks. Callbacks of
+            // individual tasks are guarded separately by MergedPollTask.
+            enqueueOperation(task, task instanceof MergedPollTask, pollOperation, Priority.REGULAR_POLL, null);
+        }
+    }
+
+    /**
+     * Queue operation to the queue of the task endpoint, and drain the queue unless some other thread is already
+     * draining it.
+     *
+     * Regular polls are queued only if previous execution of the same poll is not waiting in the queue anymore.
+     *
+     * @param future future of a one-off operation, completed once the operation has been executed. The operation is
+     *            skipped if the future is cancelled while the operation is queued. Null with regular polls.
+     */
+    private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void enqueueOperation(
+            @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation, Priority priority,
+            @Nullable QueuedOperationFuture future) {
+        if (future != null && future.isCancelled()) {
+            logger.debug("Task {} was cancelled before it was queued, not executing", task);
+            return;
+        }
+        EndpointTaskQueue queue = endpointQueues.computeIfAbsent(task.getEndpoint(), EndpointTaskQueue::new);
+        boolean queued = queue.offer(priority, priority == Priority.REGULAR_POLL ? task : null, () -> {
+            if (future != null && future.isCancelled()) {
+                logger.debug("Task {} was cancelled while queued, not executing", task);
+                return;
+            }
+            long started = System.currentTimeMillis();
+            try {
+                executeOperation(task, oneOffTask, operation);
+                if (future != null) {
+                    future.complete(null);
+                }
+            } catch (Exception e) {
+                // We want to catch all unexpected exceptions since all unhandled exceptions would stop draining
+                // the queue. It is better to print out the exception, and continue with the next operation.
+                logger.warn("Execution of task {} failed unexpectedly. Ignoring exception.", task, e);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+            logger.debug("Execution of task {} finished (=duration of {} millis)", task,
+                    System.currentTimeMillis() - started);
+        });
+        if (!queued) {
+            logger.debug(
+                    "Previous execution of poll task {} is still queued (queue size {}), skipping this execution. Endpoint is too slow for the poll period?",
+                    task, queue.size());
+        }
+        queue.drain(this::onOperationDequeued);
+    }
+
+    private void enqueuePipelinedPolls(List<PollTask> batch) {
+        EndpointTaskQueue queue = endpointQueues.computeIfAbsent(batch.get(0).getEndpoint(), EndpointTaskQueue::new);
+        boolean queued = queue.offer(Priority.REGULAR_POLL, batch, () -> {
+            try {
+                executePipelined(batch);
+            } catch (Exception e) {
+                // We want to catch all unexpected exceptions since all unhandled exceptions would stop draining
+                // the queue.
+                logger.warn("Execution of pipelined poll tasks {} failed unexpectedly. Ignoring exception.", batch,
+                        e);
+            }
+        });
+        if (!queued) {
+            logger.debug("Previous execution of pipelined poll tasks {} is still queued, skipping this execution.",
+                    batch);
+        }
+        queue.drain(this::onOperationDequeued);
+    }
+
+    /**
+     * Get next transaction ID for pipelined transactions. Transaction IDs are in range 1...65535
+     */
+    private int nextPipelinedTransactionId() {
+        return pipelinedTransactionId.updateAndGet(id -> id >= 0xFFFF ? 1 : id + 1);
+    }
+
+    /**
+     * Execute several poll tasks with outstanding transactions over a single TCP connection
+     *
+     * All requests are written first, and then responses are matched to the requests by the transaction ID. On any
+     * error, pipelining is disabled for the endpoint, and the tasks without response are executed serially using
+     * the normal retry logic. The connection is invalidated whenever responses might still be unread, so that they
+     * are never read by the next user of the connection.
+     *
+     * Exceptions thrown by the callbacks are logged and do not interrupt processing of the other responses.
+     *
+     * @param batch poll tasks of the same TCP endpoint
+     */
+    private void executePipelined(List<PollTask> batch) {
+        AggregateStopWatch timer = new AggregateStopWatch();
+        timer.total.resume();
+        String operationId = timer.operationId;
+        ModbusSlaveEndpoint endpoint = batch.get(0).getEndpoint();
+        EndpointStatisticsRecorder statistics = statistics(endpoint);
+        List<PollTask> remaining = new ArrayList<>(batch);
+        // Merged tasks are not registered as such
+        remaining.removeIf(task -> !(task instanceof MergedPollTask) && !scheduledPollTasks.containsKey(task));
+        if (remaining.isEmpty()) {
+            return;
+        }
+
+        Optional<ModbusSlaveConnection> connection = Optional.empty();
+        Map<Integer, PollTask> outstanding = new LinkedHashMap<>();
+        try {
+            connection = timer.connection.timeSupplier(() -> borrowConnection(endpoint));
+            if (connection.isPresent() && connection.get() instanceof TCPMasterConnection) {
+                executePipelined(timer, statistics, (TCPMasterConnection) connection.get(), remaining, outstanding);
+            } else {
+                logger.trace(
+                        "Could not get TCP connection for pipelined transactions, executing serially. [operation ID {}]",
+                        operationId);
+            }
+        } catch (ModbusException | ModbusUnexpectedTransactionIdException
+                | ModbusUnexpectedResponseFunctionCodeException | ModbusUnexpectedResponseSizeException e) {
+            logger.warn(
+                    "Pipelined transactions with endpoint {} failed. Falling back to serial transactions with the endpoint. Error details: {} {} [operation ID {}]",
+                    endpoint, e.getClass().getName(), e.getMessage(), operationId);
+            recordFailure(statistics, e);
+            pipeliningDisabledEndpoints.add(endpoint);
+        } catch (RuntimeException e) {
+            logger.warn(
+                    "Pipelined transactions with endpoint {} failed unexpectedly. Falling back to serial transactions with the endpoint. [operation ID {}]",
+                    endpoint, operationId, e);
+            pipeliningDisabledEndpoints.add(endpoint);
+        } finally {
+            if (!outstanding.isEmpty()) {
+                // Invalidate connection since there might be still responses on the way
+                timer.connection.timeConsumer(c -> invalidate(endpoint, c), connection);
+                connection = Optional.empty();
+            }
+            timer.connection.timeConsumer(c -> returnConnection(endpoint, c), connection);
+            timer.suspendAllRunning();
+            logger.debug("Pipelined modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+        }
+
+        for (PollTask task : remaining) {
+            executeOperation(task, task instanceof MergedPollTask, pollOperation);
+        }
+    }
+
+    /**
+     * Write the requests of the given tasks, and read the responses
+     *
+     * Tasks that received a valid response are removed from remaining. Transactions without response are left in
+     * outstanding.
+     */
+    private void executePipelined(AggregateStopWatch timer, EndpointStatisticsRecorder statistics,
+            TCPMasterConnection connection, List<PollTask> remaining, Map<Integer, PollTask> outstanding)
+            throws ModbusException, ModbusUnexpectedTransactionIdException,
+            ModbusUnexpectedResponseFunctionCodeException, ModbusUnexpectedResponseSizeException {
+        String operationId = timer.operationId;
+        ModbusTransport transport = connection.getModbusTransport();
+        Map<Integer, ModbusRequest> libRequests = new LinkedHashMap<>();
+        for (PollTask task : remaining) {
+            ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(task.getRequest());
+            int transactionId = nextPipelinedTransactionId();
+            libRequest.setTransactionID(transactionId);
+            libRequests.put(transactionId, libRequest);
+        }
+        logger.trace("Going to execute {} pipelined transactions [operation ID {}]", libRequests.size(), operationId);
+        // Round trip time of each pipelined transaction is measured from writing the requests
+        long writeStart = System.currentTimeMillis();
+        timer.transaction.timeRunnableWithModbusException(() -> {
+            int index = 0;
+            for (Entry<Integer, ModbusRequest> entry : libRequests.entrySet()) {
+                // Expect response for every request written, even if writing the next one fails
+                outstanding.put(entry.getKey(), remaining.get(index++));
+                transport.writeMessage(entry.getValue());
+            }
+        });
+        while (!outstanding.isEmpty()) {
+            AtomicReference<@Nullable ModbusResponse> responseRef = new AtomicReference<>();
+            timer.transaction.timeRunnableWithModbusException(() -> responseRef.set(transport.readResponse()));
+            ModbusResponse response = responseRef.get();
+            if (response == null) {
+                throw new ModbusIOException("No response");
+            }
+            statistics.transactionTime.record(System.currentTimeMillis() - writeStart);
+            PollTask task = outstanding.remove(response.getTransactionID());
+            ModbusRequest libRequest = libRequests.get(response.getTransactionID());
+            if (task == null || libRequest == null) {
+                throw new ModbusUnexpectedTransactionIdException(
+                        outstanding.keySet().stream().findFirst().orElse(-1), response.getTransactionID());
+            }
+            logger.trace("Response for pipelined read request (FC={}, transaction ID={}): {} [operation ID {}]",
+                    response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
+            if (response instanceof ExceptionResponse) {
+                // Leave the task to be executed serially, reporting the slave error with normal retry logic
+                continue;
+            }
+            checkFunctionCode(response, libRequest, operationId);
+            checkResponseSize(response, task.getRequest(), operationId);
+            remaining.remove(task);
+            ModbusReadCallback callback = task.getCallback();
+            if (callback != null) {
+                long callbackStart = System.currentTimeMillis();
+                try {
+                    timer.callback.timeRunnable(() -> ModbusLibraryWrapper
+                            .invokeCallbackWithResponse(task.getRequest(), callback, response));
+                } catch (RuntimeException e) {
+                    // Callback failure should not affect the other transactions
+                    logger.warn("Callback {} of pipelined poll task {} failed unexpectedly. Ignoring exception.",
+                            callback, task, e);
+                }
+                statistics.callbackTime.record(System.currentTimeMillis() - callbackStart);
+            }
+        }
+    }
+
+    private void onOperationDequeued(ModbusSlaveEndpoint endpoint, int queueSize, long waitMillis) {
+        for (ModbusManagerListener listener : listeners) {
+            listener.onOperationDequeued(endpoint, queueSize, waitMillis);
+        }
+    }
+
     @SuppressWarnings({ "null", "unused" })
     @Override
     public boolean unregisterRegularPoll(PollTask task) {
@@ -807,13 +1206,17 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                 return false;
             }
-            logger.info("Unregistering regular poll task {} (interrupting if necessary)", task);
+            logger.info("Unregistering regular poll task {}", task);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            if (!unregisterGroupedPoll(task)) {
+                // Not interrupting: the thread might be draining the queue of the endpoint, executing some other
+                // task. Ongoing execution of this task is aborted on next try (see verifyTaskIsRegistered)
+                future.cancel(false);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -832,18 +1235,40 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Remove poll task from its poll group, cancelling the group once it becomes empty
+     *
+     * @return whether the task was part of a poll group
+     */
+    private boolean unregisterGroupedPoll(PollTask task) {
+        for (PollGroup group : pollGroups) {
+            if (group.remove(task)) {
+                if (group.tasks.isEmpty()) {
+                    pollGroups.remove(group);
+                    ScheduledFuture<?> groupFuture = group.future;
+                    if (groupFuture != null) {
+                        groupFuture.cancel(false);
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task) {
         ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
         long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
+        QueuedOperationFuture future = new QueuedOperationFuture();
+        scheduledThreadPoolExecutor.execute(() -> {
             long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
+            logger.debug("Will now queue one-off write task {}, waited in thread pool for {}", task,
                     millisInThreadPoolWaiting);
-            executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
+            enqueueOperation(task, true, writeOperation, Priority.WRITE, future);
+        });
         return future;
     }
 
@@ -852,6 +1277,8 @@ public class ModbusManagerImpl implements ModbusManager {
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        // Give pipelining another chance with the new configuration
+        pipeliningDisabledEndpoints.remove(endpoint);
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
@@ -863,6 +1290,11 @@ public class ModbusManagerImpl implements ModbusManager {
         return connectionFactory.getEndpointPoolConfiguration(endpoint);
     }
 
+    @Override
+    public ModbusEndpointStatistics getEndpointStatistics(ModbusSlaveEndpoint endpoint) {
+        return statistics(endpoint).snapshot();
+    }
+
     @Override
     public void addListener(ModbusManagerListener listener) {
         listeners.add(listener);
@@ -921,6 +1353,8 @@ public class ModbusManagerImpl implements ModbusManager {
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
             connectionFactory = null;
+            endpointQueues.clear();
+            endpointStatistics.clear();
             logger.debug("Modbus manager deactivated");
         }
     }
@@ -944,6 +1378,18 @@ public class ModbusManagerImpl implements ModbusManager {
                         task.getRequest().getDataLength(), future.isDone(), future.isCancelled(),
                         future.getDelay(TimeUnit.MILLISECONDS), task);
             });
+            this.endpointQueues.forEach((endpoint, queue) -> {
+                pollMonitorLogger.trace(
+                        "POLL MONITOR: endpoint {} queue size: {}, last wait {} ms, dropped polls (queue behind) {}",
+                        endpoint, queue.size(), queue.getLastWaitMillis(), queue.getDroppedCount());
+                pollMonitorLogger.trace("POLL MONITOR: endpoint {} statistics: {}", endpoint,
+                        statistics(endpoint).snapshot());
+                if (queue.size() >= WARN_QUEUE_SIZE) {
+                    pollMonitorLogger.warn(
+                            "Many ({}) tasks queued for endpoint {}! This might be sign of bad design or bug in the binding code.",
+                            queue.size(), endpoint);
+                }
+            });
             if (scheduledThreadPoolExecutor instanceof ThreadPoolExecutor) {
                 ThreadPoolExecutor executor = ((ThreadPoolExecutor) scheduledThreadPoolExecutor);
                 pollMonitorLogger.trace(
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Future of a one-off operation queued to an {@link EndpointTaskQueue}
+ *
+ * The future completes once the operation has been executed. Cancelling the future before the operation is taken from
+ * the queue prevents the execution of the operation. An operation that is already executing is not interrupted.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class QueuedOperationFuture extends CompletableFuture<Void> implements ScheduledFuture<Void> {
+
+    /**
+     * Queued operations are executed as soon as possible, there is no delay.
+     */
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return 0;
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
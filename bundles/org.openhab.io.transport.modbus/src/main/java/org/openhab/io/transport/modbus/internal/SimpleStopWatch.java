@@ -13,6 +13,7 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -31,6 +32,24 @@ public class SimpleStopWatch {
 
     private volatile long totalMillis;
     private volatile long resumed;
+    private final LongConsumer lapListener;
+
+    /**
+     * Construct stop watch
+     */
+    public SimpleStopWatch() {
+        this(lapMillis -> {
+        });
+    }
+
+    /**
+     * Construct stop watch notifying the duration of each resume-suspend lap
+     *
+     * @param lapListener listener called with the lap duration in milliseconds whenever the stop watch is suspended
+     */
+    public SimpleStopWatch(LongConsumer lapListener) {
+        this.lapListener = lapListener;
+    }
 
     @FunctionalInterface
     public abstract interface SupplierWithPollTaskUnregisteredException<T> {
@@ -63,8 +82,10 @@ public class SimpleStopWatch {
         if (!isRunning()) {
             throw new IllegalStateException("Cannot suspend non-running StopWatch");
         }
-        totalMillis += System.currentTimeMillis() - resumed;
+        long lapMillis = System.currentTimeMillis() - resumed;
+        totalMillis += lapMillis;
         resumed = 0;
+        lapListener.accept(lapMillis);
     }
 
     /**
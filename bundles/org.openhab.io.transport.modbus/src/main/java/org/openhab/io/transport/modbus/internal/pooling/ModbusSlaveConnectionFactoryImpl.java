@@ -16,6 +16,7 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
@@ -84,6 +85,8 @@ public class ModbusSlaveConnectionFactoryImpl
     private volatile Map<ModbusSlaveEndpoint, Long> lastConnectMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> disconnectIfConnectedBefore = new ConcurrentHashMap<>();
     private volatile Function<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> defaultPoolConfigurationFactory = endpoint -> null;
+    private volatile BiConsumer<ModbusSlaveEndpoint, Long> connectTimeListener = (endpoint, millis) -> {
+    };
 
     private @Nullable InetAddress getInetAddress(ModbusIPSlaveEndpoint key) {
         try {
@@ -268,6 +271,16 @@ public class ModbusSlaveConnectionFactoryImpl
         this.defaultPoolConfigurationFactory = defaultPoolConfigurationFactory;
     }
 
+    /**
+     * Set listener for connection establishment times
+     *
+     * @param connectTimeListener listener called with the endpoint and duration in milliseconds after each connection
+     *            attempt, successful or not
+     */
+    public void setConnectTimeListener(BiConsumer<ModbusSlaveEndpoint, Long> connectTimeListener) {
+        this.connectTimeListener = connectTimeListener;
+    }
+
     private void tryConnect(ModbusSlaveEndpoint endpoint, PooledObject<ModbusSlaveConnection> obj,
             ModbusSlaveConnection connection, @Nullable EndpointPoolConfiguration config) throws Exception {
         if (connection.isConnected()) {
@@ -290,7 +303,12 @@ public class ModbusSlaveConnectionFactoryImpl
                                 obj.getObject(), endpoint);
                     }
                 }
-                connection.connect();
+                long connectStart = System.currentTimeMillis();
+                try {
+                    connection.connect();
+                } finally {
+                    connectTimeListener.accept(endpoint, System.currentTimeMillis() - connectStart);
+                }
                 long curTime = System.currentTimeMillis();
                 ((PooledConnection) obj).setLastConnected(curTime);
                 lastConnectMillis.put(endpoint, curTime);
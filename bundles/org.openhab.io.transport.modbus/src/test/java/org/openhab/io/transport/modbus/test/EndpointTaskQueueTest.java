@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue.Priority;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointTaskQueueTest {
+
+    private final EndpointTaskQueue queue = new EndpointTaskQueue(new ModbusTCPSlaveEndpoint("thisishost", 502));
+
+    @Test
+    public void testWritesExecutedFirst() {
+        List<String> executed = new ArrayList<>();
+        queue.offer(Priority.REGULAR_POLL, "poll1", () -> executed.add("poll1"));
+        queue.offer(Priority.ONE_OFF_POLL, null, () -> executed.add("oneoff"));
+        queue.offer(Priority.WRITE, null, () -> executed.add("write1"));
+        queue.offer(Priority.REGULAR_POLL, "poll2", () -> executed.add("poll2"));
+        queue.offer(Priority.WRITE, null, () -> executed.add("write2"));
+        assertThat(queue.size(), is(equalTo(5)));
+
+        queue.drain((endpoint, size, waitMillis) -> {
+        });
+        assertThat(executed, is(equalTo(Arrays.asList("write1", "write2", "oneoff", "poll1", "poll2"))));
+        assertThat(queue.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testStalePollsDropped() {
+        List<String> executed = new ArrayList<>();
+        assertThat(queue.offer(Priority.REGULAR_POLL, "poll1", () -> executed.add("poll1")), is(true));
+        assertThat(queue.offer(Priority.REGULAR_POLL, "poll1", () -> executed.add("poll1")), is(false));
+        assertThat(queue.getDroppedCount(), is(equalTo(1L)));
+
+        queue.drain((endpoint, size, waitMillis) -> {
+        });
+        assertThat(executed, is(equalTo(Arrays.asList("poll1"))));
+
+        // Once executed, the poll can be queued again
+        assertThat(queue.offer(Priority.REGULAR_POLL, "poll1", () -> executed.add("poll1")), is(true));
+    }
+
+    @Test
+    public void testNestedDrainDoesNotExecute() {
+        List<String> executed = new ArrayList<>();
+        queue.offer(Priority.REGULAR_POLL, "poll1", () -> {
+            queue.offer(Priority.WRITE, null, () -> executed.add("write"));
+            // Queue is already being drained by this thread, operation is left for the draining loop
+            queue.drain((endpoint, size, waitMillis) -> {
+            });
+            executed.add("poll1");
+        });
+        List<Integer> sizes = new ArrayList<>();
+        queue.drain((endpoint, size, waitMillis) -> sizes.add(size));
+        assertThat(executed, is(equalTo(Arrays.asList("poll1", "write"))));
+        assertThat(sizes, is(equalTo(Arrays.asList(0, 0))));
+    }
+}
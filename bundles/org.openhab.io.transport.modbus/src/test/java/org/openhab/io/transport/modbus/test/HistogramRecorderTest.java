@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusHistogram;
+import org.openhab.io.transport.modbus.internal.HistogramRecorder;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class HistogramRecorderTest {
+
+    @Test
+    public void testValuesRecordedToBuckets() {
+        HistogramRecorder recorder = new HistogramRecorder(10, 100, 1000);
+        recorder.record(0);
+        recorder.record(10);
+        recorder.record(11);
+        recorder.record(500);
+        recorder.record(5000);
+
+        ModbusHistogram histogram = recorder.snapshot();
+        assertThat(histogram.getCounts(), is(equalTo(new long[] { 2, 1, 1, 1 })));
+        assertThat(histogram.getCount(), is(equalTo(5L)));
+        assertThat(histogram.getSum(), is(equalTo(5521L)));
+        assertThat(histogram.getMax(), is(equalTo(5000L)));
+        assertThat(histogram.getMean(), is(equalTo(5521.0 / 5)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        HistogramRecorder recorder = new HistogramRecorder(HistogramRecorder.DURATION_BUCKETS_MILLIS);
+        for (int i = 0; i < 90; i++) {
+            recorder.record(3);
+        }
+        for (int i = 0; i < 10; i++) {
+            recorder.record(150);
+        }
+
+        ModbusHistogram histogram = recorder.snapshot();
+        assertThat(histogram.getPercentile(50), is(equalTo(5L)));
+        assertThat(histogram.getPercentile(90), is(equalTo(5L)));
+        // Bucket upper bound is limited by the maximum value
+        assertThat(histogram.getPercentile(95), is(equalTo(150L)));
+        assertThat(histogram.getPercentile(100), is(equalTo(150L)));
+    }
+
+    @Test
+    public void testEmpty() {
+        ModbusHistogram histogram = new HistogramRecorder(1, 2).snapshot();
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(histogram.getMean(), is(equalTo(0.0)));
+        assertThat(histogram.getPercentile(99), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        HistogramRecorder recorder = new HistogramRecorder(1, 2);
+        ModbusHistogram histogram = recorder.snapshot();
+        recorder.record(1);
+        assertThat(histogram.getCount(), is(equalTo(0L)));
+        assertThat(recorder.snapshot().getCount(), is(equalTo(1L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnorderedBuckets() {
+        new HistogramRecorder(10, 5);
+    }
+}
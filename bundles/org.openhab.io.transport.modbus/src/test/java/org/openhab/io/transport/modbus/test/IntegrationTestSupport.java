@@ -24,6 +24,7 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.HashMap;
+import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 
 import org.apache.commons.lang.NotImplementedException;
@@ -133,6 +134,12 @@ public class IntegrationTestSupport extends JavaTest {
     protected ServerType serverType = ServerType.TCP;
     protected long artificialServerWait = 0;
 
+    /**
+     * Customization applied to transports of accepted TCP connections, e.g. to alter responses of the server
+     */
+    protected Consumer<ModbusTransport> tcpServerTransportCustomizer = transport -> {
+    };
+
     protected NonOSGIModbusManager modbusManager;
 
     private Thread serialServerThread = new Thread("ModbusTransportTestsSerialServer") {
@@ -290,6 +297,7 @@ public class IntegrationTestSupport extends JavaTest {
             } catch (ModbusIOException e) {
                 throw new RuntimeException(e);
             }
+            tcpServerTransportCustomizer.accept(transport);
             return transport;
         }
     }
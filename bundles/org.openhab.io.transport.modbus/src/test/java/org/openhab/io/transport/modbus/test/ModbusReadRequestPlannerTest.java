@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusReadRequestPlanner;
+import org.openhab.io.transport.modbus.ModbusReadRequestPlanner.MergedPollTask;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusReadRequestPlannerTest {
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            received.add(registers.toHexString());
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            received.add(bits.toBinaryString());
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            received.add(error);
+        }
+    }
+
+    private final ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+
+    private PollTask task(ModbusReadFunctionCode functionCode, int start, int length, ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(1, functionCode, start, length, 3),
+                callback);
+    }
+
+    private PollTask task(int start, int length) {
+        return task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, new RecordingCallback());
+    }
+
+    @Test
+    public void testAdjacentRequestsAreMerged() {
+        List<PollTask> plan = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task(10, 2), task(0, 5), task(5, 5)));
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0), is(instanceOf(MergedPollTask.class)));
+        assertThat(plan.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(12)));
+        assertThat(((MergedPollTask) plan.get(0)).getTasks().size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testOverlappingRequestsAreMerged() {
+        List<PollTask> plan = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task(0, 10), task(2, 3)));
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getReference(), is(equalTo(0)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(10)));
+    }
+
+    @Test
+    public void testGapTolerance() {
+        List<PollTask> tasks = Arrays.asList(task(0, 5), task(8, 2));
+        assertThat(new ModbusReadRequestPlanner(2).plan(tasks).size(), is(equalTo(2)));
+
+        List<PollTask> plan = new ModbusReadRequestPlanner(3).plan(tasks);
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(10)));
+    }
+
+    @Test
+    public void testRegisterLimitRespected() {
+        List<PollTask> plan = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task(0, 100), task(100, 26)));
+        assertThat(plan.size(), is(equalTo(2)));
+
+        plan = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task(0, 100), task(100, 25)));
+        assertThat(plan.size(), is(equalTo(1)));
+        assertThat(plan.get(0).getRequest().getDataLength(), is(equalTo(125)));
+    }
+
+    @Test
+    public void testDifferentFunctionCodesNotMerged() {
+        List<PollTask> plan = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task(0, 5),
+                task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 5, 5, new RecordingCallback())));
+        assertThat(plan.size(), is(equalTo(2)));
+        assertThat(plan.get(0), is(not(instanceOf(MergedPollTask.class))));
+        assertThat(plan.get(1), is(not(instanceOf(MergedPollTask.class))));
+    }
+
+    @Test
+    public void testRegistersSliced() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        PollTask task1 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 1, callback2);
+        List<PollTask> plan = new ModbusReadRequestPlanner(1).plan(Arrays.asList(task1, task2));
+        assertThat(plan.size(), is(equalTo(1)));
+
+        PollTask merged = plan.get(0);
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+        assertThat(callback1.received, is(equalTo(Arrays.<Object> asList("00 01 00 02"))));
+        assertThat(callback2.received, is(equalTo(Arrays.<Object> asList("00 04"))));
+    }
+
+    @Test
+    public void testBitsSliced() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        PollTask task1 = task(ModbusReadFunctionCode.READ_COILS, 0, 3, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_COILS, 3, 2, callback2);
+        List<PollTask> plan = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task1, task2));
+        assertThat(plan.size(), is(equalTo(1)));
+
+        PollTask merged = plan.get(0);
+        // response bits are padded to full bytes
+        merged.getCallback().onBits(merged.getRequest(),
+                new BasicBitArray(true, false, true, true, false, false, false, false));
+        assertThat(callback1.received, is(equalTo(Arrays.<Object> asList("101"))));
+        assertThat(callback2.received, is(equalTo(Arrays.<Object> asList("10"))));
+    }
+
+    @Test
+    public void testErrorForwardedToAll() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        PollTask task1 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, callback1);
+        PollTask task2 = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, callback2);
+        PollTask merged = new ModbusReadRequestPlanner(0).plan(Arrays.asList(task1, task2)).get(0);
+
+        Exception error = new Exception("fail");
+        merged.getCallback().onError(merged.getRequest(), error);
+        assertThat(callback1.received, is(equalTo(Arrays.<Object> asList(error))));
+        assertThat(callback2.received, is(equalTo(Arrays.<Object> asList(error))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeGapTolerance() {
+        new ModbusReadRequestPlanner(-1);
+    }
+}
@@ -16,10 +16,19 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 import static org.junit.Assume.assumeFalse;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -48,6 +57,9 @@ import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.internal.BitArrayWrappingBitVector;
 import org.slf4j.LoggerFactory;
 
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.msg.ModbusMessage;
+import net.wimpi.modbus.msg.ModbusMessageImpl;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.WriteCoilRequest;
 import net.wimpi.modbus.msg.WriteMultipleCoilsRequest;
@@ -924,4 +936,269 @@ public class SmokeTest extends IntegrationTestSupport {
                 is(equalTo(Stream.of(task2).collect(Collectors.toSet()))));
 
     }
+
+    @Test
+    public void testOneOffPollFutureCompletesAfterExecution() throws Exception {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        AtomicInteger callbackCount = new AtomicInteger();
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1), new ModbusReadCallback() {
+
+                    @Override
+                    public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+                        callbackCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(ModbusReadRequestBlueprint request, Exception error) {
+                        callbackCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+                        callbackCount.incrementAndGet();
+                    }
+                });
+        ScheduledFuture<?> future = modbusManager.submitOneTimePoll(task);
+        future.get(5, TimeUnit.SECONDS);
+        // Future completes only after the queued poll has been executed
+        assertThat(callbackCount.get(), is(equalTo(1)));
+        assertThat(future.isDone(), is(true));
+        assertThat(future.isCancelled(), is(false));
+    }
+
+    @Test
+    public void testPollRegisteredWhileGroupIsPlanned() throws Exception {
+        generateData();
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setReadMergeGapTolerance(0);
+        modbusManager.setEndpointPoolConfiguration(getEndpoint(), configuration);
+
+        CountDownLatch planningStarted = new CountDownLatch(1);
+        CountDownLatch planningResumed = new CountDownLatch(1);
+        AtomicBoolean blockPlanning = new AtomicBoolean(true);
+        PipelinedPollCallback firstCallback = new PipelinedPollCallback(0, 1);
+        // Blocks the poll thread while the plan of the group is computed for the first time
+        BasicPollTaskImpl first = new BasicPollTaskImpl(getEndpoint(), new BasicModbusReadRequestBlueprint(
+                SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 5, 1), firstCallback) {
+
+            @Override
+            public ModbusReadRequestBlueprint getRequest() {
+                if (blockPlanning.compareAndSet(true, false)) {
+                    planningStarted.countDown();
+                    try {
+                        planningResumed.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getRequest();
+            }
+        };
+        modbusManager.registerRegularPoll(first, 200, 0);
+        assertTrue(planningStarted.await(5, TimeUnit.SECONDS));
+
+        // Register another poll of the same group while the group poll is executing
+        PipelinedPollCallback secondCallback = new PipelinedPollCallback(20, 1);
+        Thread registering = new Thread(() -> modbusManager.registerRegularPoll(
+                new BasicPollTaskImpl(getEndpoint(), new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                        ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 20, 5, 1), secondCallback),
+                200, 0));
+        registering.start();
+        // Registration either completes before the plan, or waits for the plan to be ready
+        registering.join(500);
+        planningResumed.countDown();
+        registering.join(5000);
+        assertFalse(registering.isAlive());
+
+        // The plan computed without the second poll must not hide it from the following executions
+        assertTrue(firstCallback.callbackCalled.await(5, TimeUnit.SECONDS));
+        assertTrue(secondCallback.callbackCalled.await(5, TimeUnit.SECONDS));
+        assertThat(secondCallback.unexpectedCount.get(), is(equalTo(0)));
+    }
+
+    /**
+     * Read callback verifying holding registers of a pipelined poll
+     */
+    private class PipelinedPollCallback implements ModbusReadCallback {
+
+        private final int start;
+        private final CountDownLatch callbackCalled;
+        private final AtomicInteger dataReceived = new AtomicInteger();
+        private final AtomicInteger unexpectedCount = new AtomicInteger();
+        private final AtomicReference<Exception> lastError = new AtomicReference<>();
+        private volatile boolean failing;
+
+        private PipelinedPollCallback(int start, int expectedCalls) {
+            this.start = start;
+            this.callbackCalled = new CountDownLatch(expectedCalls);
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            dataReceived.incrementAndGet();
+            try {
+                assertThat(registers.size(), is(equalTo(5)));
+                testHoldingValues(registers, start);
+            } catch (AssertionError e) {
+                unexpectedCount.incrementAndGet();
+            }
+            callbackCalled.countDown();
+            if (failing) {
+                throw new IllegalStateException("Callback failure");
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            lastError.set(error);
+            callbackCalled.countDown();
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            unexpectedCount.incrementAndGet();
+            callbackCalled.countDown();
+        }
+    }
+
+    /**
+     * Register polls of 5 holding registers, executed as a single batch of pipelined transactions
+     */
+    private void registerPipelinedPolls(long pollPeriodMillis, int[] starts, PipelinedPollCallback[] callbacks) {
+        EndpointPoolConfiguration configuration = new EndpointPoolConfiguration();
+        configuration.setMaxPipelinedTransactions(starts.length);
+        modbusManager.setEndpointPoolConfiguration(getEndpoint(), configuration);
+        for (int i = 0; i < starts.length; i++) {
+            // Initial delay ensures that all the tasks are part of the first execution
+            modbusManager.registerRegularPoll(new BasicPollTaskImpl(getEndpoint(), new BasicModbusReadRequestBlueprint(
+                    SLAVE_UNIT_ID, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, starts[i], 5, 1), callbacks[i]),
+                    pollPeriodMillis, 100);
+        }
+    }
+
+    /**
+     * Replace the responses written by the slave
+     *
+     * @param interceptor function returning the messages to write in place of the response
+     */
+    private void interceptServerResponses(Function<ModbusMessage, List<ModbusMessage>> interceptor) {
+        tcpServerTransportCustomizer = transport -> {
+            AtomicInteger passThrough = new AtomicInteger();
+            try {
+                doAnswer(invocation -> {
+                    if (passThrough.get() > 0) {
+                        return invocation.callRealMethod();
+                    }
+                    for (ModbusMessage message : interceptor.apply(invocation.getArgument(0))) {
+                        passThrough.incrementAndGet();
+                        try {
+                            transport.writeMessage(message);
+                        } finally {
+                            passThrough.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }).when(transport).writeMessage(any());
+            } catch (ModbusIOException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    @Test
+    public void testPipelinedPollsWithInterleavedResponses() throws InterruptedException {
+        generateData();
+        // Slave responds to the first request only after responding to the second one
+        AtomicReference<ModbusMessage> held = new AtomicReference<>();
+        AtomicInteger responseCount = new AtomicInteger();
+        interceptServerResponses(response -> {
+            int index = responseCount.getAndIncrement();
+            if (index == 0) {
+                held.set(response);
+                return Collections.emptyList();
+            } else if (index == 1) {
+                return Arrays.asList(response, held.get());
+            }
+            return Collections.singletonList(response);
+        });
+        PipelinedPollCallback[] callbacks = new PipelinedPollCallback[] { new PipelinedPollCallback(0, 1),
+                new PipelinedPollCallback(20, 1), new PipelinedPollCallback(40, 1) };
+        registerPipelinedPolls(10_000, new int[] { 0, 20, 40 }, callbacks);
+
+        for (PipelinedPollCallback callback : callbacks) {
+            assertTrue(callback.callbackCalled.await(5, TimeUnit.SECONDS));
+            assertThat(callback.dataReceived.get(), is(equalTo(1)));
+            assertThat(callback.unexpectedCount.get(), is(equalTo(0)));
+            assertThat(callback.lastError.get(), is(nullValue()));
+        }
+        // All responses were matched to the requests, no serial fallback with new connection
+        waitForRequests(3);
+        waitForConnectionsReceived(1);
+    }
+
+    @Test
+    public void testPipelinedPollsWithExceptionResponseInBetween() throws InterruptedException {
+        generateData();
+        // Slave responds with illegal data address to the second request
+        PipelinedPollCallback[] callbacks = new PipelinedPollCallback[] { new PipelinedPollCallback(0, 1),
+                new PipelinedPollCallback(200, 1), new PipelinedPollCallback(40, 1) };
+        registerPipelinedPolls(10_000, new int[] { 0, 200, 40 }, callbacks);
+
+        for (PipelinedPollCallback callback : callbacks) {
+            assertTrue(callback.callbackCalled.await(5, TimeUnit.SECONDS));
+            assertThat(callback.unexpectedCount.get(), is(equalTo(0)));
+        }
+        assertThat(callbacks[0].dataReceived.get(), is(equalTo(1)));
+        assertThat(callbacks[2].dataReceived.get(), is(equalTo(1)));
+        // Erroneous task is re-executed serially, over the same connection
+        assertThat(callbacks[1].dataReceived.get(), is(equalTo(0)));
+        assertThat(callbacks[1].lastError.get(), is(instanceOf(ModbusSlaveErrorResponseException.class)));
+        waitForRequests(4);
+        waitForConnectionsReceived(1);
+    }
+
+    @Test
+    public void testPipelinedPollsWithUnexpectedTransactionId() throws InterruptedException {
+        generateData();
+        // Slave responds to the first request with unknown transaction ID
+        AtomicInteger responseCount = new AtomicInteger();
+        interceptServerResponses(response -> {
+            if (responseCount.getAndIncrement() == 0) {
+                ((ModbusMessageImpl) response).setTransactionID(0);
+            }
+            return Collections.singletonList(response);
+        });
+        PipelinedPollCallback[] callbacks = new PipelinedPollCallback[] { new PipelinedPollCallback(0, 1),
+                new PipelinedPollCallback(20, 1), new PipelinedPollCallback(40, 1) };
+        registerPipelinedPolls(10_000, new int[] { 0, 20, 40 }, callbacks);
+
+        // All tasks are executed serially with a new connection
+        for (PipelinedPollCallback callback : callbacks) {
+            assertTrue(callback.callbackCalled.await(5, TimeUnit.SECONDS));
+            assertThat(callback.dataReceived.get(), is(equalTo(1)));
+            assertThat(callback.unexpectedCount.get(), is(equalTo(0)));
+            assertThat(callback.lastError.get(), is(nullValue()));
+        }
+        waitForConnectionsReceived(2);
+    }
+
+    @Test
+    public void testPipelinedPollsWithThrowingCallback() throws InterruptedException {
+        generateData();
+        PipelinedPollCallback[] callbacks = new PipelinedPollCallback[] { new PipelinedPollCallback(0, 2),
+                new PipelinedPollCallback(20, 2), new PipelinedPollCallback(40, 2) };
+        callbacks[0].failing = true;
+        registerPipelinedPolls(200, new int[] { 0, 20, 40 }, callbacks);
+
+        // Other responses are still processed, and the connection is reused for the second poll round without
+        // stale responses
+        for (PipelinedPollCallback callback : callbacks) {
+            assertTrue(callback.callbackCalled.await(5, TimeUnit.SECONDS));
+            assertThat(callback.unexpectedCount.get(), is(equalTo(0)));
+            assertThat(callback.lastError.get(), is(nullValue()));
+        }
+        waitForConnectionsReceived(1);
+    }
 }
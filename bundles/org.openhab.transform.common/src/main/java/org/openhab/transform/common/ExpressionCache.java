@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded least-recently-used cache of compiled expressions, keyed by the expression string
+ *
+ * Expressions are compiled outside the lock, so a slow compilation does not block lookups of other expressions. Two
+ * threads missing the same expression at the same time might both compile it, in which case the first one wins.
+ *
+ * Evictions are logged on debug level together with the hit and miss counts, since frequent evictions mean that
+ * the capacity is too small for the expressions in use.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> type of the compiled expression
+ */
+@NonNullByDefault
+public class ExpressionCache<T> {
+
+    /**
+     * Function compiling an expression
+     *
+     * @param <T> type of the compiled expression
+     * @param <E> type of the exception thrown on invalid expressions
+     */
+    @FunctionalInterface
+    public interface Compiler<T, E extends Exception> {
+        T compile(String expression) throws E;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ExpressionCache.class);
+
+    private final int capacity;
+    private final Map<String, T> cache;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     *
+     * @param capacity maximum number of compiled expressions kept in the cache
+     */
+    @SuppressWarnings("serial")
+    public ExpressionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive");
+        }
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, T> eldest) {
+                if (size() > ExpressionCache.this.capacity && eldest != null) {
+                    evictionCount++;
+                    logger.debug("Evicted expression '{}' from {}", eldest.getKey(), ExpressionCache.this);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the compiled expression from the cache, compiling and caching it if necessary
+     *
+     * @param expression expression to compile
+     * @param compiler function compiling the expression
+     * @return compiled expression
+     * @throws E when the expression could not be compiled. Failures are not cached.
+     */
+    public <E extends Exception> T get(String expression, Compiler<T, E> compiler) throws E {
+        synchronized (cache) {
+            T compiled = cache.get(expression);
+            if (compiled != null) {
+                hitCount++;
+                return compiled;
+            }
+            missCount++;
+        }
+        T compiled = compiler.compile(expression);
+        synchronized (cache) {
+            T previous = cache.putIfAbsent(expression, compiled);
+            return previous == null ? compiled : previous;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get number of compiled expressions currently in the cache
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Get number of lookups that found the compiled expression in the cache
+     */
+    public long getHitCount() {
+        synchronized (cache) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Get number of lookups that had to compile the expression
+     */
+    public long getMissCount() {
+        synchronized (cache) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Get number of compiled expressions removed from the cache to make room for others
+     */
+    public long getEvictionCount() {
+        synchronized (cache) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Remove all compiled expressions from the cache. Counters are not reset.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (cache) {
+            return String.format("ExpressionCache [size=%d, capacity=%d, hits=%d, misses=%d, evictions=%d]",
+                    cache.size(), capacity, hitCount, missCount, evictionCount);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.common;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ExpressionCacheTest {
+
+    private final List<String> compiled = new ArrayList<>();
+
+    private String compile(String expression) {
+        compiled.add(expression);
+        return expression.toUpperCase();
+    }
+
+    @Test
+    public void testCompiledOnce() {
+        ExpressionCache<String> cache = new ExpressionCache<>(10);
+        assertThat(cache.get("a", this::compile), is(equalTo("A")));
+        assertThat(cache.get("a", this::compile), is(equalTo("A")));
+        assertThat(compiled.size(), is(equalTo(1)));
+        assertThat(cache.getHitCount(), is(equalTo(1L)));
+        assertThat(cache.getMissCount(), is(equalTo(1L)));
+        assertThat(cache.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        ExpressionCache<String> cache = new ExpressionCache<>(2);
+        cache.get("a", this::compile);
+        cache.get("b", this::compile);
+        cache.get("a", this::compile);
+        // b is the least recently used
+        cache.get("c", this::compile);
+        assertThat(cache.size(), is(equalTo(2)));
+        assertThat(cache.getEvictionCount(), is(equalTo(1L)));
+
+        cache.get("a", this::compile);
+        cache.get("b", this::compile);
+        assertThat(compiled.size(), is(equalTo(4)));
+        assertThat(cache.getEvictionCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testFailureNotCached() {
+        ExpressionCache<String> cache = new ExpressionCache<>(2);
+        try {
+            cache.get("a", expression -> {
+                throw new Exception("invalid");
+            });
+            fail("Expected exception");
+        } catch (Exception e) {
+            assertThat(e.getMessage(), is(equalTo("invalid")));
+        }
+        assertThat(cache.size(), is(equalTo(0)));
+        assertThat(cache.get("a", this::compile), is(equalTo("A")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new ExpressionCache<String>(0);
+    }
+}
@@ -13,17 +13,16 @@
 package org.openhab.transform.jinja.internal;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.ExpressionCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +30,11 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -43,10 +47,22 @@ import com.hubspot.jinjava.Jinjava;
 @Component(immediate = true, property = { "smarthome.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of parsed templates kept in the cache
+     */
+    private static final int TEMPLATE_CACHE_CAPACITY = 500;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
     private Jinjava jinjava = new Jinjava();
 
+    /**
+     * Parsed templates, keyed by the template string
+     */
+    private final ExpressionCache<Node> templateCache = new ExpressionCache<>(TEMPLATE_CACHE_CAPACITY);
+
     /**
      * Transforms the input <code>value</code> by Jinja template.
      *
@@ -62,46 +78,52 @@ public class JinjaTransformationService implements TransformationService {
         bindings.put("value", value);
 
         try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
+            JsonNode tree = OBJECT_MAPPER.readTree(value);
+            bindings.put("value_json", JsonNodes.toObject(tree));
         } catch (IOException e) {
             // ok, then value_json is null...
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        Context context = new Context(jinjava.getGlobalContext(), bindings, jinjava.getGlobalConfig().getDisabled());
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        String transformationResult;
+        try {
+            Node root = templateCache.get(template, t -> parse(interpreter, t));
+            transformationResult = interpreter.render(root);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+
+        checkFatalErrors(interpreter, template);
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
-    private static @Nullable Object toObject(JsonNode node) {
-        switch (node.getNodeType()) {
-            case ARRAY: {
-                List<@Nullable Object> result = new ArrayList<>();
-                for (JsonNode el : node) {
-                    result.add(toObject(el));
-                }
-                return result;
-            }
-            case NUMBER:
-                return node.decimalValue();
-            case OBJECT: {
-                Map<String, @Nullable Object> result = new HashMap<>();
-                Iterator<Entry<String, JsonNode>> it = node.fields();
-                while (it.hasNext()) {
-                    Entry<String, JsonNode> field = it.next();
-                    result.put(field.getKey(), toObject(field.getValue()));
-                }
-                return result;
-            }
-            case STRING:
-                return node.asText();
-            case BOOLEAN:
-                return node.asBoolean();
-            case NULL:
-            default:
-                return null;
+    /**
+     * Parse the template. Templates with fatal errors are not returned, so they are not cached either.
+     */
+    private Node parse(JinjavaInterpreter interpreter, String template) throws TransformationException {
+        Node root = interpreter.parse(template);
+        checkFatalErrors(interpreter, template);
+        return root;
+    }
+
+    private void checkFatalErrors(JinjavaInterpreter interpreter, String template) throws TransformationException {
+        List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).collect(Collectors.toList());
+        if (!fatalErrors.isEmpty()) {
+            throw new TransformationException("Rendering template '" + template + "' failed: " + fatalErrors.stream()
+                    .map(TemplateError::getMessage).collect(Collectors.joining(", ")));
         }
     }
+
+    /**
+     * Get the cache of parsed templates
+     */
+    ExpressionCache<Node> getTemplateCache() {
+        return templateCache;
+    }
 }
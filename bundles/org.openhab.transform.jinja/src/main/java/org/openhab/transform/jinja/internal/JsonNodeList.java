@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only {@link List} view of a JSON array, converting the elements only when accessed
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class JsonNodeList extends AbstractList<@Nullable Object> {
+
+    private final JsonNode node;
+
+    JsonNodeList(JsonNode node) {
+        this.node = node;
+    }
+
+    @Override
+    public @Nullable Object get(int index) {
+        if (index < 0 || index >= node.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + node.size());
+        }
+        return JsonNodes.toObject(node.get(index));
+    }
+
+    @Override
+    public int size() {
+        return node.size();
+    }
+}
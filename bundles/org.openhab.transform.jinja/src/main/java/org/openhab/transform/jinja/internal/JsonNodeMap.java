@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only {@link Map} view of a JSON object
+ *
+ * Values are converted only when accessed, so a template reading a few fields of a large document does not pay for
+ * copying the whole tree. Nested objects and arrays are returned as views as well.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class JsonNodeMap extends AbstractMap<String, @Nullable Object> {
+
+    private final JsonNode node;
+
+    JsonNodeMap(JsonNode node) {
+        this.node = node;
+    }
+
+    @Override
+    public @Nullable Object get(@Nullable Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        JsonNode value = node.get((String) key);
+        return value == null ? null : JsonNodes.toObject(value);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return key instanceof String && node.has((String) key);
+    }
+
+    @Override
+    public int size() {
+        return node.size();
+    }
+
+    @Override
+    public Set<Entry<String, @Nullable Object>> entrySet() {
+        return new AbstractSet<Entry<String, @Nullable Object>>() {
+            @Override
+            public Iterator<Entry<String, @Nullable Object>> iterator() {
+                Iterator<Entry<String, JsonNode>> fields = node.fields();
+                return new Iterator<Entry<String, @Nullable Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return fields.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, @Nullable Object> next() {
+                        Entry<String, JsonNode> field = fields.next();
+                        return new SimpleImmutableEntry<>(field.getKey(), JsonNodes.toObject(field.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return node.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Conversion of JSON nodes to the objects bound to Jinja templates
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+final class JsonNodes {
+
+    private JsonNodes() {
+        // utility class
+    }
+
+    /**
+     * Convert the node to a value usable in templates. Objects and arrays are returned as lazily converting views.
+     *
+     * @param node JSON node
+     * @return converted value
+     */
+    static @Nullable Object toObject(JsonNode node) {
+        switch (node.getNodeType()) {
+            case ARRAY:
+                return new JsonNodeList(node);
+            case NUMBER:
+                return node.decimalValue();
+            case OBJECT:
+                return new JsonNodeMap(node);
+            case STRING:
+                return node.asText();
+            case BOOLEAN:
+                return node.asBoolean();
+            case NULL:
+            default:
+                return null;
+        }
+    }
+}
@@ -59,4 +59,37 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testNestedArray() throws TransformationException {
+        String json = "{\"devices\":[{\"id\":\"a\",\"on\":false},{\"id\":\"b\",\"on\":true}]}";
+        // method under test
+        String transformedResponse = processor.transform(
+                "{{ value_json.devices|length }} {{ value_json.devices[1].id }} {{ value_json.devices[1].on }}", json);
+
+        // Asserts
+        Assert.assertEquals("2 b true", transformedResponse);
+    }
+
+    @Test
+    public void testIterateArray() throws TransformationException {
+        String json = "[{\"id\":\"a\",\"value\":1},{\"id\":\"b\",\"value\":2.5}]";
+        // method under test
+        String transformedResponse = processor
+                .transform("{% for item in value_json %}{{ item.id }}={{ item.value }};{% endfor %}", json);
+
+        // Asserts
+        Assert.assertEquals("a=1;b=2.5;", transformedResponse);
+    }
+
+    @Test
+    public void testTemplateParsedOnce() throws TransformationException {
+        processor.transform("{{ value_json.state }}", "{\"state\":\"ON\"}");
+        // method under test
+        String transformedResponse = processor.transform("{{ value_json.state }}", "{\"state\":\"OFF\"}");
+
+        // Asserts
+        Assert.assertEquals("OFF", transformedResponse);
+        Assert.assertEquals(1, processor.getTemplateCache().getMissCount());
+        Assert.assertEquals(1, processor.getTemplateCache().getHitCount());
+    }
 }
@@ -20,10 +20,12 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.transform.common.ExpressionCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -41,6 +43,27 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled JsonPath expressions kept in the cache
+     */
+    private static final int EXPRESSION_CACHE_CAPACITY = 500;
+
+    /**
+     * Compiled JsonPath expressions, shared by all instances of the service
+     */
+    private static final ExpressionCache<JsonPath> EXPRESSION_CACHE = new ExpressionCache<>(EXPRESSION_CACHE_CAPACITY);
+
+    /**
+     * Number of most recently parsed JSON documents kept, so that channels reading several fields of the same
+     * payload parse it only once
+     */
+    private static final int DOCUMENT_CACHE_CAPACITY = 8;
+
+    /**
+     * Parsed JSON documents, shared by all instances of the service
+     */
+    private static final JsonDocumentCache DOCUMENT_CACHE = new JsonDocumentCache(DOCUMENT_CACHE_CAPACITY);
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
     /**
@@ -60,7 +83,10 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath jsonPath = EXPRESSION_CACHE.get(jsonPathExpression, JsonPath::compile);
+            Object document = DOCUMENT_CACHE.get(source,
+                    json -> Configuration.defaultConfiguration().jsonProvider().parse(json));
+            Object transformationResult = jsonPath.read(document);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +102,20 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Get the cache of compiled JsonPath expressions
+     */
+    static ExpressionCache<JsonPath> getExpressionCache() {
+        return EXPRESSION_CACHE;
+    }
+
+    /**
+     * Get the cache of parsed JSON documents
+     */
+    static JsonDocumentCache getDocumentCache() {
+        return DOCUMENT_CACHE;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Small cache of parsed JSON documents, keyed by the identity of the source string
+ *
+ * When several channels read fields of the same payload, the binding hands the very same string instance to each
+ * transformation. Caching the parsed document of the few most recent payloads means one parse per message instead
+ * of one parse per channel. Lookups compare references only, so a miss costs next to nothing even for large
+ * payloads. Payloads that are equal but not the same instance are parsed again.
+ *
+ * Parsed documents are shared and must not be modified.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonDocumentCache {
+
+    private final @Nullable String[] sources;
+    private final @Nullable Object[] documents;
+    private int next;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     *
+     * @param capacity number of most recent documents to keep
+     */
+    public JsonDocumentCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive");
+        }
+        sources = new @Nullable String[capacity];
+        documents = new @Nullable Object[capacity];
+    }
+
+    /**
+     * Get the parsed document of the source, parsing it if it is not among the most recent documents
+     *
+     * @param source JSON source
+     * @param parser function parsing the source. Failures are not cached.
+     * @return parsed document
+     */
+    public Object get(String source, Function<String, Object> parser) {
+        synchronized (this) {
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i] == source) {
+                    Object document = documents[i];
+                    if (document != null) {
+                        hitCount++;
+                        return document;
+                    }
+                }
+            }
+            missCount++;
+        }
+        // Parse outside the lock, parsing large documents should not block other transformations
+        Object document = parser.apply(source);
+        synchronized (this) {
+            sources[next] = source;
+            documents[next] = document;
+            next = (next + 1) % sources.length;
+        }
+        return document;
+    }
+
+    /**
+     * Get number of lookups that found the parsed document in the cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get number of lookups that had to parse the source
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
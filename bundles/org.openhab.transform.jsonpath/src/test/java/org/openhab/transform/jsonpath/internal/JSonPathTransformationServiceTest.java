@@ -41,6 +41,27 @@ public class JSonPathTransformationServiceTest {
         Assert.assertEquals("Nigel Rees", transformedResponse);
     }
 
+    @Test
+    public void testCompiledPathCached() throws TransformationException {
+        String path = "$.store.bicycle.color";
+        String json = "{'store':{'bicycle': { 'color': 'red',  'price': 19.95} }}";
+        processor.transform(path, json);
+        long hits = JSonPathTransformationService.getExpressionCache().getHitCount();
+
+        assertEquals("red", processor.transform(path, json));
+        assertEquals(hits + 1, JSonPathTransformationService.getExpressionCache().getHitCount());
+    }
+
+    @Test
+    public void testSamePayloadParsedOnce() throws TransformationException {
+        String json = "{'device':{'temperature':21.5,'humidity':48}}";
+        processor.transform("$.device.temperature", json);
+        long hits = JSonPathTransformationService.getDocumentCache().getHitCount();
+
+        assertEquals("48", processor.transform("$.device.humidity", json));
+        assertEquals(hits + 1, JSonPathTransformationService.getDocumentCache().getHitCount());
+    }
+
     private static final String jsonArray = "[" + //
             "{ \"id\":1, \"name\":\"bob\", \"empty\":null }," + //
             "{ \"id\":2, \"name\":\"alice\" }" + //
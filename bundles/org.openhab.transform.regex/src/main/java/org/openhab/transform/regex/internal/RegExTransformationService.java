@@ -19,6 +19,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.ExpressionCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +41,23 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    /**
+     * Maximum number of compiled regular expressions kept in each cache
+     */
+    private static final int EXPRESSION_CACHE_CAPACITY = 500;
+
+    /**
+     * Compiled regular expressions of the extracting form, shared by all instances of the service
+     */
+    private static final ExpressionCache<Pattern> MATCH_PATTERN_CACHE = new ExpressionCache<>(
+            EXPRESSION_CACHE_CAPACITY);
+
+    /**
+     * Compiled regular expressions of the substitution form, shared by all instances of the service
+     */
+    private static final ExpressionCache<Pattern> SUBSTITUTION_PATTERN_CACHE = new ExpressionCache<>(
+            EXPRESSION_CACHE_CAPACITY);
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +74,20 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher replaceMatcher = SUBSTITUTION_PATTERN_CACHE.get(regex, Pattern::compile).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = replaceMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = replaceMatcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = MATCH_PATTERN_CACHE
+                .get(regExpression, expression -> Pattern.compile("^" + expression + "$", Pattern.DOTALL))
+                .matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -95,4 +116,17 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    /**
+     * Get the cache of compiled regular expressions of the extracting form
+     */
+    static ExpressionCache<Pattern> getMatchPatternCache() {
+        return MATCH_PATTERN_CACHE;
+    }
+
+    /**
+     * Get the cache of compiled regular expressions of the substitution form
+     */
+    static ExpressionCache<Pattern> getSubstitutionPatternCache() {
+        return SUBSTITUTION_PATTERN_CACHE;
+    }
 }
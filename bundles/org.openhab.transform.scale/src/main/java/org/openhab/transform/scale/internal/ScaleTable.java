@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Compiled scale file
+ *
+ * The limits of all ranges split the number line into elementary intervals: the limits themselves and the open
+ * intervals between consecutive limits. No range starts or ends inside an elementary interval, so every value of
+ * an elementary interval matches the same ranges. The label of the first matching range (in file order) is computed
+ * for every elementary interval when the scale is compiled, and a lookup is a binary search over the limits.
+ *
+ * The output format is split into literal text and placeholder segments when the scale is compiled.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ScaleTable {
+
+    /**
+     * Segment of the output format
+     */
+    private static class Segment {
+        private final @Nullable String literal;
+        private final boolean value;
+
+        Segment(@Nullable String literal, boolean value) {
+            this.literal = literal;
+            this.value = value;
+        }
+    }
+
+    /** Sorted, distinct limits of all ranges */
+    private final BigDecimal[] limits;
+
+    /** Label of the first range containing limits[i], or null */
+    private final @Nullable String[] limitLabels;
+
+    /**
+     * Label of the first range containing the open interval below limits[i], or null. The last element is the label
+     * of the interval above the highest limit.
+     */
+    private final @Nullable String[] intervalLabels;
+
+    private final @Nullable String nonNumericLabel;
+    private final Segment[] format;
+
+    /**
+     *
+     * @param ranges ranges in the order of the scale file
+     * @param labels labels of the ranges
+     * @param nonNumericLabel label returned for non-numeric input, or null
+     * @param format output format with %value% and %label% placeholders
+     * @param valuePlaceholder the value placeholder
+     * @param labelPlaceholder the label placeholder
+     */
+    ScaleTable(List<Range> ranges, List<String> labels, @Nullable String nonNumericLabel, String format,
+            String valuePlaceholder, String labelPlaceholder) {
+        TreeSet<BigDecimal> distinctLimits = new TreeSet<>();
+        for (Range range : ranges) {
+            if (range.min != null) {
+                distinctLimits.add(range.min);
+            }
+            if (range.max != null) {
+                distinctLimits.add(range.max);
+            }
+        }
+        limits = distinctLimits.toArray(new BigDecimal[distinctLimits.size()]);
+        limitLabels = new @Nullable String[limits.length];
+        intervalLabels = new @Nullable String[limits.length + 1];
+
+        for (int i = 0; i < limits.length; i++) {
+            limitLabels[i] = firstMatch(ranges, labels, limits[i]);
+        }
+        for (int i = 0; i <= limits.length; i++) {
+            intervalLabels[i] = firstMatch(ranges, labels, intervalSample(i));
+        }
+
+        this.nonNumericLabel = nonNumericLabel;
+        this.format = compileFormat(format, valuePlaceholder, labelPlaceholder);
+    }
+
+    /**
+     * Get any value from inside the open interval below limits[index]
+     */
+    private BigDecimal intervalSample(int index) {
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (index == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        } else if (index == limits.length) {
+            return limits[limits.length - 1].add(BigDecimal.ONE);
+        } else {
+            // the midpoint is exact, BigDecimal division by two always terminates
+            return limits[index - 1].add(limits[index]).divide(BigDecimal.valueOf(2));
+        }
+    }
+
+    private static @Nullable String firstMatch(List<Range> ranges, List<String> labels, BigDecimal value) {
+        for (int i = 0; i < ranges.size(); i++) {
+            if (ranges.get(i).contains(value)) {
+                return labels.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static Segment[] compileFormat(String format, String valuePlaceholder, String labelPlaceholder) {
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        while (start < format.length()) {
+            int valueIndex = format.indexOf(valuePlaceholder, start);
+            int labelIndex = format.indexOf(labelPlaceholder, start);
+            int next;
+            boolean value;
+            if (valueIndex >= 0 && (labelIndex < 0 || valueIndex < labelIndex)) {
+                next = valueIndex;
+                value = true;
+            } else if (labelIndex >= 0) {
+                next = labelIndex;
+                value = false;
+            } else {
+                break;
+            }
+            if (next > start) {
+                segments.add(new Segment(format.substring(start, next), false));
+            }
+            segments.add(new Segment(null, value));
+            start = next + (value ? valuePlaceholder : labelPlaceholder).length();
+        }
+        if (start < format.length()) {
+            segments.add(new Segment(format.substring(start), false));
+        }
+        return segments.toArray(new Segment[segments.size()]);
+    }
+
+    /**
+     * Get the label of the first range containing the value
+     *
+     * @param value value to look up
+     * @return label, or null if no range contains the value
+     */
+    @Nullable
+    String lookup(BigDecimal value) {
+        int index = Arrays.binarySearch(limits, value);
+        if (index >= 0) {
+            return limitLabels[index];
+        }
+        // not a limit, -(insertion point) - 1 was returned
+        return intervalLabels[-index - 1];
+    }
+
+    /**
+     * Get the label for non-numeric input
+     *
+     * @return label, or null if the scale does not define one
+     */
+    @Nullable
+    String getNonNumericLabel() {
+        return nonNumericLabel;
+    }
+
+    /**
+     * Format the result
+     *
+     * @param source the transformed input
+     * @param label label of the matching range
+     * @return formatted result
+     */
+    String format(String source, String label) {
+        StringBuilder result = new StringBuilder();
+        for (Segment segment : format) {
+            String literal = segment.literal;
+            if (literal != null) {
+                result.append(literal);
+            } else {
+                result.append(segment.value ? source : label);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ScaleTableTest {
+
+    private static BigDecimal num(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    public void testFirstMatchWinsForOverlappingRanges() {
+        ScaleTable scale = new ScaleTable(
+                Arrays.asList(Range.closed(num("10"), num("20")), Range.closedOpen(num("0"), num("100")),
+                        Range.all()),
+                Arrays.asList("narrow", "wide", "all"), null, "%label%", "%value%", "%label%");
+        assertThat(scale.lookup(num("-1")), is("all"));
+        assertThat(scale.lookup(num("0")), is("wide"));
+        assertThat(scale.lookup(num("9.99")), is("wide"));
+        assertThat(scale.lookup(num("10")), is("narrow"));
+        assertThat(scale.lookup(num("15")), is("narrow"));
+        assertThat(scale.lookup(num("20.0")), is("narrow"));
+        assertThat(scale.lookup(num("20.01")), is("wide"));
+        assertThat(scale.lookup(num("100")), is("all"));
+    }
+
+    @Test
+    public void testGapsNotMatched() {
+        ScaleTable scale = new ScaleTable(
+                Arrays.asList(Range.closedOpen(num("0"), num("10")), Range.open(num("10"), num("20"))),
+                Arrays.asList("low", "high"), null, "%label%", "%value%", "%label%");
+        assertThat(scale.lookup(num("10")), is(nullValue()));
+        assertThat(scale.lookup(num("20")), is(nullValue()));
+        assertThat(scale.lookup(num("-0.5")), is(nullValue()));
+        assertThat(scale.lookup(num("19.5")), is("high"));
+    }
+
+    @Test
+    public void testFormat() {
+        ScaleTable scale = new ScaleTable(Collections.emptyList(), Collections.emptyList(), null,
+                "%label% (%value% $) %label%", "%value%", "%label%");
+        assertThat(scale.format("42", "good"), is("good (42 $) good"));
+        // source and label are inserted as-is
+        assertThat(scale.format("%label%", "a\\1"), is("a\\1 (%label% $) a\\1"));
+    }
+}
@@ -16,7 +16,6 @@ import java.io.StringReader;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
@@ -25,6 +24,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.common.ExpressionCache;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +41,19 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /**
+     * Maximum number of compiled XPath expressions kept in the cache of each thread
+     */
+    private static final int EXPRESSION_CACHE_CAPACITY = 100;
+
+    /**
+     * Compiled XPath expressions of the calling thread.
+     *
+     * {@link XPathExpression} is not thread-safe, thus compiled expressions are never shared between threads.
+     */
+    private final ThreadLocal<ExpressionCache<XPathExpression>> expressionCache = ThreadLocal
+            .withInitial(() -> new ExpressionCache<>(EXPRESSION_CACHE_CAPACITY));
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
     @Override
@@ -65,9 +78,8 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
+            XPathExpression expr = expressionCache.get().get(xpathExpression,
+                    expression -> XPathFactory.newInstance().newXPath().compile(expression));
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
             logger.debug("transformation resulted in '{}'", transformationResult);
@@ -82,4 +94,10 @@ public class XPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Get the cache of compiled XPath expressions of the calling thread
+     */
+    ExpressionCache<XPathExpression> getExpressionCache() {
+        return expressionCache.get();
+    }
 }
@@ -14,6 +14,8 @@ package org.openhab.transform.xpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,4 +41,38 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testCompiledExpressionCached() throws TransformationException {
+        String expression = "//current_conditions/humidity/@data";
+        processor.transform(expression, source);
+        long hits = processor.getExpressionCache().getHitCount();
+
+        assertEquals("Feuchtigkeit: 66 %", processor.transform(expression, source));
+        assertEquals(hits + 1, processor.getExpressionCache().getHitCount());
+    }
+
+    @Test
+    public void testCompiledExpressionNotSharedBetweenThreads() throws Exception {
+        String expression = "//current_conditions/condition/@data";
+        processor.transform(expression, source);
+        long misses = processor.getExpressionCache().getMissCount();
+
+        AtomicReference<Object> otherThreadResult = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                long otherThreadMisses = processor.getExpressionCache().getMissCount();
+                processor.transform(expression, source);
+                otherThreadResult.set(processor.getExpressionCache().getMissCount() - otherThreadMisses);
+            } catch (TransformationException e) {
+                otherThreadResult.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        // Other thread compiled the expression on its own
+        assertEquals(1L, otherThreadResult.get());
+        assertEquals(misses, processor.getExpressionCache().getMissCount());
+    }
+
 }
@@ -15,16 +15,19 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.AbstractFileTransformationService;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
@@ -35,14 +38,47 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * <p>
+ * Stylesheets are compiled once and cached until the stylesheet file changes. Transformers created from the compiled
+ * stylesheet are pooled, since {@link Transformer} is not thread-safe but expensive to create.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=XSLT" })
-public class XsltTransformationService implements TransformationService {
+@Component(immediate = true, service = TransformationService.class, property = { "smarthome.transform=XSLT" })
+public class XsltTransformationService extends AbstractFileTransformationService<XsltTransformationService.Stylesheet> {
+
+    /**
+     * Output buffers larger than this are not kept for reuse
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringWriter> OUTPUT_BUFFER = ThreadLocal.withInitial(StringWriter::new);
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /**
+     * Compiled stylesheet with a pool of transformers created from it
+     */
+    static class Stylesheet {
+        private final Templates templates;
+        private final Queue<Transformer> transformers = new ConcurrentLinkedQueue<>();
+
+        Stylesheet(Templates templates) {
+            this.templates = templates;
+        }
+
+        Transformer borrowTransformer() throws TransformerConfigurationException {
+            Transformer transformer = transformers.poll();
+            return transformer != null ? transformer : templates.newTransformer();
+        }
+
+        void returnTransformer(Transformer transformer) {
+            transformer.reset();
+            transformers.offer(transformer);
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -50,47 +86,47 @@ public class XsltTransformationService implements TransformationService {
      * is stored under the 'configurations/transform' folder. To organize the
      * various transformations one should use subfolders.
      *
-     * @param filename the name of the file which contains the XSLT transformation rule.
-     *            The name may contain subfoldernames as well
+     * @param stylesheet the compiled XSLT transformation rule
      * @param source the input to transform
      */
     @Override
-    public @Nullable String transform(String filename, String source) throws TransformationException {
-        if (filename == null || source == null) {
-            throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
-        }
+    protected @Nullable String internalTransform(Stylesheet stylesheet, String source)
+            throws TransformationException {
+        logger.debug("about to transform '{}' by the stylesheet '{}'", source, stylesheet.templates);
 
-        Source xsl = null;
+        StringWriter out = OUTPUT_BUFFER.get();
+        out.getBuffer().setLength(0);
 
         try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            Transformer transformer = stylesheet.borrowTransformer();
+            // transformers failing with exception are not returned to the pool, their state is undefined
+            transformer.transform(new StreamSource(new StringReader(source)), new StreamResult(out));
+            stylesheet.returnTransformer(transformer);
         } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
-
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
+            logger.error("transformation throws exception", e);
+            throw new TransformationException("transformation throws exception", e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        String result = out.toString();
+        if (out.getBuffer().capacity() > MAX_REUSED_BUFFER_SIZE) {
+            OUTPUT_BUFFER.remove();
+        }
 
-        StringReader xml = new StringReader(source);
-        StringWriter out = new StringWriter();
+        logger.debug("transformation resulted in '{}'", result);
 
-        Transformer transformer;
+        return result;
+    }
 
+    @Override
+    protected Stylesheet internalLoadTransform(String filename) throws TransformationException {
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            Templates templates = TransformerFactory.newInstance().newTemplates(new StreamSource(new File(filename)));
+            return new Stylesheet(templates);
         } catch (Exception e) {
-            logger.error("transformation throws exception", e);
-            throw new TransformationException("transformation throws exception", e);
-        }
-
-        logger.debug("transformation resulted in '{}'", out.toString());
+            String message = "opening file '" + filename + "' throws exception";
 
-        return out.toString();
+            logger.error("{}", message, e);
+            throw new TransformationException(message, e);
+        }
     }
-
 }